@@ -0,0 +1,52 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.squareup.javapoet.FieldSpec;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+
+/**
+ * Generates the entity and the fields of a synthetic table. The rules are
+ * compiled during the setup, as they are once per run.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class EntityGeneratorBenchmark {
+
+  @Param({ "10", "800" })
+  public int columnCount;
+
+  @Param({ "0", "50", "500" })
+  public int ruleCount;
+
+  private Table table;
+  private EntityGeneratorConfig config;
+
+  @Setup
+  public void setup() {
+    table = SyntheticSchema.getTable(columnCount);
+    config = SyntheticSchema.getConfig(ruleCount);
+    config.getRuleIndex();
+  }
+
+  @Benchmark
+  public String getEntity() {
+    return EntityGenerator.getEntity(table, config);
+  }
+
+  @Benchmark
+  public List<FieldSpec> getFields() {
+    return EntityGenerator.getFields(table.getColumns(), SyntheticSchema.CLASS_NAME, table.getIndexes(),
+        table.getImportedKeys(), config);
+  }
+}
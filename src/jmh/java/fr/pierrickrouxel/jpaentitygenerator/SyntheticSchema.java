@@ -0,0 +1,153 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Index;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassNameRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldDefaultValueRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldMatcher;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldTypeRule;
+
+/**
+ * Synthetic tables and rules of the benchmarks, built without database.
+ * <p>
+ * Rules target the columns of the table by literal names and by regular
+ * expressions, so that some of them match and most of them do not.
+ */
+public final class SyntheticSchema {
+
+  /**
+   * The name of the synthetic table.
+   */
+  public static final String TABLE_NAME = "BENCHMARK_TABLE";
+
+  /**
+   * The class name of the synthetic table.
+   */
+  public static final String CLASS_NAME = "BenchmarkTable";
+
+  private static final int[] TYPE_CODES = new int[] { Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.NUMERIC,
+      Types.BOOLEAN, Types.BIGINT, Types.DATE, Types.CLOB };
+
+  private SyntheticSchema() {
+  }
+
+  /**
+   * Creates a table whose first column is the primary key. Every tenth column
+   * has a unique index.
+   *
+   * @param columnCount The number of columns
+   * @return The table
+   */
+  public static Table getTable(int columnCount) {
+    var table = Table.builder()
+        .name(TABLE_NAME)
+        .remarks("Synthetic table of " + columnCount + " columns")
+        .build();
+    for (var i = 0; i < columnCount; i++) {
+      var typeCode = TYPE_CODES[i % TYPE_CODES.length];
+      table.getColumns().add(Column.builder()
+          .name(getColumnName(i))
+          .typeCode(typeCode)
+          .typeName(Integer.toString(typeCode))
+          .nullable(i > 0)
+          .primaryKey(i == 0)
+          .autoIncrement(i == 0)
+          .columnSize(typeCode == Types.VARCHAR ? 255 : 0)
+          .remarks(i % 3 == 0 ? "Column " + i : null)
+          .build());
+      if (i > 0 && i % 10 == 0) {
+        table.getIndexes().add(Index.builder()
+            .name("UK_" + getColumnName(i))
+            .columnName(getColumnName(i))
+            .nonUnique(false)
+            .build());
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Get the name of a column of the synthetic table.
+   *
+   * @param index The column index
+   * @return The column name
+   */
+  public static String getColumnName(int index) {
+    return "COLUMN_" + index;
+  }
+
+  /**
+   * Creates a config with rules of each kind, in turn.
+   *
+   * @param ruleCount The number of rules
+   * @return The config
+   */
+  public static EntityGeneratorConfig getConfig(int ruleCount) {
+    var config = EntityGeneratorConfig.builder()
+        .packageName("fr.example.entity")
+        .build();
+    for (var i = 0; i < ruleCount; i++) {
+      // The field name of column i is "column" + i
+      switch (i % 5) {
+        case 0:
+          config.getFieldTypeRules().add(FieldTypeRule.builder()
+              .className(CLASS_NAME)
+              .fieldName("column" + i)
+              .typeName("String")
+              .build());
+          break;
+        case 1:
+          config.getFieldAnnotationRules().add(FieldAnnotationRule.builder()
+              .fieldName("column" + i + "[0-9]")
+              .annotations(List.of(Annotation.builder().className("jakarta.validation.constraints.NotNull").build()))
+              .build());
+          break;
+        case 2:
+          config.getFieldDefaultValueRules().add(FieldDefaultValueRule.builder()
+              .classNames(List.of(CLASS_NAME, "Other" + i))
+              .fieldName("column" + i)
+              .defaultValue("null")
+              .build());
+          break;
+        case 3:
+          config.getClassAnnotationRules().add(ClassAnnotationRule.builder()
+              .className(i % 2 == 0 ? CLASS_NAME : "Other.*" + i)
+              .annotations(List.of(Annotation.builder().className("lombok.Builder").build()))
+              .build());
+          break;
+        default:
+          var classNameRule = new ClassNameRule();
+          classNameRule.setTableName("TABLE_" + i);
+          classNameRule.setClassName("Table" + i);
+          config.getClassNameRules().add(classNameRule);
+          break;
+      }
+    }
+    // The rules added to the built config are compiled by a new build
+    return config.toBuilder().build();
+  }
+
+  /**
+   * Get the field rules of a config, in a single list.
+   *
+   * @param config The config
+   * @return The field rules
+   */
+  public static List<FieldMatcher> getFieldMatchers(EntityGeneratorConfig config) {
+    var matchers = new ArrayList<FieldMatcher>();
+    matchers.addAll(config.getFieldTypeRules());
+    matchers.addAll(config.getFieldAnnotationRules());
+    matchers.addAll(config.getFieldDefaultValueRules());
+    matchers.addAll(config.getFieldAdditionalCommentRules());
+    return matchers;
+  }
+}
@@ -0,0 +1,67 @@
+package fr.pierrickrouxel.jpaentitygenerator.rule;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.pierrickrouxel.jpaentitygenerator.SyntheticSchema;
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.config.RuleIndex;
+import fr.pierrickrouxel.jpaentitygenerator.util.NameConverter;
+
+/**
+ * Matches the rules of a config against the fields of a synthetic table, one
+ * rule at a time and through a rule index compiled for the run.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class RuleMatcherBenchmark {
+
+  @Param({ "10", "800" })
+  public int columnCount;
+
+  @Param({ "0", "50", "500" })
+  public int ruleCount;
+
+  private EntityGeneratorConfig config;
+  private List<FieldMatcher> fieldMatchers;
+  private List<String> fieldNames;
+
+  @Setup
+  public void setup() {
+    config = SyntheticSchema.getConfig(ruleCount);
+    fieldMatchers = SyntheticSchema.getFieldMatchers(config);
+    fieldNames = SyntheticSchema.getTable(columnCount).getColumns().stream()
+        .map(o -> NameConverter.toFieldName(o.getName()))
+        .toList();
+  }
+
+  @Benchmark
+  public int matchFieldRules() {
+    var matches = 0;
+    for (var fieldName : fieldNames) {
+      for (var fieldMatcher : fieldMatchers) {
+        if (fieldMatcher.matches(SyntheticSchema.CLASS_NAME, fieldName)) {
+          matches++;
+        }
+      }
+    }
+    return matches;
+  }
+
+  @Benchmark
+  public void compileRuleIndex(Blackhole blackhole) {
+    var ruleIndex = RuleIndex.of(config);
+    blackhole.consume(ruleIndex.getClassRules(SyntheticSchema.CLASS_NAME));
+    for (var fieldName : fieldNames) {
+      blackhole.consume(ruleIndex.getFieldRules(SyntheticSchema.CLASS_NAME, fieldName));
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package fr.pierrickrouxel.jpaentitygenerator.util;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import fr.pierrickrouxel.jpaentitygenerator.SyntheticSchema;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassNameRule;
+
+/**
+ * Converts the names and types of a synthetic table. Each column name is also
+ * converted as a table name, against the class name rules of the config.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ConverterBenchmark {
+
+  @Param({ "10", "800" })
+  public int columnCount;
+
+  @Param({ "0", "50", "500" })
+  public int ruleCount;
+
+  private List<Column> columns;
+  private List<String> tableNames;
+  private List<ClassNameRule> classNameRules;
+
+  @Setup
+  public void setup() {
+    columns = SyntheticSchema.getTable(columnCount).getColumns();
+    tableNames = IntStream.range(0, columnCount).mapToObj(o -> "TABLE_" + o).toList();
+    classNameRules = SyntheticSchema.getConfig(ruleCount).getClassNameRules();
+  }
+
+  @Benchmark
+  public void toClassName(Blackhole blackhole) {
+    for (var tableName : tableNames) {
+      blackhole.consume(NameConverter.toClassName(tableName, classNameRules));
+    }
+  }
+
+  @Benchmark
+  public void toFieldName(Blackhole blackhole) {
+    for (var column : columns) {
+      blackhole.consume(NameConverter.toFieldName(column.getName()));
+    }
+  }
+
+  @Benchmark
+  public void toListFieldName(Blackhole blackhole) {
+    for (var tableName : tableNames) {
+      blackhole.consume(NameConverter.toListFieldName(tableName));
+    }
+  }
+
+  @Benchmark
+  public void toJavaType(Blackhole blackhole) {
+    for (var column : columns) {
+      blackhole.consume(TypeConverter.toJavaType(column.getTypeCode()));
+    }
+  }
+}
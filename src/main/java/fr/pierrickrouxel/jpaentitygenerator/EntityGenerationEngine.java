@@ -0,0 +1,95 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.output.GeneratedSource;
+
+/**
+ * Generates entity sources on a fork-join pool.
+ * <p>
+ * An entity source only depends on its table, the foreign key graph and the
+ * config, so sources are identical whatever the number of workers. They are
+ * returned in the order of the tables. The engine must be closed at the end of
+ * the generation run.
+ */
+public class EntityGenerationEngine implements AutoCloseable {
+
+  private final int parallelism;
+  private final ForkJoinPool pool;
+  private final SpecRegistry specs = new SpecRegistry();
+
+  /**
+   * Creates an engine.
+   *
+   * @param parallelism The number of workers, `0` for the number of available
+   *                    processors, `1` to generate on the calling thread
+   */
+  public EntityGenerationEngine(int parallelism) {
+    this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    this.pool = this.parallelism > 1 ? new ForkJoinPool(this.parallelism) : null;
+  }
+
+  /**
+   * Creates an engine with the generation parallelism of a config.
+   *
+   * @param config The config
+   */
+  public EntityGenerationEngine(EntityGeneratorConfig config) {
+    this(config.getGenerationParallelism());
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Generates entity sources.
+   *
+   * @param tables          The table descriptions
+   * @param foreignKeyGraph The foreign key relationships of the schema
+   * @param config          The config
+   * @return The source codes, in the order of the tables
+   */
+  public List<String> generate(List<Table> tables, ForeignKeyGraph foreignKeyGraph, EntityGeneratorConfig config) {
+    return generateSources(tables, foreignKeyGraph, config).stream()
+        .map(GeneratedSource::toString)
+        .toList();
+  }
+
+  /**
+   * Generates entity sources, rendered and hashed on the workers, to be written
+   * to a sink.
+   *
+   * @param tables          The table descriptions
+   * @param foreignKeyGraph The foreign key relationships of the schema
+   * @param config          The config
+   * @return The entity sources, in the order of the tables
+   */
+  public List<GeneratedSource> generateSources(List<Table> tables, ForeignKeyGraph foreignKeyGraph,
+      EntityGeneratorConfig config) {
+    if (pool == null || tables.size() < 2) {
+      var sources = new ArrayList<GeneratedSource>(tables.size());
+      for (var table : tables) {
+        sources.add(GeneratedSource.of(EntityGenerator.getEntityFile(table, foreignKeyGraph, config, specs)));
+      }
+      return sources;
+    }
+
+    return pool.submit(() -> tables.parallelStream()
+        .map(o -> GeneratedSource.of(EntityGenerator.getEntityFile(o, foreignKeyGraph, config, specs)))
+        .toList())
+        .join();
+  }
+
+  @Override
+  public void close() {
+    if (pool != null) {
+      pool.shutdown();
+    }
+  }
+}
@@ -0,0 +1,408 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.config.SnapshotMode;
+import fr.pierrickrouxel.jpaentitygenerator.incremental.FingerprintStore;
+import fr.pierrickrouxel.jpaentitygenerator.incremental.GenerationFingerprint;
+import fr.pierrickrouxel.jpaentitygenerator.incremental.GenerationManifest;
+import fr.pierrickrouxel.jpaentitygenerator.incremental.TableFingerprint;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.DdlMetaDataSource;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.FetchProfile;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.JdbcStatistics;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.MetaDataSource;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.SharedMetadata;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.SnapshotMetaDataSource;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.TableMetaDataFetcher;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.UncheckedSQLException;
+import fr.pierrickrouxel.jpaentitygenerator.output.DirectorySourceSink;
+import fr.pierrickrouxel.jpaentitygenerator.output.GeneratedSourceSink;
+import fr.pierrickrouxel.jpaentitygenerator.util.NameConverter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates the entities of a config to a sink: opens the metadata source,
+ * selects the tables and runs the generation pipeline.
+ * <p>
+ * This is the entry point used by the Gradle task and by embedders.
+ */
+@Slf4j
+public class EntityGenerationRunner {
+
+  /**
+   * The maximum number of tables fetched at once by the fetch stage.
+   */
+  private static final int FETCH_UNIT_SIZE = 256;
+
+  private final EntityGeneratorConfig config;
+  private final SharedMetadata sharedMetadata;
+
+  /**
+   * Creates a runner.
+   *
+   * @param config The config
+   */
+  public EntityGenerationRunner(EntityGeneratorConfig config) {
+    this(config, null);
+  }
+
+  /**
+   * Creates a runner fetching the metadata with shared connections and cached
+   * schemas.
+   *
+   * @param config         The config
+   * @param sharedMetadata The shared metadata, `null` to open connections for
+   *                       the run only
+   */
+  public EntityGenerationRunner(EntityGeneratorConfig config, SharedMetadata sharedMetadata) {
+    this.config = config;
+    this.sharedMetadata = sharedMetadata;
+  }
+
+  /**
+   * Generates the entities to the output directory of the config.
+   *
+   * @throws SQLException
+   * @throws IOException
+   */
+  public void run() throws SQLException, IOException {
+    run(GeneratedSourceSink.directory(Paths.get(config.getOutputDirectory()), config.getPackageName()));
+  }
+
+  /**
+   * Generates the entities to a sink, and finishes the sink once all the
+   * entities are generated.
+   *
+   * @param sink The entity sources target
+   * @throws SQLException
+   * @throws IOException
+   */
+  public void run(GeneratedSourceSink sink) throws SQLException, IOException {
+    run(sink, null);
+  }
+
+  /**
+   * Generates the entities of a partition of the tables to the output
+   * directory of the config. Each table belongs to a single partition, so that
+   * partitions may run concurrently, in other class loaders or processes.
+   * <p>
+   * Partitions save their generation manifest and table fingerprints to their
+   * own files, merged by {@link #mergePartitions(int)} once all partitions are
+   * generated.
+   *
+   * @param index The partition index, from `0`
+   * @param count The number of partitions
+   * @throws SQLException
+   * @throws IOException
+   */
+  public void runPartition(int index, int count) throws SQLException, IOException {
+    var partition = new Partition(index, count);
+    var directory = Paths.get(config.getOutputDirectory());
+    var manifestPath = partition.getPath(DirectorySourceSink.getManifestPath(directory, config.getPackageName()));
+    run(new DirectorySourceSink(directory, config.getPackageName(), manifestPath), partition);
+  }
+
+  /**
+   * Merges the generation manifests and table fingerprints of the partitions of
+   * a run, and deletes the files that are no longer generated.
+   *
+   * @param count The number of partitions
+   * @throws IOException
+   */
+  public void mergePartitions(int count) throws IOException {
+    var directory = Paths.get(config.getOutputDirectory());
+    var manifestPath = DirectorySourceSink.getManifestPath(directory, config.getPackageName());
+    var manifest = GenerationManifest.merge(manifestPath, getPartitionPaths(manifestPath, count));
+    var removedFiles = manifest.deleteRemovedFiles(directory, config.getPackageName());
+    manifest.save();
+    log.info("Merged {} partitions in {}: {} deleted", count, directory, removedFiles.size());
+
+    if (config.isIncremental()) {
+      var fingerprintPaths = new ArrayList<String>();
+      fingerprintPaths.add(config.getFingerprintPath());
+      if (config.getJdbcSettings() != null) {
+        config.getJdbcSettings().getSchemas()
+            .forEach(o -> fingerprintPaths.add(config.forSchema(o).getFingerprintPath()));
+      }
+      for (var fingerprintPath : fingerprintPaths) {
+        var path = Paths.get(fingerprintPath);
+        FingerprintStore.merge(path, getPartitionPaths(path, count));
+      }
+    }
+  }
+
+  private void run(GeneratedSourceSink sink, Partition partition) throws SQLException, IOException {
+    // Shared connections outlive the run, their round trips are not recorded
+    var statistics = sharedMetadata == null && log.isInfoEnabled() ? new JdbcStatistics() : null;
+    try (var metaDataSource = openMetaDataSource(statistics);
+        var engine = new EntityGenerationEngine(config)) {
+      var schemas = config.getJdbcSettings() != null ? config.getJdbcSettings().getSchemas() : List.<String>of();
+      if (!schemas.isEmpty()) {
+        generateSchemas(metaDataSource, schemas, engine, sink, partition);
+      } else {
+        generateAll(cache(metaDataSource), config, engine, sink, partition);
+      }
+    }
+    sink.finish();
+
+    if (statistics != null) {
+      log.info("JDBC metadata round trips:{}{}", System.lineSeparator(), statistics);
+    }
+  }
+
+  /**
+   * Get the fingerprint of the tables the entities are generated from. It
+   * changes when the metadata of an included table changes, or when the config
+   * gives another entity for it.
+   * <p>
+   * Tables are fingerprinted from the catalog checksums when the metadata
+   * dialect supports them, without fetching their metadata.
+   *
+   * @return The fingerprint
+   * @throws SQLException
+   * @throws IOException
+   */
+  public String getSchemaFingerprint() throws SQLException, IOException {
+    var tableFingerprints = new HashMap<String, String>();
+    try (var metaDataSource = config.getSnapshotMode() == SnapshotMode.READ
+        ? SnapshotMetaDataSource.open(Paths.get(config.getSnapshotPath()))
+        : openSchemaSource(FetchProfile.of(config), null)) {
+      var schemas = config.getJdbcSettings() != null ? config.getJdbcSettings().getSchemas() : List.<String>of();
+      if (!schemas.isEmpty()) {
+        for (var schema : schemas) {
+          try (var schemaSource = metaDataSource.forSchema(schema)) {
+            addTableFingerprints(cache(schemaSource), config.forSchema(schema), schema + ".", tableFingerprints);
+          }
+        }
+      } else {
+        addTableFingerprints(cache(metaDataSource), config, "", tableFingerprints);
+      }
+    }
+    return GenerationFingerprint.ofSchema(tableFingerprints);
+  }
+
+  private static void addTableFingerprints(MetaDataSource metaDataSource, EntityGeneratorConfig config,
+      String prefix, Map<String, String> tableFingerprints) throws SQLException {
+    var tableNames = filterTableNames(config, metaDataSource.getTableNames());
+    var foreignKeyGraph = metaDataSource.getForeignKeyGraph();
+    var checksums = metaDataSource.getTableChecksums();
+    if (checksums.isPresent()) {
+      for (var tableName : tableNames) {
+        tableFingerprints.put(prefix + tableName,
+            TableFingerprint.of(tableName, checksums.get().get(tableName), foreignKeyGraph, config));
+      }
+      return;
+    }
+
+    try (var tables = metaDataSource.streamTables(tableNames)) {
+      tables.forEach(o -> tableFingerprints.put(prefix + o.getName(), TableFingerprint.of(o, foreignKeyGraph, config)));
+    } catch (UncheckedSQLException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Generates the entities of several schemas concurrently, each schema in its
+   * own sub-package. The schemas share the metadata source, and its
+   * connections.
+   * <p>
+   * Failures do not interrupt the other schemas: they are collected and reported
+   * together as suppressed exceptions once all schemas have been generated.
+   */
+  private void generateSchemas(MetaDataSource metaDataSource, List<String> schemas, EntityGenerationEngine engine,
+      GeneratedSourceSink sink, Partition partition) throws SQLException, IOException {
+    var threadBuilder = config.isVirtualThreads() ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+    var threadFactory = threadBuilder.name("schema-generator-", 0).factory();
+
+    var futures = new ArrayList<Future<Void>>();
+    try (var executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+      for (var schema : schemas) {
+        futures.add(executor.submit(() -> {
+          try (var schemaSource = metaDataSource.forSchema(schema)) {
+            generateAll(cache(schemaSource), config.forSchema(schema), engine, sink, partition);
+          }
+          return null;
+        }));
+      }
+    }
+
+    var failures = new ArrayList<Throwable>();
+    var failedSchemas = new ArrayList<String>();
+    for (var i = 0; i < futures.size(); i++) {
+      try {
+        futures.get(i).get();
+      } catch (ExecutionException e) {
+        failedSchemas.add(schemas.get(i));
+        failures.add(e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new SQLException("Interrupted while generating schemas", e);
+      }
+    }
+
+    if (!failures.isEmpty()) {
+      var exception = new SQLException("Failed to generate entities for schemas " + failedSchemas);
+      failures.forEach(exception::addSuppressed);
+      throw exception;
+    }
+  }
+
+  private void generateAll(MetaDataSource metaDataSource, EntityGeneratorConfig config,
+      EntityGenerationEngine engine, GeneratedSourceSink sink, Partition partition) throws SQLException, IOException {
+    var allTableNames = metaDataSource.getTableNames();
+    var tableNames = filterTableNames(config, allTableNames);
+    if (partition != null) {
+      tableNames = partition.select(tableNames);
+    }
+    var foreignKeyGraph = metaDataSource.getForeignKeyGraph();
+
+    var fingerprintPath = Paths.get(config.getFingerprintPath());
+    var fingerprintSavePath = partition != null ? partition.getPath(fingerprintPath) : fingerprintPath;
+    var fingerprints = config.isIncremental() ? FingerprintStore.load(fingerprintPath, fingerprintSavePath) : null;
+    var checksums = config.isIncremental() ? metaDataSource.getTableChecksums() : Optional.<Map<String, String>>empty();
+    if (checksums.isPresent()) {
+      // Tables are selected from the catalog checksums before fetching their metadata
+      tableNames = tableNames.stream()
+          .filter(o -> isChanged(fingerprints, o, TableFingerprint.of(o, checksums.get().get(o), foreignKeyGraph,
+              config), sink, config))
+          .toList();
+    }
+    Predicate<Table> needsGeneration = fingerprints == null || checksums.isPresent()
+        ? o -> true
+        : o -> isChanged(fingerprints, o.getName(), TableFingerprint.of(o, foreignKeyGraph, config), sink, config);
+
+    var pipeline = new GenerationPipeline(config, engine);
+    pipeline.run(getFetchUnits(tableNames, config),
+        o -> fetchTables(metaDataSource, o, config).filter(needsGeneration),
+        o -> engine.generateSources(o, foreignKeyGraph, config),
+        sink);
+    log.info("Generation pipeline of {}:{}{}", config.getPackageName(), System.lineSeparator(), pipeline);
+
+    if (fingerprints != null) {
+      fingerprints.save();
+    }
+  }
+
+  private MetaDataSource openMetaDataSource(JdbcStatistics statistics) throws SQLException, IOException {
+    var snapshotPath = Paths.get(config.getSnapshotPath());
+
+    switch (config.getSnapshotMode()) {
+      case WRITE:
+        Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+        // The snapshot holds all metadata, it may be read with another config
+        try (var metaDataSource = openSchemaSource(FetchProfile.FULL, statistics)) {
+          var schemas = config.getJdbcSettings() != null ? config.getJdbcSettings().getSchemas() : List.<String>of();
+          if (metaDataSource instanceof TableMetaDataFetcher fetcher) {
+            fetcher.writeSnapshot(snapshotPath, schemas);
+          } else {
+            SchemaSnapshotWriter.write(snapshotPath, metaDataSource, schemas);
+          }
+        }
+        return SnapshotMetaDataSource.open(snapshotPath);
+      case READ:
+        return SnapshotMetaDataSource.open(snapshotPath);
+      default:
+        return openSchemaSource(FetchProfile.of(config), statistics);
+    }
+  }
+
+  private MetaDataSource openSchemaSource(FetchProfile profile, JdbcStatistics statistics)
+      throws SQLException, IOException {
+    if (!config.getDdlScripts().isEmpty()) {
+      return DdlMetaDataSource.open(config.getDdlScripts().stream().map(Paths::get).toList());
+    }
+    if (sharedMetadata != null) {
+      return sharedMetadata.openFetcher(config.getJdbcSettings(), profile);
+    }
+    return new TableMetaDataFetcher(config.getJdbcSettings(), profile, statistics);
+  }
+
+  private MetaDataSource cache(MetaDataSource metaDataSource) throws SQLException {
+    return sharedMetadata != null ? sharedMetadata.cache(metaDataSource) : metaDataSource;
+  }
+
+  /**
+   * Splits the table names into the units of the fetch stage. Bulk fetching
+   * keeps a single unit to issue its schema-wide calls once.
+   */
+  private static List<List<String>> getFetchUnits(List<String> tableNames, EntityGeneratorConfig config) {
+    if (tableNames.isEmpty()) {
+      return List.of();
+    }
+    if (config.isBulkMetadataFetch()) {
+      return List.of(tableNames);
+    }
+    var parallelism = Math.max(1, config.getFetchParallelism());
+    var unitSize = Math.min(FETCH_UNIT_SIZE, (tableNames.size() + parallelism - 1) / parallelism);
+    var units = new ArrayList<List<String>>();
+    for (var i = 0; i < tableNames.size(); i += unitSize) {
+      units.add(tableNames.subList(i, Math.min(tableNames.size(), i + unitSize)));
+    }
+    return units;
+  }
+
+  private static Stream<Table> fetchTables(MetaDataSource metaDataSource, List<String> tableNames,
+      EntityGeneratorConfig config) throws SQLException {
+    if (metaDataSource instanceof TableMetaDataFetcher fetcher && config.isBulkMetadataFetch()) {
+      return fetcher.getTables(tableNames).stream();
+    }
+    return metaDataSource.streamTables(tableNames);
+  }
+
+  private static boolean isChanged(FingerprintStore fingerprints, String tableName, String fingerprint,
+      GeneratedSourceSink sink, EntityGeneratorConfig config) {
+    var changed = fingerprints.isChanged(tableName, fingerprint);
+    return changed || !sink.keep(config.getPackageName(),
+        NameConverter.toClassName(tableName, config.getClassNameRules()));
+  }
+
+  private static List<String> filterTableNames(EntityGeneratorConfig config, List<String> allTableNames) {
+    var ruleIndex = config.getRuleIndex();
+    return allTableNames.stream()
+        .filter(ruleIndex::isTableIncluded)
+        .collect(Collectors.toList());
+  }
+
+  private static List<Path> getPartitionPaths(Path path, int count) {
+    return IntStream.range(0, count)
+        .mapToObj(o -> new Partition(o, count).getPath(path))
+        .toList();
+  }
+
+  /**
+   * A share of the tables of a run: the tables whose index in the table list
+   * modulo the number of partitions is the partition index.
+   */
+  private record Partition(int index, int count) {
+
+    <T> List<T> select(List<T> tableNames) {
+      return IntStream.range(0, tableNames.size())
+          .filter(o -> o % count == index)
+          .mapToObj(tableNames::get)
+          .toList();
+    }
+
+    Path getPath(Path path) {
+      return path.resolveSibling(path.getFileName() + ".part" + index);
+    }
+  }
+}
@@ -5,7 +5,6 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -14,7 +13,6 @@ import java.util.stream.Stream;
 import javax.lang.model.element.Modifier;
 
 import com.squareup.javapoet.AnnotationSpec;
-import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.ParameterizedTypeName;
@@ -23,14 +21,13 @@ import com.squareup.javapoet.TypeSpec;
 
 import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Index;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Key;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
 import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
-import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAdditionalCommentRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAnnotationRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.ClassNameRule;
-import fr.pierrickrouxel.jpaentitygenerator.rule.FieldAdditionalCommentRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.FieldAnnotationRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.FieldTypeRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.InterfaceRule;
@@ -44,6 +41,9 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class EntityGenerator {
 
+  // The public overloads are not part of a generation run, they share the specs of all calls
+  private static final SpecRegistry SHARED_SPECS = new SpecRegistry();
+
   /**
    * /**
    * Generates entity source code.
@@ -53,38 +53,79 @@ public class EntityGenerator {
    * @return The source code
    */
   public static String getEntity(Table table, EntityGeneratorConfig config) {
+    return getEntity(table, ForeignKeyGraph.of(table), config);
+  }
+
+  /**
+   * Generates entity source code.
+   *
+   * @param table           The table description
+   * @param foreignKeyGraph The foreign key relationships of the schema
+   * @param config          The config
+   * @return The source code
+   */
+  public static String getEntity(Table table, ForeignKeyGraph foreignKeyGraph, EntityGeneratorConfig config) {
+    return getEntityFile(table, foreignKeyGraph, config).toString();
+  }
+
+  /**
+   * Generates the entity file, to be streamed to a sink.
+   *
+   * @param table           The table description
+   * @param foreignKeyGraph The foreign key relationships of the schema
+   * @param config          The config
+   * @return The entity file
+   */
+  public static JavaFile getEntityFile(Table table, ForeignKeyGraph foreignKeyGraph, EntityGeneratorConfig config) {
+    return getEntityFile(table, foreignKeyGraph, config, SHARED_SPECS);
+  }
+
+  /**
+   * Generates the entity file, sharing the specs of a generation run.
+   *
+   * @param table           The table description
+   * @param foreignKeyGraph The foreign key relationships of the schema
+   * @param config          The config
+   * @param specs           The specs of the run
+   * @return The entity file
+   */
+  static JavaFile getEntityFile(Table table, ForeignKeyGraph foreignKeyGraph, EntityGeneratorConfig config,
+      SpecRegistry specs) {
     var className = NameConverter.toClassName(table.getName(), config.getClassNameRules());
 
-    var fields = getFields(table.getColumns(), className, table.getIndexes(), table.getImportedKeys(), config);
-    var manyToOneFields = getManyToOneFields(table.getImportedKeys(), table.getColumns(), config.getClassNameRules());
-    var oneToManyFields = getOneToManyFields(table.getExportedKeys(), config.getClassNameRules());
+    var lookup = TableLookup.of(table);
+    var fields = getFields(table.getColumns(), className, lookup, config, specs);
+    var manyToOneFields = getManyToOneFields(table.getImportedKeys(), lookup, config.getClassNameRules(), specs);
+    var oneToManyFields = getOneToManyFields(foreignKeyGraph.getExportedKeys(table.getName()),
+        config.getClassNameRules(), specs);
+
+    var classRules = config.getRuleIndex().getClassRules(className);
 
     var classSpecBuilder = TypeSpec.classBuilder(className)
         .addModifiers(Modifier.PUBLIC)
-        .addAnnotations(getClassAnnotations(table.getName(), className, config.getClassAnnotationRules()))
+        .addAnnotations(getClassAnnotations(table.getSchema(), table.getName(), classRules.annotations(), specs))
         .addFields(fields)
         .addFields(manyToOneFields)
         .addFields(oneToManyFields);
 
-    var javaDoc = getClassJavaDoc(table.getRemarks(), className, config.getClassAdditionalCommentRules());
+    var remarks = config.isRemarksAsJavadoc() ? table.getRemarks() : null;
+    var javaDoc = getClassJavaDoc(remarks, classRules.additionalComments());
     if (javaDoc != null) {
-      classSpecBuilder
-          .addJavadoc(getClassJavaDoc(table.getRemarks(), className, config.getClassAdditionalCommentRules()));
+      classSpecBuilder.addJavadoc(javaDoc);
     }
 
-    getClassInterfaces(className, config.getInterfaceRules()).forEach(classSpecBuilder::addSuperinterface);
+    classRules.interfaces().stream().map(specs::getInterface).forEach(classSpecBuilder::addSuperinterface);
 
     var classSpec = classSpecBuilder.build();
 
     var javaFile = JavaFile.builder(config.getPackageName(), classSpec)
         .build();
 
-    if (fields.stream()
-        .noneMatch(o -> o.annotations.stream().anyMatch(o2 -> o2.toString().equals("@jakarta.persistence.Id")))) {
+    if (fields.stream().noneMatch(o -> o.annotations.stream().anyMatch(SpecRegistry::isId))) {
       throw new IllegalStateException("Entity " + className + " has no @Id field");
     }
 
-    return javaFile.toString();
+    return javaFile;
   }
 
   /**
@@ -99,31 +140,30 @@ public class EntityGenerator {
    */
   public static List<FieldSpec> getFields(List<Column> columns, String className, List<Index> indexes,
       List<Key> importedKeys, EntityGeneratorConfig config) {
+    return getFields(columns, className, new TableLookup(columns, indexes, importedKeys), config, SHARED_SPECS);
+  }
+
+  private static List<FieldSpec> getFields(List<Column> columns, String className, TableLookup lookup,
+      EntityGeneratorConfig config, SpecRegistry specs) {
     return columns.stream()
-        .filter(o -> !checkColumnImportedKey(o, importedKeys))
-        .map(o -> getField(o, className, indexes, config))
+        .filter(o -> !lookup.hasImportedKey(o))
+        .map(o -> getField(o, className, lookup.isUnique(o), config, specs))
         .collect(Collectors.toList());
   }
 
   /**
    * Generates javadoc for entity class.
    *
-   * @param remarks   The SQL remarks
-   * @param className The class name
-   * @param rules     The additionnal comment rules
+   * @param remarks            The SQL remarks
+   * @param additionalComments The additionnal comment lines
    * @return The javadoc
    */
-  private static String getClassJavaDoc(String remarks, String className, List<ClassAdditionalCommentRule> rules) {
+  private static String getClassJavaDoc(String remarks, List<String> additionalComments) {
     var comment = Optional.ofNullable(remarks)
         .map(o -> Arrays.stream(o.split("\n")).filter(l -> l != null && !l.isEmpty()))
         .orElse(Stream.empty());
 
-    var additionalComments = rules.stream()
-        .filter(o -> o.matches(className))
-        .map(ClassAdditionalCommentRule::getComment)
-        .flatMap(o -> Arrays.stream(o.split("\n")));
-
-    var allComments = Stream.concat(comment, additionalComments).toList();
+    var allComments = Stream.concat(comment, additionalComments.stream()).toList();
 
     if (allComments.isEmpty()) {
       return null;
@@ -140,13 +180,9 @@ public class EntityGenerator {
    * @return The interfaces
    */
   public static List<TypeName> getClassInterfaces(String className, List<InterfaceRule> interfaceRules) {
-    return interfaceRules.stream()
-        .filter(o -> o.matches(className))
-        .flatMap(o -> o.getInterfaces().stream())
-        .map(o -> ParameterizedTypeName.get(ClassName.bestGuess(o.getName()),
-            o.getGenericsClassNames().stream()
-                .map(ClassName::bestGuess)
-                .toArray(ClassName[]::new)))
+    var ruleIndex = EntityGeneratorConfig.builder().interfaceRules(interfaceRules).build().getRuleIndex();
+    return ruleIndex.getClassRules(className).interfaces().stream()
+        .map(SHARED_SPECS::getInterface)
         .collect(Collectors.toList());
   }
 
@@ -160,16 +196,35 @@ public class EntityGenerator {
    */
   public static List<AnnotationSpec> getClassAnnotations(String tableName, String className,
       List<ClassAnnotationRule> classAnnotationRules) {
+    return getClassAnnotations(null, tableName, className, classAnnotationRules);
+  }
+
+  /**
+   * Generates class annotations of a table in a schema.
+   *
+   * @param schemaName           The schema name, `null` for the default schema
+   * @param tableName            The table name
+   * @param className            The class name
+   * @param classAnnotationRules The class annotation rules
+   * @return The list of annotations
+   */
+  public static List<AnnotationSpec> getClassAnnotations(String schemaName, String tableName, String className,
+      List<ClassAnnotationRule> classAnnotationRules) {
+    var ruleIndex = EntityGeneratorConfig.builder().classAnnotationRules(classAnnotationRules).build().getRuleIndex();
+    return getClassAnnotations(schemaName, tableName, ruleIndex.getClassRules(className).annotations(),
+        SHARED_SPECS);
+  }
+
+  private static List<AnnotationSpec> getClassAnnotations(String schemaName, String tableName,
+      List<Annotation> annotations, SpecRegistry specs) {
     var annotationSpecs = new ArrayList<AnnotationSpec>();
 
-    annotationSpecs.add(AnnotationSpec.builder(ClassName.bestGuess("lombok.Data")).build());
-    annotationSpecs.add(AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.Entity")).build());
-    annotationSpecs.add(getTableAnnotation(tableName));
+    annotationSpecs.add(SpecRegistry.DATA);
+    annotationSpecs.add(SpecRegistry.ENTITY);
+    annotationSpecs.add(getTableAnnotation(schemaName, tableName));
 
-    classAnnotationRules.stream()
-        .filter(o -> o.matches(className))
-        .flatMap(o -> o.getAnnotations().stream())
-        .map(o -> getAnnotation(o))
+    annotations.stream()
+        .map(specs::getAnnotation)
         .forEach(annotationSpecs::add);
 
     return annotationSpecs;
@@ -182,9 +237,23 @@ public class EntityGenerator {
    * @return The annotation
    */
   public static AnnotationSpec getTableAnnotation(String tableName) {
-    return AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.Table"))
-        .addMember("name", "\"\\\"$L\\\"\"", tableName)
-        .build();
+    return getTableAnnotation(null, tableName);
+  }
+
+  /**
+   * Generates @Table annotation of a table in a schema.
+   *
+   * @param schemaName The schema name, `null` for the default schema
+   * @param tableName  The table name
+   * @return The annotation
+   */
+  public static AnnotationSpec getTableAnnotation(String schemaName, String tableName) {
+    var builder = AnnotationSpec.builder(SpecRegistry.TABLE)
+        .addMember("name", "\"\\\"$L\\\"\"", tableName);
+    if (schemaName != null) {
+      builder.addMember("schema", "\"\\\"$L\\\"\"", schemaName);
+    }
+    return builder.build();
   }
 
   /**
@@ -198,38 +267,49 @@ public class EntityGenerator {
    */
   public static FieldSpec getField(Column column, String className, List<Index> indexes,
       EntityGeneratorConfig config) {
+    var isUnique = new TableLookup(List.of(), indexes, List.of()).isUnique(column);
+    return getField(column, className, isUnique, config, SHARED_SPECS);
+  }
+
+  private static FieldSpec getField(Column column, String className, boolean isUnique,
+      EntityGeneratorConfig config, SpecRegistry specs) {
     var fieldName = NameConverter.toFieldName(column.getName());
 
-    var isUnique = checkColumnUnique(column, indexes);
+    var fieldRules = config.getRuleIndex().getFieldRules(className, fieldName);
 
-    var typeName = getFieldType(fieldName, column.getTypeCode(), className, config.getFieldTypeRules());
+    var typeName = getFieldType(column.getTypeCode(), fieldRules.typeName(), specs);
 
     var fieldSpecBuilder = FieldSpec.builder(typeName, NameConverter.toFieldName(column.getName()), Modifier.PRIVATE);
 
-    var fieldComment = getFieldJavaDoc(column.getRemarks(), className, fieldName,
-        config.getFieldAdditionalCommentRules());
+    var remarks = config.isRemarksAsJavadoc() ? column.getRemarks() : null;
+    var fieldComment = getFieldJavaDoc(remarks, fieldRules.additionalComments());
     if (fieldComment != null) {
       fieldSpecBuilder.addJavadoc(fieldComment);
     }
 
-    fieldSpecBuilder.addAnnotations(getFieldAnnotations(column, isUnique, className, fieldName,
-        config.getGeneratedValueStrategy(), config.getFieldAnnotationRules()));
+    fieldSpecBuilder.addAnnotations(getFieldAnnotations(column, isUnique, config.getGeneratedValueStrategy(),
+        fieldRules.annotations(), specs));
 
-    config.getFieldDefaultValueRules().stream()
-        .filter(r -> r.matches(className, fieldName))
-        .findAny()
-        .ifPresent(o -> fieldSpecBuilder.initializer(o.getDefaultValue()));
+    if (fieldRules.defaultValue() != null) {
+      fieldSpecBuilder.initializer(fieldRules.defaultValue());
+    }
 
     return fieldSpecBuilder.build();
   }
 
   public static List<FieldSpec> getManyToOneFields(List<Key> importedKeys, List<Column> columns,
       List<ClassNameRule> classNameRules) {
+    return getManyToOneFields(importedKeys, new TableLookup(columns, List.of(), List.of()), classNameRules,
+        SHARED_SPECS);
+  }
+
+  private static List<FieldSpec> getManyToOneFields(List<Key> importedKeys, TableLookup lookup,
+      List<ClassNameRule> classNameRules, SpecRegistry specs) {
     var keyMap = importedKeys.stream().collect(Collectors.groupingBy(o -> o.getPrimaryKeyTableName()));
     return keyMap.entrySet().stream()
         // Remove composite keys
         .filter(o -> o.getValue().size() == 1)
-        .map(o -> getManyToOneField(o.getKey(), o.getValue().get(0), columns, classNameRules))
+        .map(o -> getManyToOneField(o.getKey(), o.getValue().get(0), lookup, classNameRules, specs))
         .collect(Collectors.toList());
   }
 
@@ -244,12 +324,18 @@ public class EntityGenerator {
    */
   public static FieldSpec getManyToOneField(String tableName, Key importedKey, List<Column> columns,
       List<ClassNameRule> classNameRules) {
+    return getManyToOneField(tableName, importedKey, new TableLookup(columns, List.of(), List.of()), classNameRules,
+        SHARED_SPECS);
+  }
+
+  private static FieldSpec getManyToOneField(String tableName, Key importedKey, TableLookup lookup,
+      List<ClassNameRule> classNameRules, SpecRegistry specs) {
     var fieldTypeName = NameConverter.toClassName(tableName, classNameRules);
     var fieldName = NameConverter.toFieldName(tableName);
 
-    return FieldSpec.builder(ClassName.bestGuess(fieldTypeName), fieldName, Modifier.PRIVATE)
-        .addAnnotation(AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.ManyToOne")).build())
-        .addAnnotation(getJoinColumnAnnotation(importedKey, columns))
+    return FieldSpec.builder(specs.getClassName(fieldTypeName), fieldName, Modifier.PRIVATE)
+        .addAnnotation(SpecRegistry.MANY_TO_ONE)
+        .addAnnotation(getJoinColumnAnnotation(importedKey, lookup))
         .build();
   }
 
@@ -260,15 +346,32 @@ public class EntityGenerator {
    * @return The annotation
    */
   public static AnnotationSpec getJoinColumnAnnotation(Key importedKey, List<Column> columns) {
-    var isNullable = checkImportedKeyNullable(importedKey, columns);
+    return getJoinColumnAnnotation(importedKey, new TableLookup(columns, List.of(), List.of()));
+  }
 
-    return AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.JoinColumn"))
+  private static AnnotationSpec getJoinColumnAnnotation(Key importedKey, TableLookup lookup) {
+    var isNullable = lookup.isNullable(importedKey);
+
+    return AnnotationSpec.builder(SpecRegistry.JOIN_COLUMN)
         .addMember("name", "\"\\\"$L\\\"\"", importedKey.getForeignKeyColumnName())
         .addMember("referencedColumnName", "\"\\\"$L\\\"\"", importedKey.getPrimaryKeyColumnName())
         .addMember("nullable", "$L", isNullable)
         .build();
   }
 
+  /**
+   * Generates @OneToMany annotated fields from the tables referencing a table.
+   *
+   * @param tableName       The table name
+   * @param foreignKeyGraph The foreign key relationships of the schema
+   * @param classNameRules  The class name rules
+   * @return The list of fields
+   */
+  public static List<FieldSpec> getOneToManyFields(String tableName, ForeignKeyGraph foreignKeyGraph,
+      List<ClassNameRule> classNameRules) {
+    return getOneToManyFields(foreignKeyGraph.getExportedKeys(tableName), classNameRules);
+  }
+
   /**
    * Generates @OneToMany annotated fields from exported keys.
    *
@@ -277,11 +380,16 @@ public class EntityGenerator {
    * @return The list of fields
    */
   public static List<FieldSpec> getOneToManyFields(List<Key> exportedKeys, List<ClassNameRule> classNameRules) {
+    return getOneToManyFields(exportedKeys, classNameRules, SHARED_SPECS);
+  }
+
+  private static List<FieldSpec> getOneToManyFields(List<Key> exportedKeys, List<ClassNameRule> classNameRules,
+      SpecRegistry specs) {
     var keyMap = exportedKeys.stream().collect(Collectors.groupingBy(o -> o.getForeignKeyTableName()));
     return keyMap.entrySet().stream()
         // Remove composite keys
         .filter(o -> o.getValue().size() == 1)
-        .map(o -> getOneToManyField(o.getValue().get(0), classNameRules))
+        .map(o -> getOneToManyField(o.getValue().get(0), classNameRules, specs))
         .collect(Collectors.toList());
   }
 
@@ -293,16 +401,19 @@ public class EntityGenerator {
    * @return The field
    */
   public static FieldSpec getOneToManyField(Key exportedKey, List<ClassNameRule> classNameRules) {
+    return getOneToManyField(exportedKey, classNameRules, SHARED_SPECS);
+  }
+
+  private static FieldSpec getOneToManyField(Key exportedKey, List<ClassNameRule> classNameRules,
+      SpecRegistry specs) {
     var fieldTypeName = NameConverter.toClassName(exportedKey.getForeignKeyTableName(), classNameRules);
     var fieldName = NameConverter.toListFieldName(exportedKey.getForeignKeyTableName());
 
-    var annotation = AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.OneToMany"))
+    var annotation = AnnotationSpec.builder(SpecRegistry.ONE_TO_MANY)
         .addMember("mappedBy", "$S", NameConverter.toFieldName(exportedKey.getPrimaryKeyTableName()))
         .build();
 
-    var fieldType = ClassName.bestGuess(fieldTypeName);
-    var list = ClassName.get("java.util", "List");
-    var listOfType = ParameterizedTypeName.get(list, fieldType);
+    var listOfType = ParameterizedTypeName.get(SpecRegistry.LIST, specs.getClassName(fieldTypeName));
 
     return FieldSpec.builder(listOfType, fieldName, Modifier.PRIVATE)
         .addAnnotation(annotation)
@@ -320,34 +431,25 @@ public class EntityGenerator {
    */
   public static TypeName getFieldType(String fieldName, int typeCode, String className,
       List<FieldTypeRule> fieldTypeRules) {
-    var fieldType = fieldTypeRules.stream()
-        .filter(o -> o.matches(className, fieldName))
-        .findAny()
-        .map(FieldTypeRule::getTypeName)
-        .orElseGet(() -> TypeConverter.toJavaType(typeCode));
-    return ClassName.bestGuess(fieldType);
+    var ruleIndex = EntityGeneratorConfig.builder().fieldTypeRules(fieldTypeRules).build().getRuleIndex();
+    return getFieldType(typeCode, ruleIndex.getFieldRules(className, fieldName).typeName(), SHARED_SPECS);
+  }
+
+  private static TypeName getFieldType(int typeCode, String fieldType, SpecRegistry specs) {
+    return specs.getClassName(fieldType != null ? fieldType : TypeConverter.toJavaType(typeCode));
   }
 
   /**
    * Generates javadoc of field.
    *
-   * @param remarks   The SQL remarks
-   * @param className The class name
-   * @param fieldName The field name
-   * @param rules     The additional comment rules
+   * @param remarks            The SQL remarks
+   * @param additionalComments The additional comment lines
    * @return The javadoc
    */
-  private static String getFieldJavaDoc(String remarks, String className, String fieldName,
-      List<FieldAdditionalCommentRule> rules) {
+  private static String getFieldJavaDoc(String remarks, List<String> additionalComments) {
     var comment = Optional.ofNullable(remarks)
         .map(c -> Arrays.stream(c.split("\n")).filter(l -> l != null && !l.isEmpty()).collect(toList()))
-        .orElse(Collections.emptyList());
-
-    var additionalComments = rules.stream()
-        .filter(r -> r.matches(className, fieldName))
-        .map(FieldAdditionalCommentRule::getComment)
-        .flatMap(c -> Arrays.stream(c.split("\n")))
-        .collect(toList());
+        .orElse(new ArrayList<>());
 
     comment.addAll(additionalComments);
 
@@ -372,21 +474,26 @@ public class EntityGenerator {
    */
   public static List<AnnotationSpec> getFieldAnnotations(Column column, boolean isUnique, String className,
       String fieldName, String generatedValueStrategy, List<FieldAnnotationRule> fieldAnnotationRules) {
+    var ruleIndex = EntityGeneratorConfig.builder().fieldAnnotationRules(fieldAnnotationRules).build().getRuleIndex();
+    return getFieldAnnotations(column, isUnique, generatedValueStrategy,
+        ruleIndex.getFieldRules(className, fieldName).annotations(), SHARED_SPECS);
+  }
+
+  private static List<AnnotationSpec> getFieldAnnotations(Column column, boolean isUnique,
+      String generatedValueStrategy, List<Annotation> annotations, SpecRegistry specs) {
     var annotationSpecs = new ArrayList<AnnotationSpec>();
     annotationSpecs.add(getColumnAnnotation(column, isUnique));
 
     if (column.isPrimaryKey()) {
-      annotationSpecs.add(getIdAnnotation());
+      annotationSpecs.add(SpecRegistry.ID);
     }
 
     if (column.isAutoIncrement()) {
-      annotationSpecs.add(getGeneratedValueAnnotation(generatedValueStrategy));
+      annotationSpecs.add(specs.getGeneratedValue(generatedValueStrategy));
     }
 
-    fieldAnnotationRules.stream()
-        .filter(o -> o.matches(className, fieldName))
-        .flatMap(o -> o.getAnnotations().stream())
-        .map(o -> getAnnotation(o))
+    annotations.stream()
+        .map(specs::getAnnotation)
         .forEach(annotationSpecs::add);
 
     return annotationSpecs;
@@ -400,7 +507,7 @@ public class EntityGenerator {
    * @return The column annotation
    */
   public static AnnotationSpec getColumnAnnotation(Column column, boolean isUnique) {
-    var columnAnnotationBuilder = AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.Column"))
+    var columnAnnotationBuilder = AnnotationSpec.builder(SpecRegistry.COLUMN)
         .addMember("name", "\"\\\"$L\\\"\"", column.getName())
         .addMember("nullable", "$L", column.isNullable())
         .addMember("unique", "$L", isUnique);
@@ -418,80 +525,4 @@ public class EntityGenerator {
 
     return columnAnnotationBuilder.build();
   }
-
-  /**
-   * Generates the @Id annotation.
-   *
-   * @return The annotation
-   */
-  private static AnnotationSpec getIdAnnotation() {
-    return AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.Id"))
-        .build();
-  }
-
-  /**
-   * Generates the @GeneratedValue annotation.
-   *
-   * @param strategy The strategy
-   * @return The annotation
-   */
-  private static AnnotationSpec getGeneratedValueAnnotation(String strategy) {
-    var annotationSpecBuilder = AnnotationSpec.builder(ClassName.bestGuess("jakarta.persistence.GeneratedValue"));
-    if (strategy != null && !strategy.isEmpty()) {
-      annotationSpecBuilder.addMember("strategy", "$T.$L", ClassName.bestGuess("jakarta.persistence.GenerationType"),
-          strategy);
-    }
-    return annotationSpecBuilder.build();
-  }
-
-  /**
-   * Generates custom annotation from rule.
-   *
-   * @param annotation The annotation rule
-   * @return The annotation
-   */
-  private static AnnotationSpec getAnnotation(Annotation annotation) {
-    var annotationSpecBuilder = AnnotationSpec.builder(ClassName.bestGuess(annotation.getClassName()));
-    annotation.getAttributes().forEach(o -> annotationSpecBuilder.addMember(o.getName(), o.getValue()));
-    return annotationSpecBuilder.build();
-  }
-
-  /**
-   * Check if the column is unique from indexes.
-   *
-   * @param column  The column
-   * @param indexes The list of indexes
-   * @return `true` if column is unique
-   */
-  private static boolean checkColumnUnique(Column column, List<Index> indexes) {
-    return indexes.stream()
-        .anyMatch(o -> column.getName().equals(o.getColumnName()) && !o.isNonUnique());
-  }
-
-  /**
-   * Check if the imported key is unique from columns.
-   *
-   * @param key     The imported key
-   * @param columns The list of indexes
-   * @return `true` if imported key is nullable
-   */
-  private static boolean checkImportedKeyNullable(Key importedKey, List<Column> columns) {
-    return columns.stream()
-        .filter(o -> o.getName().equals(importedKey.getForeignKeyColumnName()))
-        .findAny()
-        .map(Column::isNullable)
-        .orElse(false);
-  }
-
-  /**
-   * Check if column has an imported key.
-   *
-   * @param column       The column
-   * @param importedKeys The list of imported keys
-   * @return `true` if the column has an imported key
-   */
-  private static boolean checkColumnImportedKey(Column column, List<Key> importedKeys) {
-    return importedKeys.stream()
-        .anyMatch(o -> o.getForeignKeyColumnName().equals(column.getName()));
-  }
 }
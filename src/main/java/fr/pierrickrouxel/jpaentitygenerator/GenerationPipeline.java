@@ -0,0 +1,387 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.UncheckedSQLException;
+import fr.pierrickrouxel.jpaentitygenerator.output.GeneratedSource;
+import fr.pierrickrouxel.jpaentitygenerator.output.GeneratedSourceSink;
+
+/**
+ * Fetch, generate and write stages connected by bounded queues.
+ * <p>
+ * Stages run at the same time, so that the database, the processors and the
+ * disk are used together. A stage blocks when its output queue is full: the
+ * slowest stage sets the throughput and the number of tables held in memory
+ * is bounded by the queue capacity.
+ * <ul>
+ * <li>The fetch stage runs on {@code fetchParallelism} threads, at most one
+ * per pooled JDBC connection, each fetching a unit of table names at a time.
+ * When a unit fails, its tables are fetched again one by one and the failed
+ * tables are recorded.</li>
+ * <li>The generate stage drains the fetched tables by batches and generates
+ * them on an {@link EntityGenerationEngine}, which also renders and hashes
+ * the sources.</li>
+ * <li>The write stage writes the rendered sources to a
+ * {@link GeneratedSourceSink} on {@code writeParallelism} threads.</li>
+ * </ul>
+ * A pipeline runs once.
+ */
+public class GenerationPipeline {
+
+  private static final Item END = new Item(null, null);
+
+  /**
+   * The time after which a blocked stage checks if the pipeline failed.
+   */
+  private static final long CANCELLATION_CHECK_MILLIS = 100;
+
+  private final int fetchParallelism;
+  private final boolean virtualThreads;
+  private final int writeParallelism;
+  private final BlockingQueue<Item> tableQueue;
+  private final BlockingQueue<Item> sourceQueue;
+
+  private final StageMetrics fetchMetrics;
+  private final StageMetrics generateMetrics;
+  private final StageMetrics writeMetrics;
+
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final List<Thread> threads = new CopyOnWriteArrayList<>();
+  private final List<FetchFailure> fetchFailures = new CopyOnWriteArrayList<>();
+
+  /**
+   * Creates a pipeline with the stage settings of a config.
+   *
+   * @param config The config
+   * @param engine The engine the generate stage runs on
+   */
+  public GenerationPipeline(EntityGeneratorConfig config, EntityGenerationEngine engine) {
+    // More fetchers than connections would only queue on the pool
+    var jdbcSettings = config.getJdbcSettings();
+    this.fetchParallelism = Math.max(1, jdbcSettings != null
+        ? Math.min(config.getFetchParallelism(), jdbcSettings.getMaxPoolSize())
+        : config.getFetchParallelism());
+    this.virtualThreads = config.isVirtualThreads();
+    this.writeParallelism = Math.max(1, config.getWriteParallelism());
+    var queueCapacity = Math.max(1, config.getPipelineQueueCapacity());
+    this.tableQueue = new ArrayBlockingQueue<>(queueCapacity);
+    this.sourceQueue = new ArrayBlockingQueue<>(queueCapacity);
+    this.fetchMetrics = new StageMetrics("fetch", fetchParallelism, 0);
+    this.generateMetrics = new StageMetrics("generate", engine.getParallelism(), queueCapacity);
+    this.writeMetrics = new StageMetrics("write", writeParallelism, queueCapacity);
+  }
+
+  /**
+   * Fetches, generates and writes entities. Failures of any stage stop the
+   * whole pipeline, except table fetch failures: the other tables are still
+   * generated, then the failures are reported together as suppressed
+   * exceptions.
+   *
+   * @param fetchUnits The table names, by units fetched at once
+   * @param source     The tables of a fetch unit to generate
+   * @param generator  The entity sources of a batch of tables, in the order of
+   *                   the tables
+   * @param sink       The entity sources target
+   * @throws SQLException
+   * @throws IOException
+   */
+  public void run(List<List<String>> fetchUnits, TableSource source,
+      Function<List<Table>, List<GeneratedSource>> generator, GeneratedSourceSink sink) throws SQLException, IOException {
+    var nextUnit = new AtomicInteger();
+    var runningFetchers = new AtomicInteger(fetchParallelism);
+    var fetchThreadBuilder = virtualThreads ? Thread.ofVirtual() : Thread.ofPlatform().daemon();
+    for (var i = 0; i < fetchParallelism; i++) {
+      start(fetchThreadBuilder.name("entity-fetcher-" + i), () -> {
+        fetch(fetchUnits, nextUnit, source);
+        // The generate stage ends once all the fetchers are done
+        if (runningFetchers.decrementAndGet() == 0) {
+          put(tableQueue, END, fetchMetrics, generateMetrics);
+        }
+      });
+    }
+    start(Thread.ofPlatform().daemon().name("entity-generator"), () -> generate(generator));
+    for (var i = 0; i < writeParallelism; i++) {
+      start(Thread.ofPlatform().daemon().name("entity-writer-" + i), () -> write(sink));
+    }
+
+    try {
+      for (var thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancel();
+      throw new SQLException("Interrupted while generating entities", e);
+    }
+
+    var cause = failure.get();
+    if (cause instanceof SQLException e) {
+      throw e;
+    } else if (cause instanceof IOException e) {
+      throw e;
+    } else if (cause instanceof RuntimeException e) {
+      throw e;
+    } else if (cause instanceof Error e) {
+      throw e;
+    } else if (cause != null) {
+      throw new SQLException("Failed to generate entities", cause);
+    }
+
+    if (!fetchFailures.isEmpty()) {
+      var failures = new ArrayList<>(fetchFailures);
+      failures.sort(Comparator.comparingInt(FetchFailure::unit));
+      var exception = new SQLException("Failed to fetch metadata for tables "
+          + failures.stream().map(FetchFailure::tableName).toList());
+      failures.forEach(o -> exception.addSuppressed(o.cause()));
+      throw exception;
+    }
+  }
+
+  private void fetch(List<List<String>> fetchUnits, AtomicInteger nextUnit, TableSource source)
+      throws InterruptedException {
+    for (var i = nextUnit.getAndIncrement(); i < fetchUnits.size(); i = nextUnit.getAndIncrement()) {
+      var fetchUnit = fetchUnits.get(i);
+      var fetched = new HashSet<String>();
+      try {
+        fetch(fetchUnit, source, fetched);
+      } catch (SQLException e) {
+        if (fetchUnit.size() == 1) {
+          fetchFailures.add(new FetchFailure(i, fetchUnit.getFirst(), e));
+          continue;
+        }
+        // The tables not fetched yet are fetched again one by one, to find the failed ones
+        for (var tableName : fetchUnit) {
+          if (fetched.contains(tableName)) {
+            continue;
+          }
+          try {
+            fetch(List.of(tableName), source, fetched);
+          } catch (SQLException tableException) {
+            fetchFailures.add(new FetchFailure(i, tableName, tableException));
+          }
+        }
+      }
+    }
+  }
+
+  private void fetch(List<String> tableNames, TableSource source, Set<String> fetched)
+      throws SQLException, InterruptedException {
+    var start = System.nanoTime();
+    try (var tables = source.fetch(tableNames)) {
+      for (var iterator = tables.iterator(); iterator.hasNext();) {
+        var table = iterator.next();
+        fetchMetrics.busyNanos.add(System.nanoTime() - start);
+        fetchMetrics.items.increment();
+        put(tableQueue, new Item(table, null), fetchMetrics, generateMetrics);
+        fetched.add(table.getName());
+        start = System.nanoTime();
+      }
+    } catch (UncheckedSQLException e) {
+      throw e.getCause();
+    } finally {
+      fetchMetrics.busyNanos.add(System.nanoTime() - start);
+    }
+  }
+
+  private void generate(Function<List<Table>, List<GeneratedSource>> generator) throws InterruptedException {
+    var ended = false;
+    while (!ended) {
+      var batch = new ArrayList<Item>();
+      batch.add(take(tableQueue, generateMetrics));
+      tableQueue.drainTo(batch);
+      ended = batch.remove(END);
+      if (batch.isEmpty()) {
+        continue;
+      }
+
+      var start = System.nanoTime();
+      var tables = batch.stream().map(Item::table).toList();
+      var sources = generator.apply(tables);
+      generateMetrics.busyNanos.add(System.nanoTime() - start);
+      generateMetrics.items.add(tables.size());
+
+      for (var i = 0; i < tables.size(); i++) {
+        put(sourceQueue, new Item(tables.get(i), sources.get(i)), generateMetrics, writeMetrics);
+      }
+    }
+    for (var i = 0; i < writeParallelism; i++) {
+      put(sourceQueue, END, generateMetrics, writeMetrics);
+    }
+  }
+
+  private void write(GeneratedSourceSink sink) throws Exception {
+    for (var item = take(sourceQueue, writeMetrics); item != END; item = take(sourceQueue, writeMetrics)) {
+      var start = System.nanoTime();
+      sink.write(item.source());
+      writeMetrics.busyNanos.add(System.nanoTime() - start);
+      writeMetrics.items.increment();
+    }
+  }
+
+  private void put(BlockingQueue<Item> queue, Item item, StageMetrics producer, StageMetrics consumer)
+      throws InterruptedException {
+    var start = System.nanoTime();
+    while (!queue.offer(item, CANCELLATION_CHECK_MILLIS, TimeUnit.MILLISECONDS)) {
+      checkCancelled();
+    }
+    producer.outputWaitNanos.add(System.nanoTime() - start);
+    consumer.peakQueueSize.accumulateAndGet(queue.size(), Math::max);
+  }
+
+  private Item take(BlockingQueue<Item> queue, StageMetrics consumer) throws InterruptedException {
+    var start = System.nanoTime();
+    var item = queue.poll(CANCELLATION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    while (item == null) {
+      checkCancelled();
+      item = queue.poll(CANCELLATION_CHECK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+    consumer.inputWaitNanos.add(System.nanoTime() - start);
+    return item;
+  }
+
+  private void checkCancelled() throws InterruptedException {
+    if (failure.get() != null) {
+      throw new InterruptedException("Cancelled after a failure of another stage");
+    }
+  }
+
+  private void start(Thread.Builder threadBuilder, StageTask task) {
+    threads.add(threadBuilder.start(() -> {
+      try {
+        task.run();
+      } catch (InterruptedException e) {
+        // Cancelled after a failure of another stage
+      } catch (Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+          cancel();
+        }
+      }
+    }));
+  }
+
+  private void cancel() {
+    threads.forEach(Thread::interrupt);
+  }
+
+  /**
+   * Get the metrics of the fetch, generate and write stages.
+   *
+   * @return The stage metrics
+   */
+  public List<StageMetrics> getMetrics() {
+    return List.of(fetchMetrics, generateMetrics, writeMetrics);
+  }
+
+  @Override
+  public String toString() {
+    return getMetrics().stream()
+        .map(StageMetrics::toString)
+        .collect(Collectors.joining(System.lineSeparator()));
+  }
+
+  /**
+   * Fetches the tables of a unit of table names.
+   */
+  @FunctionalInterface
+  public interface TableSource {
+    Stream<Table> fetch(List<String> tableNames) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface StageTask {
+    void run() throws Exception;
+  }
+
+  private record Item(Table table, GeneratedSource source) {
+  }
+
+  private record FetchFailure(int unit, String tableName, SQLException cause) {
+  }
+
+  /**
+   * Metrics of a stage.
+   * <p>
+   * The input wait is the time the stage waited for its input queue to fill,
+   * the output wait is the time it was blocked by the next stage.
+   */
+  public static class StageMetrics {
+    private final String name;
+    private final int parallelism;
+    private final int queueCapacity;
+    private final LongAdder items = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final LongAdder inputWaitNanos = new LongAdder();
+    private final LongAdder outputWaitNanos = new LongAdder();
+    private final AtomicInteger peakQueueSize = new AtomicInteger();
+
+    private StageMetrics(String name, int parallelism, int queueCapacity) {
+      this.name = name;
+      this.parallelism = parallelism;
+      this.queueCapacity = queueCapacity;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public int getParallelism() {
+      return parallelism;
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public long getItems() {
+      return items.sum();
+    }
+
+    public long getBusyNanos() {
+      return busyNanos.sum();
+    }
+
+    public long getInputWaitNanos() {
+      return inputWaitNanos.sum();
+    }
+
+    public long getOutputWaitNanos() {
+      return outputWaitNanos.sum();
+    }
+
+    /**
+     * Get the largest size reached by the input queue of the stage.
+     *
+     * @return The peak queue size
+     */
+    public int getPeakQueueSize() {
+      return peakQueueSize.get();
+    }
+
+    @Override
+    public String toString() {
+      return name + ": " + getItems() + " tables on " + parallelism + " workers, "
+          + TimeUnit.NANOSECONDS.toMillis(getBusyNanos()) + " ms busy, "
+          + TimeUnit.NANOSECONDS.toMillis(getInputWaitNanos()) + " ms waiting for input, "
+          + TimeUnit.NANOSECONDS.toMillis(getOutputWaitNanos()) + " ms blocked on output, queue peak "
+          + getPeakQueueSize() + "/" + queueCapacity;
+    }
+  }
+}
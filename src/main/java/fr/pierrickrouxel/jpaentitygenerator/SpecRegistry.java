@@ -0,0 +1,107 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.squareup.javapoet.AnnotationSpec;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+
+import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
+import fr.pierrickrouxel.jpaentitygenerator.rule.Interface;
+
+/**
+ * Shared instances of the immutable JavaPoet specs used by the generated
+ * entities.
+ * <p>
+ * Constant specs are built once for all runs, specs derived from names and
+ * rules are built once per registry, which lives for a generation run. The
+ * public {@link EntityGenerator} overloads share a single registry.
+ */
+final class SpecRegistry {
+
+  static final ClassName COLUMN = ClassName.get("jakarta.persistence", "Column");
+  static final ClassName TABLE = ClassName.get("jakarta.persistence", "Table");
+  static final ClassName JOIN_COLUMN = ClassName.get("jakarta.persistence", "JoinColumn");
+  static final ClassName ONE_TO_MANY = ClassName.get("jakarta.persistence", "OneToMany");
+  static final ClassName GENERATED_VALUE = ClassName.get("jakarta.persistence", "GeneratedValue");
+  static final ClassName GENERATION_TYPE = ClassName.get("jakarta.persistence", "GenerationType");
+  static final ClassName ID_TYPE = ClassName.get("jakarta.persistence", "Id");
+  static final ClassName LIST = ClassName.get("java.util", "List");
+
+  static final AnnotationSpec DATA = AnnotationSpec.builder(ClassName.get("lombok", "Data")).build();
+  static final AnnotationSpec ENTITY = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "Entity")).build();
+  static final AnnotationSpec ID = AnnotationSpec.builder(ID_TYPE).build();
+  static final AnnotationSpec MANY_TO_ONE = AnnotationSpec.builder(ClassName.get("jakarta.persistence", "ManyToOne"))
+      .build();
+
+  private final Map<String, ClassName> classNames = new ConcurrentHashMap<>();
+  private final Map<Annotation, AnnotationSpec> annotations = new ConcurrentHashMap<>();
+  private final Map<Interface, TypeName> interfaces = new ConcurrentHashMap<>();
+  private final Map<String, AnnotationSpec> generatedValues = new ConcurrentHashMap<>();
+
+  /**
+   * Get the class name of a qualified or simple name.
+   *
+   * @param name The name
+   * @return The class name
+   * @see ClassName#bestGuess(String)
+   */
+  ClassName getClassName(String name) {
+    return classNames.computeIfAbsent(name, ClassName::bestGuess);
+  }
+
+  /**
+   * Get the annotation of a rule.
+   *
+   * @param annotation The annotation rule
+   * @return The annotation
+   */
+  AnnotationSpec getAnnotation(Annotation annotation) {
+    return annotations.computeIfAbsent(annotation, o -> {
+      var annotationSpecBuilder = AnnotationSpec.builder(getClassName(o.getClassName()));
+      o.getAttributes().forEach(a -> annotationSpecBuilder.addMember(a.getName(), a.getValue()));
+      return annotationSpecBuilder.build();
+    });
+  }
+
+  /**
+   * Get the type of an interface rule.
+   *
+   * @param interfaceRule The interface
+   * @return The type
+   */
+  TypeName getInterface(Interface interfaceRule) {
+    return interfaces.computeIfAbsent(interfaceRule, o -> ParameterizedTypeName.get(getClassName(o.getName()),
+        o.getGenericsClassNames().stream()
+            .map(this::getClassName)
+            .toArray(ClassName[]::new)));
+  }
+
+  /**
+   * Get the @GeneratedValue annotation of a strategy.
+   *
+   * @param strategy The strategy, `null` or empty for the provider default
+   * @return The annotation
+   */
+  AnnotationSpec getGeneratedValue(String strategy) {
+    return generatedValues.computeIfAbsent(strategy != null ? strategy : "", o -> {
+      var annotationSpecBuilder = AnnotationSpec.builder(GENERATED_VALUE);
+      if (!o.isEmpty()) {
+        annotationSpecBuilder.addMember("strategy", "$T.$L", GENERATION_TYPE, o);
+      }
+      return annotationSpecBuilder.build();
+    });
+  }
+
+  /**
+   * Check if an annotation is @Id, without formatting it.
+   *
+   * @param annotation The annotation
+   * @return `true` if the annotation is @Id
+   */
+  static boolean isId(AnnotationSpec annotation) {
+    return annotation == ID || annotation.members.isEmpty() && annotation.type.equals(ID_TYPE);
+  }
+}
@@ -0,0 +1,67 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Index;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Key;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+
+/**
+ * Hash lookups on the columns, indexes and imported keys of a table, built
+ * once per entity instead of scanning the lists for each column.
+ */
+class TableLookup {
+
+  private final Map<String, Column> columns = new HashMap<>();
+  private final Set<String> uniqueColumnNames = new HashSet<>();
+  private final Set<String> importedKeyColumnNames = new HashSet<>();
+
+  TableLookup(List<Column> columns, List<Index> indexes, List<Key> importedKeys) {
+    // The first column wins on duplicate names, as with a linear scan
+    columns.forEach(o -> this.columns.putIfAbsent(o.getName(), o));
+    indexes.stream()
+        .filter(o -> !o.isNonUnique())
+        .forEach(o -> uniqueColumnNames.add(o.getColumnName()));
+    importedKeys.forEach(o -> importedKeyColumnNames.add(o.getForeignKeyColumnName()));
+  }
+
+  static TableLookup of(Table table) {
+    return new TableLookup(table.getColumns(), table.getIndexes(), table.getImportedKeys());
+  }
+
+  /**
+   * Check if the column is unique from indexes.
+   *
+   * @param column The column
+   * @return `true` if column is unique
+   */
+  boolean isUnique(Column column) {
+    return uniqueColumnNames.contains(column.getName());
+  }
+
+  /**
+   * Check if column has an imported key.
+   *
+   * @param column The column
+   * @return `true` if the column has an imported key
+   */
+  boolean hasImportedKey(Column column) {
+    return importedKeyColumnNames.contains(column.getName());
+  }
+
+  /**
+   * Check if the imported key is nullable from columns.
+   *
+   * @param importedKey The imported key
+   * @return `true` if imported key is nullable
+   */
+  boolean isNullable(Key importedKey) {
+    var column = columns.get(importedKey.getForeignKeyColumnName());
+    return column != null && column.isNullable();
+  }
+}
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.PatternSyntaxException;
 
 import org.yaml.snakeyaml.Yaml;
 
@@ -21,16 +22,22 @@ import fr.pierrickrouxel.jpaentitygenerator.rule.FieldTypeRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.InterfaceRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.TableExclusionRule;
 import fr.pierrickrouxel.jpaentitygenerator.rule.TableScanRule;
+import fr.pierrickrouxel.jpaentitygenerator.util.NameConverter;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 /**
  * Code generator's configuration.
  */
 @Data
-@Builder
+@Builder(toBuilder = true, buildMethodName = "buildConfig")
 @NoArgsConstructor
 @AllArgsConstructor
 public class EntityGeneratorConfig implements Serializable {
@@ -40,6 +47,85 @@ public class EntityGeneratorConfig implements Serializable {
    */
   private JdbcSettings jdbcSettings;
 
+  /**
+   * The DDL scripts to read the table metadata from, instead of connecting to
+   * the database.
+   */
+  @Builder.Default
+  private List<String> ddlScripts = new ArrayList<>();
+
+  /**
+   * Fetch the metadata of all tables with schema-wide catalog calls instead of
+   * per-table calls.
+   */
+  @Builder.Default
+  private boolean bulkMetadataFetch = false;
+
+  /**
+   * The number of tables whose metadata is fetched concurrently, bounded by the
+   * JDBC connection pool size.
+   */
+  @Builder.Default
+  private int fetchParallelism = 1;
+
+  /**
+   * Fetch the table metadata on virtual threads instead of platform threads.
+   */
+  @Builder.Default
+  private boolean virtualThreads = false;
+
+  /**
+   * The number of entities generated concurrently, `0` for the number of
+   * available processors.
+   */
+  @Builder.Default
+  private int generationParallelism = 0;
+
+  /**
+   * The number of entity files written concurrently.
+   */
+  @Builder.Default
+  private int writeParallelism = 1;
+
+  /**
+   * The capacity of the queues between the fetch, generate and write stages,
+   * bounding the number of tables held in memory.
+   */
+  @Builder.Default
+  private int pipelineQueueCapacity = 64;
+
+  /**
+   * The usage of the schema snapshot.
+   */
+  @Builder.Default
+  private SnapshotMode snapshotMode = SnapshotMode.NONE;
+
+  /**
+   * The schema snapshot file path.
+   */
+  @Builder.Default
+  private String snapshotPath = "build/jpa-entity-generator/schema.snapshot";
+
+  /**
+   * Regenerate only the entities whose table or rules changed since the
+   * previous run.
+   */
+  @Builder.Default
+  private boolean incremental = false;
+
+  /**
+   * The file storing the table fingerprints between incremental runs.
+   */
+  @Builder.Default
+  private String fingerprintPath = "build/jpa-entity-generator/fingerprints.properties";
+
+  /**
+   * Use the table and column remarks as Javadoc of the entities and fields.
+   * Remarks are not fetched when disabled.
+   */
+  @Builder.Default
+  private boolean remarksAsJavadoc = true;
+
   /**
    * The rules for table scan.
    */
@@ -120,6 +206,17 @@ public class EntityGeneratorConfig implements Serializable {
   @Builder.Default
   private List<FieldAdditionalCommentRule> fieldAdditionalCommentRules = new ArrayList<>();
 
+  /**
+   * The compiled rules, built with the config or when it is loaded. Rules
+   * changed afterwards are not compiled again: use {@link #toBuilder()} to get
+   * a config with other rules.
+   */
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  @EqualsAndHashCode.Exclude
+  @ToString.Exclude
+  private RuleIndex ruleIndex;
+
   /**
    * Load configuration replacing environment variables.
    *
@@ -127,6 +224,8 @@ public class EntityGeneratorConfig implements Serializable {
    * @param environment The environment variables
    * @return The config
    * @throws IOException
+   * @throws PatternSyntaxException when a rule target is not a valid regular
+   *                                expression
    */
   public static EntityGeneratorConfig load(String path, Map<String, String> environment) throws IOException {
     var yaml = new Yaml();
@@ -134,10 +233,42 @@ public class EntityGeneratorConfig implements Serializable {
     try (var inputStream = Files.newInputStream(Paths.get(path))) {
       var config = yaml.loadAs(inputStream, EntityGeneratorConfig.class);
       config.loadEnvVariables(environment);
+      // Invalid rule patterns are rejected when loading
+      config.ruleIndex = RuleIndex.of(config);
       return config;
     }
   }
 
+  /**
+   * Get the compiled rules.
+   *
+   * @return The rule index
+   * @throws PatternSyntaxException when a rule target is not a valid regular
+   *                                expression
+   */
+  public RuleIndex getRuleIndex() {
+    if (ruleIndex == null) {
+      // Configs created with the no-args constructor have no builder step
+      ruleIndex = RuleIndex.of(this);
+    }
+    return ruleIndex;
+  }
+
+  /**
+   * Get the config generating the entities of a schema, in its own sub-package
+   * and with its own fingerprints.
+   *
+   * @param schema The schema name
+   * @return The schema config
+   */
+  public EntityGeneratorConfig forSchema(String schema) {
+    var fingerprintFile = Paths.get(fingerprintPath);
+    return toBuilder()
+        .packageName(packageName + "." + NameConverter.toPackageName(schema))
+        .fingerprintPath(fingerprintFile.resolveSibling(schema + "-" + fingerprintFile.getFileName()).toString())
+        .build();
+  }
+
   /**
    * Load jdbc settings from environment variables.
    *
@@ -146,6 +277,9 @@ public class EntityGeneratorConfig implements Serializable {
   public void loadEnvVariables(Map<String, String> environment) {
     // JDBC settings
     var settings = getJdbcSettings();
+    if (settings == null) {
+      return;
+    }
     if (hasEnvVariables(settings.getUrl())) {
       settings.setUrl(replaceEnvVariables(settings.getUrl(), environment));
     }
@@ -189,4 +323,23 @@ public class EntityGeneratorConfig implements Serializable {
     }
     return text;
   }
+
+  /**
+   * Builder of configs, compiling the rules of the built config.
+   */
+  public static class EntityGeneratorConfigBuilder {
+
+    /**
+     * Builds the config and compiles its rules.
+     *
+     * @return The config
+     * @throws PatternSyntaxException when a rule target is not a valid regular
+     *                                expression
+     */
+    public EntityGeneratorConfig build() {
+      var config = buildConfig();
+      config.ruleIndex = RuleIndex.of(config);
+      return config;
+    }
+  }
 }
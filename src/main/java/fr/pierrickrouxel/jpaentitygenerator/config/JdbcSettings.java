@@ -1,13 +1,15 @@
 package fr.pierrickrouxel.jpaentitygenerator.config;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-@Builder
+@Builder(toBuilder = true)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -18,4 +20,14 @@ public class JdbcSettings implements Serializable {
   private String password;
   private String driverClassName;
   private String schemaPattern;
+  /**
+   * The schemas to generate entities for, in the same run. When set, it
+   * replaces the schema pattern and entities are generated in a sub-package
+   * per schema.
+   */
+  @Builder.Default
+  private List<String> schemas = new ArrayList<>();
+  @Builder.Default
+  private int maxPoolSize = 4;
+  private String metadataDialect;
 }
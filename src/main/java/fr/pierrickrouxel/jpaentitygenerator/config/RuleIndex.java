@@ -0,0 +1,192 @@
+package fr.pierrickrouxel.jpaentitygenerator.config;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
+
+import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAdditionalCommentRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassMatcher;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldAdditionalCommentRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldDefaultValueRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldMatcher;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldTypeRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.Interface;
+import fr.pierrickrouxel.jpaentitygenerator.rule.InterfaceRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.NameMatcher;
+import fr.pierrickrouxel.jpaentitygenerator.rule.TableMatcher;
+
+/**
+ * Compiled rules of a config.
+ * <p>
+ * Rule targets are compiled once, and the rules applying to a class or to a
+ * field are resolved once and reused for all the tables of the run.
+ */
+public final class RuleIndex implements Serializable {
+
+  private final List<CompiledRule<ClassAnnotationRule>> classAnnotationRules;
+  private final List<CompiledRule<InterfaceRule>> interfaceRules;
+  private final List<CompiledRule<ClassAdditionalCommentRule>> classAdditionalCommentRules;
+  private final List<CompiledRule<FieldTypeRule>> fieldTypeRules;
+  private final List<CompiledRule<FieldAnnotationRule>> fieldAnnotationRules;
+  private final List<CompiledRule<FieldDefaultValueRule>> fieldDefaultValueRules;
+  private final List<CompiledRule<FieldAdditionalCommentRule>> fieldAdditionalCommentRules;
+  private final List<NameMatcher> tableScanRules;
+  private final List<NameMatcher> tableExclusionRules;
+
+  private final Map<String, ClassRules> classRules = new ConcurrentHashMap<>();
+  private final Map<FieldKey, FieldRules> fieldRules = new ConcurrentHashMap<>();
+
+  private RuleIndex(EntityGeneratorConfig config) {
+    classAnnotationRules = compileClassRules(config.getClassAnnotationRules());
+    interfaceRules = compileClassRules(config.getInterfaceRules());
+    classAdditionalCommentRules = compileClassRules(config.getClassAdditionalCommentRules());
+    fieldTypeRules = compileFieldRules(config.getFieldTypeRules());
+    fieldAnnotationRules = compileFieldRules(config.getFieldAnnotationRules());
+    fieldDefaultValueRules = compileFieldRules(config.getFieldDefaultValueRules());
+    fieldAdditionalCommentRules = compileFieldRules(config.getFieldAdditionalCommentRules());
+    tableScanRules = compileTableRules(config.getTableScanRules());
+    tableExclusionRules = compileTableRules(config.getTableExclusionRules());
+  }
+
+  /**
+   * Compiles the rules of a config.
+   *
+   * @param config The config
+   * @return The rule index
+   * @throws PatternSyntaxException when a rule target is not a valid regular
+   *                                expression
+   */
+  public static RuleIndex of(EntityGeneratorConfig config) {
+    return new RuleIndex(config);
+  }
+
+  /**
+   * Get the rules applying to a class.
+   *
+   * @param className The class name
+   * @return The class rules
+   */
+  public ClassRules getClassRules(String className) {
+    return classRules.computeIfAbsent(className, o -> new ClassRules(
+        collect(classAnnotationRules, o, null, ClassAnnotationRule::getAnnotations),
+        collect(interfaceRules, o, null, InterfaceRule::getInterfaces),
+        collect(classAdditionalCommentRules, o, null, r -> lines(r.getComment()))));
+  }
+
+  /**
+   * Get the rules applying to a field.
+   *
+   * @param className The class name
+   * @param fieldName The field name
+   * @return The field rules
+   */
+  public FieldRules getFieldRules(String className, String fieldName) {
+    return fieldRules.computeIfAbsent(new FieldKey(className, fieldName), o -> new FieldRules(
+        first(fieldTypeRules, className, fieldName, FieldTypeRule::getTypeName),
+        collect(fieldAnnotationRules, className, fieldName, FieldAnnotationRule::getAnnotations),
+        first(fieldDefaultValueRules, className, fieldName, FieldDefaultValueRule::getDefaultValue),
+        collect(fieldAdditionalCommentRules, className, fieldName, r -> lines(r.getComment()))));
+  }
+
+  /**
+   * Check if entities are generated for a table, from the table scan and
+   * exclusion rules.
+   *
+   * @param tableName The table name
+   * @return `true` if the table is included
+   */
+  public boolean isTableIncluded(String tableName) {
+    if (!tableScanRules.isEmpty() && tableScanRules.stream().noneMatch(o -> o.matches(tableName))) {
+      return false;
+    }
+    return tableExclusionRules.stream().noneMatch(o -> o.matches(tableName));
+  }
+
+  private static <R extends ClassMatcher> List<CompiledRule<R>> compileClassRules(List<R> rules) {
+    return rules.stream()
+        .map(o -> new CompiledRule<>(o, NameMatcher.of(o.getClassName(), o.getClassNames()), null))
+        .toList();
+  }
+
+  private static <R extends FieldMatcher> List<CompiledRule<R>> compileFieldRules(List<R> rules) {
+    return rules.stream()
+        .map(o -> new CompiledRule<>(o, NameMatcher.of(o.getClassName(), o.getClassNames()),
+            NameMatcher.ofExplicit(o.getFieldName(), o.getFieldNames())))
+        .toList();
+  }
+
+  private static List<NameMatcher> compileTableRules(List<? extends TableMatcher> rules) {
+    return rules.stream()
+        .map(o -> NameMatcher.of(o.getTableName(), o.getTableNames()))
+        .toList();
+  }
+
+  private static <R, T> List<T> collect(List<CompiledRule<R>> rules, String className, String fieldName,
+      Function<R, List<T>> values) {
+    var result = new ArrayList<T>();
+    for (var rule : rules) {
+      if (rule.matches(className, fieldName)) {
+        result.addAll(values.apply(rule.rule()));
+      }
+    }
+    return List.copyOf(result);
+  }
+
+  private static <R> String first(List<CompiledRule<R>> rules, String className, String fieldName,
+      Function<R, String> value) {
+    for (var rule : rules) {
+      if (rule.matches(className, fieldName)) {
+        return value.apply(rule.rule());
+      }
+    }
+    return null;
+  }
+
+  private static List<String> lines(String comment) {
+    return Arrays.asList(comment.split("\n"));
+  }
+
+  /**
+   * A rule with its compiled targets.
+   */
+  private record CompiledRule<R>(R rule, NameMatcher className, NameMatcher fieldName) implements Serializable {
+
+    boolean matches(String className, String fieldName) {
+      return this.className.matches(className) && (this.fieldName == null || this.fieldName.matches(fieldName));
+    }
+  }
+
+  private record FieldKey(String className, String fieldName) implements Serializable {
+  }
+
+  /**
+   * The rules applying to a class.
+   *
+   * @param annotations        The annotations
+   * @param interfaces         The interfaces
+   * @param additionalComments The additional comment lines
+   */
+  public record ClassRules(List<Annotation> annotations, List<Interface> interfaces,
+      List<String> additionalComments) implements Serializable {
+  }
+
+  /**
+   * The rules applying to a field.
+   *
+   * @param typeName           The type name, `null` for the column type
+   * @param annotations        The annotations
+   * @param defaultValue       The default value, `null` for none
+   * @param additionalComments The additional comment lines
+   */
+  public record FieldRules(String typeName, List<Annotation> annotations, String defaultValue,
+      List<String> additionalComments) implements Serializable {
+  }
+}
@@ -0,0 +1,23 @@
+package fr.pierrickrouxel.jpaentitygenerator.config;
+
+/**
+ * Usage of the schema snapshot during the generation.
+ */
+public enum SnapshotMode {
+
+  /**
+   * Fetch the metadata from the database, without snapshot.
+   */
+  NONE,
+
+  /**
+   * Dump the metadata fetched from the database to the snapshot, then generate
+   * from the snapshot.
+   */
+  WRITE,
+
+  /**
+   * Generate from the snapshot without database.
+   */
+  READ
+}
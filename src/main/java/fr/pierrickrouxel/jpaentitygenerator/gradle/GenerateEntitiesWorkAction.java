@@ -0,0 +1,44 @@
+package fr.pierrickrouxel.jpaentitygenerator.gradle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.SQLException;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.provider.Property;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+
+import fr.pierrickrouxel.jpaentitygenerator.EntityGenerationRunner;
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+
+/**
+ * Generates the entities of a partition of the tables in a Gradle worker.
+ */
+public abstract class GenerateEntitiesWorkAction implements WorkAction<GenerateEntitiesWorkAction.Parameters> {
+
+  /**
+   * The parameters of a partition.
+   */
+  public interface Parameters extends WorkParameters {
+
+    Property<EntityGeneratorConfig> getConfig();
+
+    Property<Integer> getPartitionIndex();
+
+    Property<Integer> getPartitionCount();
+  }
+
+  @Override
+  public void execute() {
+    var parameters = getParameters();
+    try {
+      new EntityGenerationRunner(parameters.getConfig().get())
+          .runPartition(parameters.getPartitionIndex().get(), parameters.getPartitionCount().get());
+    } catch (SQLException e) {
+      throw new GradleException("Failed to generate entities", e);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
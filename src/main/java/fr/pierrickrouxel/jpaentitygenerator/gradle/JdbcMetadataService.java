@@ -0,0 +1,65 @@
+package fr.pierrickrouxel.jpaentitygenerator.gradle;
+
+import java.time.Duration;
+
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+
+import fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaCache;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.SharedMetadata;
+
+/**
+ * Build service owning the JDBC connections of the generator tasks of a build,
+ * so that tasks against the same database share their connections and schema
+ * metadata. The connections are closed at the end of the build.
+ * <p>
+ * The schema cache lives as long as the plugin class loader, which a warm
+ * Gradle daemon reuses across builds while the build script classpath does not
+ * change.
+ */
+public abstract class JdbcMetadataService implements BuildService<JdbcMetadataService.Parameters>, AutoCloseable {
+
+  /**
+   * The name the service is registered with.
+   */
+  public static final String NAME = "jpaEntityGeneratorJdbcMetadata";
+
+  // Kept by the daemon across builds, with the plugin classes
+  private static final SchemaCache SCHEMA_CACHE = new SchemaCache();
+
+  private SharedMetadata sharedMetadata;
+
+  /**
+   * Parameters of the service.
+   */
+  public interface Parameters extends BuildServiceParameters {
+
+    /**
+     * Get the time, in seconds, during which the schemas cached by a previous
+     * build are reused when their metadata dialect has no checksums.
+     *
+     * @return The time to live
+     */
+    Property<Integer> getCacheTtl();
+  }
+
+  /**
+   * Get the metadata shared by the tasks of the build.
+   *
+   * @return The shared metadata
+   */
+  public synchronized SharedMetadata getSharedMetadata() {
+    if (sharedMetadata == null) {
+      sharedMetadata = new SharedMetadata(SCHEMA_CACHE, Duration.ofSeconds(getParameters().getCacheTtl().get()));
+    }
+    return sharedMetadata;
+  }
+
+  @Override
+  public synchronized void close() {
+    if (sharedMetadata != null) {
+      sharedMetadata.close();
+    }
+  }
+}
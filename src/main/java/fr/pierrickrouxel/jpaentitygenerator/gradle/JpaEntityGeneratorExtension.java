@@ -1,12 +1,65 @@
 package fr.pierrickrouxel.jpaentitygenerator.gradle;
 
-import java.util.HashMap;
-import java.util.Map;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
 
-import lombok.Data;
+/**
+ * entityGen Gradle extension. Properties are lazy, their conventions are set by
+ * the plugin.
+ */
+public abstract class JpaEntityGeneratorExtension {
 
-@Data
-public class JpaEntityGeneratorExtension {
-  private String configPath = "src/main/resources/jpa-entity-generator.yaml";
-  private Map<String, String> environment = new HashMap<>();
+  /**
+   * Get the config file path, relative to the project directory.
+   *
+   * @return The config file path
+   */
+  public abstract Property<String> getConfigPath();
+
+  /**
+   * Get the variables replaced in the JDBC settings, besides the environment
+   * variables.
+   *
+   * @return The variables
+   */
+  public abstract MapProperty<String, String> getEnvironment();
+
+  /**
+   * Get the directory the entities are generated to, added to the main source
+   * set. It defaults to the output directory of the config file when it sets
+   * one, and to a directory of the build directory otherwise. The task output
+   * is only cached when it is in the build directory.
+   *
+   * @return The output directory
+   */
+  public abstract DirectoryProperty getOutputDirectory();
+
+  /**
+   * Get the number of partitions of the tables generated by Gradle workers,
+   * `0` to generate in the task action.
+   *
+   * @return The number of partitions
+   */
+  public abstract Property<Integer> getWorkerPartitions();
+
+  /**
+   * Get the isolation of the workers: `none`, `classLoader` or `process`.
+   * Isolated workers load the JDBC drivers from the `jpaEntityGenerator`
+   * configuration. Unless the driver is on the build script classpath too, the
+   * schema cannot be fingerprinted, so the task is never up to date nor cached.
+   *
+   * @return The isolation
+   */
+  public abstract Property<String> getWorkerIsolation();
+
+  /**
+   * Get the time, in seconds, during which the schema metadata cached by a
+   * previous build in the same Gradle daemon is reused, when the metadata
+   * dialect cannot tell whether the schema changed. Tasks of the same build
+   * always share their metadata.
+   *
+   * @return The time to live
+   */
+  public abstract Property<Integer> getMetadataCacheTtl();
 }
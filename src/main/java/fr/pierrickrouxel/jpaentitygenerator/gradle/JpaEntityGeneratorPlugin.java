@@ -1,16 +1,84 @@
 package fr.pierrickrouxel.jpaentitygenerator.gradle;
 
+import java.util.Map;
+
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.plugins.JavaPlugin;
+import org.gradle.api.tasks.SourceSet;
+import org.gradle.api.tasks.SourceSetContainer;
+import org.yaml.snakeyaml.Yaml;
 
 /**
  * entityGen Gradle plugin.
  */
 public class JpaEntityGeneratorPlugin implements Plugin<Project> {
 
+  /**
+   * The configuration of the classpath of isolated workers, such as JDBC
+   * drivers.
+   */
+  public static final String CONFIGURATION_NAME = "jpaEntityGenerator";
+
   @Override
   public void apply(Project project) {
-    project.getExtensions().create("jpaEntityGenerator", JpaEntityGeneratorExtension.class);
-    project.getTasks().create("generateEntities", JpaEntityGeneratorTask.class);
+    var configuration = project.getConfigurations().create(CONFIGURATION_NAME, o -> {
+      o.setCanBeConsumed(false);
+      o.setDescription("The classpath of the isolated entity generation workers, such as JDBC drivers.");
+    });
+
+    var extension = project.getExtensions().create("jpaEntityGenerator", JpaEntityGeneratorExtension.class);
+    extension.getConfigPath().convention("src/main/resources/jpa-entity-generator.yaml");
+    extension.getEnvironment().convention(Map.of());
+    // The output directory of the config file, when it sets one
+    var layout = project.getLayout();
+    var configOutputDirectory = project.getProviders()
+        .fileContents(layout.getProjectDirectory().file(extension.getConfigPath()))
+        .getAsText()
+        .map(JpaEntityGeneratorPlugin::getOutputDirectory)
+        .map(o -> layout.getProjectDirectory().dir(o));
+    extension.getOutputDirectory().convention(configOutputDirectory
+        .orElse(layout.getBuildDirectory().dir("generated/sources/jpaEntityGenerator/java/main")));
+    extension.getWorkerPartitions().convention(0);
+    extension.getWorkerIsolation().convention("none");
+    extension.getMetadataCacheTtl().convention(0);
+
+    // Shared by the generator tasks of all projects, configured by the first one
+    var metadataService = project.getGradle().getSharedServices()
+        .registerIfAbsent(JdbcMetadataService.NAME, JdbcMetadataService.class,
+            o -> o.getParameters().getCacheTtl().set(extension.getMetadataCacheTtl()));
+
+    // Tasks are configured lazily, from the extension providers
+    var task = project.getTasks().register("generateEntities", JpaEntityGeneratorTask.class, o -> {
+      o.setDescription("Generates JPA entities from the database metadata.");
+      o.getConfigFile().convention(layout.getProjectDirectory().file(extension.getConfigPath()));
+      o.getEnvironment().convention(extension.getEnvironment());
+      o.getOutputDirectory().convention(extension.getOutputDirectory());
+      o.getWorkerPartitions().convention(extension.getWorkerPartitions());
+      o.getWorkerIsolation().convention(extension.getWorkerIsolation());
+      o.getWorkerClasspath().from(configuration);
+      o.getMetadataService().set(metadataService);
+      o.usesService(metadataService);
+    });
+
+    // The generated sources are compiled with the main sources, after the task
+    project.getPlugins().withType(JavaPlugin.class, o -> {
+      var sourceSets = project.getExtensions().getByType(SourceSetContainer.class);
+      sourceSets.named(SourceSet.MAIN_SOURCE_SET_NAME,
+          s -> s.getJava().srcDir(task.flatMap(JpaEntityGeneratorTask::getOutputDirectory)));
+    });
+  }
+
+  /**
+   * Get the output directory set by a config file.
+   *
+   * @param config The config file content
+   * @return The output directory, `null` when the config file does not set it
+   */
+  static String getOutputDirectory(String config) {
+    return new Yaml().load(config) instanceof Map<?, ?> map
+        && map.get("outputDirectory") instanceof String outputDirectory
+            ? outputDirectory
+            : null;
   }
 }
@@ -1,82 +1,316 @@
-
 package fr.pierrickrouxel.jpaentitygenerator.gradle;
 
+import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.UncheckedIOException;
+import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+
+import javax.inject.Inject;
 
 import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileCollection;
+import org.gradle.api.file.ProjectLayout;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Classpath;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFile;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.LocalState;
+import org.gradle.api.tasks.Optional;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
 
-import fr.pierrickrouxel.jpaentitygenerator.EntityGenerator;
+import fr.pierrickrouxel.jpaentitygenerator.EntityGenerationRunner;
 import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
-import fr.pierrickrouxel.jpaentitygenerator.metadata.TableMetaDataFetcher;
-import fr.pierrickrouxel.jpaentitygenerator.rule.TableExclusionRule;
-import fr.pierrickrouxel.jpaentitygenerator.rule.TableScanRule;
-import fr.pierrickrouxel.jpaentitygenerator.util.NameConverter;
+import fr.pierrickrouxel.jpaentitygenerator.config.SnapshotMode;
+import fr.pierrickrouxel.jpaentitygenerator.incremental.GenerationFingerprint;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.SharedMetadata;
 
 /**
  * entityGen Gradle task.
+ * <p>
+ * The task is up to date when the config file, the resolved config and the
+ * schema fingerprint did not change. The entities are generated to the output
+ * directory of the task, the output directory of the config file by default.
+ * Only a directory of the build directory is cached, so that restoring it from
+ * the build cache cannot delete hand-written sources.
+ * <p>
+ * With worker partitions, the tables are generated by partitions submitted to
+ * the Gradle Worker API, which honors {@code --max-workers} and lets other
+ * tasks run meanwhile.
+ * <p>
+ * Generator tasks share their JDBC connections and schema metadata through the
+ * {@link JdbcMetadataService}.
+ * <p>
+ * The task does not use the project at execution time, so that it is
+ * compatible with the configuration cache.
  */
+@CacheableTask
+public abstract class JpaEntityGeneratorTask extends DefaultTask {
+
+  // Loaded at execution time, not stored in the configuration cache
+  private transient EntityGeneratorConfig loadedConfig;
+  private transient EntityGeneratorConfig config;
+  private transient String schemaFingerprint;
+
+  public JpaEntityGeneratorTask() {
+    getOutputs().upToDateWhen(o -> getSchemaFingerprint() != null);
+    getOutputs().doNotCacheIf("The output directory is not in the build directory",
+        o -> !getOutputDirectory().get().getAsFile().toPath()
+            .startsWith(getLayout().getBuildDirectory().get().getAsFile().toPath()));
+    getOutputs().doNotCacheIf("The JDBC driver of the isolated workers is not available to fingerprint the schema",
+        o -> getSchemaFingerprint() == null);
+  }
+
+  @Inject
+  public abstract WorkerExecutor getWorkerExecutor();
+
+  @Inject
+  public abstract ProjectLayout getLayout();
+
+  @Inject
+  public abstract ObjectFactory getObjects();
+
+  /**
+   * Get the config file.
+   *
+   * @return The config file
+   */
+  @InputFile
+  @PathSensitive(PathSensitivity.NONE)
+  public abstract RegularFileProperty getConfigFile();
+
+  /**
+   * Get the variables replaced in the JDBC settings. They are covered by the
+   * config fingerprint, without the password.
+   *
+   * @return The variables
+   */
+  @Internal
+  public abstract MapProperty<String, String> getEnvironment();
+
+  /**
+   * Get the number of partitions generated by Gradle workers, `0` to generate
+   * in the task action.
+   *
+   * @return The number of partitions
+   */
+  @Internal
+  public abstract Property<Integer> getWorkerPartitions();
+
+  /**
+   * Get the isolation of the workers: `none`, `classLoader` or `process`.
+   *
+   * @return The isolation
+   */
+  @Internal
+  public abstract Property<String> getWorkerIsolation();
+
+  /**
+   * Get the service sharing the JDBC connections and schema metadata of the
+   * generator tasks. Workers open their own connections.
+   *
+   * @return The service
+   */
+  @Internal
+  public abstract Property<JdbcMetadataService> getMetadataService();
+
+  /**
+   * Get the classpath of isolated workers.
+   *
+   * @return The classpath
+   */
+  @Classpath
+  public abstract ConfigurableFileCollection getWorkerClasspath();
+
+  /**
+   * Get the fingerprint of the config resolved with the environment.
+   *
+   * @return The fingerprint
+   */
+  @Input
+  public String getConfigFingerprint() {
+    // Paths stay relative to the project, so that the build cache is relocatable
+    return GenerationFingerprint.ofConfig(getLoadedConfig());
+  }
 
-public class JpaEntityGeneratorTask extends DefaultTask {
+  /**
+   * Get the fingerprint of the tables the entities are generated from, fetched
+   * once per build.
+   * <p>
+   * Tables are fingerprinted from the checksums of the metadata dialect when it
+   * has some, and fetched by batches otherwise.
+   * <p>
+   * Isolated workers load the JDBC driver from the worker classpath. When the
+   * driver is not on the classpath of the build script too, the task cannot
+   * connect: the schema is not fingerprinted, so the task is never up to date
+   * nor cached.
+   *
+   * @return The fingerprint, `null` when the schema cannot be fingerprinted
+   */
+  @Optional
+  @Input
+  public String getSchemaFingerprint() {
+    var config = getConfig();
+    var isJdbcSource = config.getDdlScripts().isEmpty() && config.getSnapshotMode() != SnapshotMode.READ;
+    if (isJdbcSource && !"none".equals(getWorkerIsolation().get())
+        && !isDriverAvailable(config.getJdbcSettings().getUrl())) {
+      return null;
+    }
+    if (schemaFingerprint == null) {
+      try {
+        schemaFingerprint = new EntityGenerationRunner(config, getSharedMetadata()).getSchemaFingerprint();
+      } catch (SQLException e) {
+        throw new GradleException("Failed to fingerprint the schema", e);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return schemaFingerprint;
+  }
+
+  /**
+   * Get the directory the entities are generated to, with their generation
+   * manifest. It must not hold hand-written sources.
+   *
+   * @return The output directory
+   */
+  @OutputDirectory
+  public abstract DirectoryProperty getOutputDirectory();
+
+  /**
+   * Get the schema snapshot written by the task, if any.
+   *
+   * @return The snapshot file, `null` when the snapshot is not written
+   */
+  @Optional
+  @OutputFile
+  public File getSnapshotFile() {
+    return getConfig().getSnapshotMode() == SnapshotMode.WRITE ? new File(getConfig().getSnapshotPath()) : null;
+  }
+
+  /**
+   * Get the table fingerprints of incremental runs. They are not restored from
+   * the build cache.
+   *
+   * @return The fingerprint files
+   */
+  @LocalState
+  public FileCollection getFingerprintFiles() {
+    var config = getConfig();
+    var paths = new ArrayList<String>();
+    if (config.isIncremental()) {
+      var schemas = config.getJdbcSettings() != null ? config.getJdbcSettings().getSchemas() : List.<String>of();
+      if (schemas.isEmpty()) {
+        paths.add(config.getFingerprintPath());
+      }
+      schemas.forEach(o -> paths.add(config.forSchema(o).getFingerprintPath()));
+    }
+    return getObjects().fileCollection().from(paths);
+  }
 
   @TaskAction
   public void generateAll() throws IOException, SQLException {
-    var extension = getProject().getExtensions().getByType(JpaEntityGeneratorExtension.class);
-    if (extension == null) {
-      extension = new JpaEntityGeneratorExtension();
+    var partitions = getWorkerPartitions().get();
+    if (partitions <= 0) {
+      generateAll(getConfig());
+      return;
+    }
+
+    // Each worker takes a single worker lease, so partitions do not run pools
+    var config = getConfig().toBuilder()
+        .generationParallelism(1)
+        .writeParallelism(1)
+        .build();
+    var workQueue = getWorkQueue(getWorkerIsolation().get());
+    for (var i = 0; i < partitions; i++) {
+      var index = i;
+      workQueue.submit(GenerateEntitiesWorkAction.class, o -> {
+        o.getConfig().set(config);
+        o.getPartitionIndex().set(index);
+        o.getPartitionCount().set(partitions);
+      });
     }
-    var config = EntityGeneratorConfig.load(extension.getConfigPath(), extension.getEnvironment());
+    workQueue.await();
 
-    generateAll(config);
+    new EntityGenerationRunner(config).mergePartitions(partitions);
   }
 
   public void generateAll(EntityGeneratorConfig config) throws SQLException, IOException {
-    var directory = Paths.get(config.getOutputDirectory(), config.getPackageName().split("\\."));
-    Files.createDirectories(directory);
-
-    var metaDataFetcher = new TableMetaDataFetcher(config.getJdbcSettings());
-    var allTableNames = metaDataFetcher.getTableNames();
-    var tableNames = filterTableNames(config, allTableNames);
+    new EntityGenerationRunner(config, getSharedMetadata()).run();
+  }
 
-    for (var tableName : tableNames) {
-      generateEntity(tableName, metaDataFetcher, directory, config);
+  private static boolean isDriverAvailable(String url) {
+    try {
+      DriverManager.getDriver(url);
+      return true;
+    } catch (SQLException e) {
+      return false;
     }
   }
 
-  private void generateEntity(String tableName, TableMetaDataFetcher metaDataFetcher, Path directory,
-      EntityGeneratorConfig config) throws SQLException, IOException {
-    var table = metaDataFetcher.getTable(tableName);
-    var entitySource = EntityGenerator.getEntity(table, config);
-    var filePath = directory.resolve(NameConverter.toClassName(tableName, config.getClassNameRules()) + ".java");
-    Files.writeString(filePath, entitySource);
+  private SharedMetadata getSharedMetadata() {
+    return getMetadataService().get().getSharedMetadata();
   }
 
-  private List<String> filterTableNames(EntityGeneratorConfig config, List<String> allTableNames) {
-    var scannedTables = scanTableNames(allTableNames, config.getTableScanRules());
-    return excludeTableNames(scannedTables, config.getTableExclusionRules());
+  private WorkQueue getWorkQueue(String isolation) {
+    switch (isolation) {
+      case "none":
+        return getWorkerExecutor().noIsolation();
+      case "classLoader":
+        return getWorkerExecutor().classLoaderIsolation(o -> o.getClasspath().from(getWorkerClasspath()));
+      case "process":
+        return getWorkerExecutor().processIsolation(o -> o.getClasspath().from(getWorkerClasspath()));
+      default:
+        throw new GradleException("Unknown worker isolation: " + isolation);
+    }
   }
 
-  private List<String> scanTableNames(List<String> allTableNames, List<TableScanRule> tableScanRules) {
-    if (tableScanRules.isEmpty()) {
-      return allTableNames;
+  private EntityGeneratorConfig getLoadedConfig() {
+    if (loadedConfig == null) {
+      try {
+        loadedConfig = EntityGeneratorConfig.load(getConfigFile().get().getAsFile().getPath(),
+            getEnvironment().get());
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
     }
+    return loadedConfig;
+  }
 
-    return allTableNames.stream()
-        .filter(o -> tableScanRules.stream()
-            .anyMatch(o2 -> o2.matches(o)))
-        .collect(Collectors.toList());
+  /**
+   * Get the loaded config with its paths resolved against the project
+   * directory, which is not the working directory of the Gradle daemon.
+   */
+  private EntityGeneratorConfig getConfig() {
+    if (config == null) {
+      var loaded = getLoadedConfig();
+      config = loaded.toBuilder()
+          .outputDirectory(getOutputDirectory().get().getAsFile().getPath())
+          .snapshotPath(resolve(loaded.getSnapshotPath()))
+          .fingerprintPath(resolve(loaded.getFingerprintPath()))
+          .ddlScripts(loaded.getDdlScripts().stream().map(this::resolve).toList())
+          .build();
+    }
+    return config;
   }
 
-  private List<String> excludeTableNames(List<String> scannedTableNames, List<TableExclusionRule> tableExclusionRules) {
-    return scannedTableNames.stream()
-        .filter(o -> tableExclusionRules.stream()
-            .noneMatch(o2 -> o2.matches(o)))
-        .collect(Collectors.toList());
+  private String resolve(String path) {
+    return getLayout().getProjectDirectory().file(path).getAsFile().getPath();
   }
 }
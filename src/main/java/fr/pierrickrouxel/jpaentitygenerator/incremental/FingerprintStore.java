@@ -0,0 +1,102 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Table fingerprints of the previous generation run, used to regenerate only
+ * the tables that changed.
+ */
+public class FingerprintStore {
+
+  private final Path path;
+  private final Properties previous = new Properties();
+  private final Properties current = new Properties();
+
+  private FingerprintStore(Path path) {
+    this.path = path;
+  }
+
+  /**
+   * Loads the fingerprints of the previous run, if any.
+   *
+   * @param path The fingerprints file path
+   * @return The store
+   * @throws IOException
+   */
+  public static FingerprintStore load(Path path) throws IOException {
+    return load(path, path);
+  }
+
+  /**
+   * Loads the fingerprints of the previous run, if any, to save the current run
+   * to another file. It is used by the partitions of a run.
+   *
+   * @param path     The fingerprints file path
+   * @param savePath The file path the current run is saved to
+   * @return The store
+   * @throws IOException
+   * @see #merge(Path, List)
+   */
+  public static FingerprintStore load(Path path, Path savePath) throws IOException {
+    var store = new FingerprintStore(savePath);
+    if (Files.exists(path)) {
+      try (var reader = Files.newBufferedReader(path)) {
+        store.previous.load(reader);
+      }
+    }
+    return store;
+  }
+
+  /**
+   * Merges the fingerprints saved by the partitions of a run, replacing the
+   * previous ones. Partition files are deleted. Nothing is merged when no
+   * partition saved fingerprints to this file.
+   *
+   * @param path  The fingerprints file path
+   * @param parts The partition fingerprints file paths
+   * @throws IOException
+   */
+  public static void merge(Path path, List<Path> parts) throws IOException {
+    if (parts.stream().noneMatch(Files::exists)) {
+      return;
+    }
+    var store = new FingerprintStore(path);
+    for (var part : parts) {
+      if (Files.exists(part)) {
+        try (var reader = Files.newBufferedReader(part)) {
+          store.current.load(reader);
+        }
+        Files.delete(part);
+      }
+    }
+    store.save();
+  }
+
+  /**
+   * Records the fingerprint of a table for the current run and predicates if it
+   * changed since the previous run.
+   *
+   * @param tableName   The table name
+   * @param fingerprint The fingerprint
+   * @return `true` if the fingerprint changed
+   */
+  public synchronized boolean isChanged(String tableName, String fingerprint) {
+    current.setProperty(tableName, fingerprint);
+    return !Objects.equals(previous.getProperty(tableName), fingerprint);
+  }
+
+  /**
+   * Saves the fingerprints recorded during the current run, replacing the
+   * previous ones. The file is identical when the fingerprints did not change.
+   *
+   * @throws IOException
+   */
+  public synchronized void save() throws IOException {
+    PropertiesFile.write(path, current, "jpa-entity-generator table fingerprints");
+  }
+}
@@ -0,0 +1,47 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.util.Hashes;
+
+/**
+ * Computes the fingerprints of a whole generation run, used by build tools to
+ * decide if the generated sources are up to date.
+ */
+public class GenerationFingerprint {
+
+  private GenerationFingerprint() {
+  }
+
+  /**
+   * Get the fingerprint of a resolved config. The JDBC password is not part of
+   * the fingerprint.
+   *
+   * @param config The config
+   * @return The fingerprint
+   */
+  public static String ofConfig(EntityGeneratorConfig config) {
+    var jdbcSettings = config.getJdbcSettings();
+    if (jdbcSettings != null) {
+      config = config.toBuilder().jdbcSettings(jdbcSettings.toBuilder().password(null).build()).build();
+    }
+    return Hashes.sha256(config.toString() + '\n'
+        + GenerationFingerprint.class.getPackage().getImplementationVersion());
+  }
+
+  /**
+   * Get the fingerprint of the schema from the fingerprints of its tables.
+   *
+   * @param tableFingerprints The fingerprints by table name
+   * @return The fingerprint
+   * @see TableFingerprint
+   */
+  public static String ofSchema(Map<String, String> tableFingerprints) {
+    var content = new StringBuilder();
+    new TreeMap<>(tableFingerprints)
+        .forEach((tableName, fingerprint) -> content.append(tableName).append('=').append(fingerprint).append('\n'));
+    return Hashes.sha256(content.toString());
+  }
+}
@@ -0,0 +1,182 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Content hashes of the files generated by the previous run, used to skip the
+ * files whose content did not change and to delete the files that are no longer
+ * generated.
+ * <p>
+ * Files are identified by their path relative to the output directory. Each
+ * package has its own manifest, so that runs generating other packages to the
+ * same directory do not delete each other's files.
+ */
+public class GenerationManifest {
+
+  /**
+   * The name of the manifest file of the default package in the output
+   * directory.
+   */
+  public static final String FILE_NAME = ".jpa-entity-generator.manifest";
+
+  private final Path savePath;
+  private final Map<String, String> previous = new HashMap<>();
+  private final Map<String, String> current = new ConcurrentHashMap<>();
+
+  private GenerationManifest(Path savePath) {
+    this.savePath = savePath;
+  }
+
+  /**
+   * Get the name of the manifest file of a package in the output directory.
+   *
+   * @param packageName The package name
+   * @return The file name
+   */
+  public static String getFileName(String packageName) {
+    return packageName.isEmpty() ? FILE_NAME : ".jpa-entity-generator." + packageName + ".manifest";
+  }
+
+  /**
+   * Loads the manifest of the previous run, if any.
+   *
+   * @param path The manifest file path
+   * @return The manifest
+   * @throws IOException
+   */
+  public static GenerationManifest load(Path path) throws IOException {
+    return load(path, path);
+  }
+
+  /**
+   * Loads the manifest of the previous run, if any, to save the current run to
+   * another file. It is used by the partitions of a run.
+   *
+   * @param path     The manifest file path
+   * @param savePath The file path the current run is saved to
+   * @return The manifest
+   * @throws IOException
+   * @see #merge(Path, List)
+   */
+  public static GenerationManifest load(Path path, Path savePath) throws IOException {
+    var manifest = new GenerationManifest(savePath);
+    manifest.previous.putAll(read(path));
+    return manifest;
+  }
+
+  /**
+   * Loads the manifest of the previous run with the files recorded by the
+   * partitions of the current run as current files. Partition files are
+   * deleted.
+   *
+   * @param path  The manifest file path
+   * @param parts The partition manifest file paths
+   * @return The manifest
+   * @throws IOException
+   */
+  public static GenerationManifest merge(Path path, List<Path> parts) throws IOException {
+    var manifest = load(path);
+    for (var part : parts) {
+      manifest.current.putAll(read(part));
+      Files.deleteIfExists(part);
+    }
+    return manifest;
+  }
+
+  /**
+   * Get the content hash of a file generated by the previous run.
+   *
+   * @param file The file path
+   * @return The hash, `null` if the file was not generated
+   */
+  public String getPreviousHash(String file) {
+    return previous.get(file);
+  }
+
+  /**
+   * Records a file generated by the current run.
+   *
+   * @param file The file path
+   * @param hash The content hash
+   */
+  public void record(String file, String hash) {
+    current.put(file, hash);
+  }
+
+  /**
+   * Records a file of the previous run kept as is by the current run.
+   *
+   * @param file The file path
+   * @return `true` if the file was generated by the previous run
+   */
+  public boolean keep(String file) {
+    var hash = previous.get(file);
+    if (hash == null) {
+      return false;
+    }
+    current.put(file, hash);
+    return true;
+  }
+
+  /**
+   * Get the files generated by the previous run but not by the current one.
+   *
+   * @return The file paths
+   */
+  public Set<String> getRemovedFiles() {
+    return previous.keySet().stream()
+        .filter(o -> !current.containsKey(o))
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Deletes the files generated by the previous run but not by the current one.
+   * Only the files of a package and of its sub-packages are deleted.
+   *
+   * @param directory   The directory the file paths are relative to
+   * @param packageName The package generated by the run
+   * @return The deleted file paths
+   * @throws IOException
+   */
+  public Set<String> deleteRemovedFiles(Path directory, String packageName) throws IOException {
+    var prefix = packageName.isEmpty() ? "" : packageName.replace('.', '/') + "/";
+    var removedFiles = getRemovedFiles().stream()
+        .filter(o -> o.startsWith(prefix))
+        .collect(Collectors.toSet());
+    for (var file : removedFiles) {
+      Files.deleteIfExists(directory.resolve(file));
+    }
+    return removedFiles;
+  }
+
+  /**
+   * Saves the files recorded during the current run, replacing the previous
+   * ones. The file is identical when the generated files did not change.
+   *
+   * @throws IOException
+   */
+  public void save() throws IOException {
+    PropertiesFile.write(savePath, current, "jpa-entity-generator generated files");
+  }
+
+  private static Map<String, String> read(Path path) throws IOException {
+    var files = new HashMap<String, String>();
+    if (Files.exists(path)) {
+      var properties = new Properties();
+      try (var reader = Files.newBufferedReader(path)) {
+        properties.load(reader);
+      }
+      properties.stringPropertyNames().forEach(o -> files.put(o, properties.getProperty(o)));
+    }
+    return files;
+  }
+}
@@ -0,0 +1,49 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Writes properties files whose content only depends on their entries, so that
+ * runs without changes leave byte-identical files.
+ */
+final class PropertiesFile {
+
+  private PropertiesFile() {
+  }
+
+  /**
+   * Writes entries sorted by key, without the timestamp written by
+   * {@link Properties#store}. The file is read back with
+   * {@link Properties#load}.
+   *
+   * @param path    The file path
+   * @param entries The entries
+   * @param comment The header comment
+   * @throws IOException
+   */
+  static void write(Path path, Map<?, ?> entries, String comment) throws IOException {
+    var parent = path.toAbsolutePath().getParent();
+    if (parent != null) {
+      Files.createDirectories(parent);
+    }
+    var properties = new Properties();
+    properties.putAll(entries);
+    var content = new StringWriter();
+    properties.store(content, null);
+
+    var lines = new ArrayList<String>();
+    lines.add("#" + comment);
+    // Each entry is escaped on a single line, escaped keys never start with '#'
+    content.toString().lines()
+        .filter(o -> !o.startsWith("#"))
+        .sorted()
+        .forEach(lines::add);
+    Files.write(path, lines);
+  }
+}
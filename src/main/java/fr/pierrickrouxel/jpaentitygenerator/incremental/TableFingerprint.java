@@ -0,0 +1,142 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.util.List;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Index;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Key;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassMatcher;
+import fr.pierrickrouxel.jpaentitygenerator.util.Hashes;
+import fr.pierrickrouxel.jpaentitygenerator.util.NameConverter;
+
+/**
+ * Computes the fingerprint of everything the entity of a table is generated
+ * from.
+ * <p>
+ * Besides the table metadata, the fingerprint covers the foreign keys of the
+ * table in both directions and the class names of its neighbours, so the
+ * entities whose @ManyToOne or @OneToMany fields are affected by a change in
+ * another table get a new fingerprint too.
+ * <p>
+ * Columns, indexes and keys are written field by field in a fixed order, each
+ * value prefixed with its length, so the fingerprint does not depend on the
+ * string representation of the metadata classes. Index and constraint names
+ * are left out: they are not generated from, and a DDL script does not declare
+ * the names a database generates.
+ */
+public class TableFingerprint {
+
+  private TableFingerprint() {
+  }
+
+  /**
+   * Get the fingerprint of a fetched table.
+   *
+   * @param table           The table
+   * @param foreignKeyGraph The foreign key relationships
+   * @param config          The config
+   * @return The fingerprint
+   */
+  public static String of(Table table, ForeignKeyGraph foreignKeyGraph, EntityGeneratorConfig config) {
+    var metadata = new StringBuilder();
+    field(metadata, table.getRemarks());
+    metadata.append('\n');
+    for (var column : table.getColumns()) {
+      append(metadata, column);
+    }
+    for (var index : table.getIndexes()) {
+      append(metadata, index);
+    }
+    return of(table.getName(), metadata.toString(), foreignKeyGraph, config);
+  }
+
+  /**
+   * Get the fingerprint of a table from a digest of its metadata, such as a
+   * catalog checksum.
+   *
+   * @param tableName       The table name
+   * @param metadata        The digest of the table metadata
+   * @param foreignKeyGraph The foreign key relationships
+   * @param config          The config
+   * @return The fingerprint
+   */
+  public static String of(String tableName, String metadata, ForeignKeyGraph foreignKeyGraph,
+      EntityGeneratorConfig config) {
+    var className = NameConverter.toClassName(tableName, config.getClassNameRules());
+
+    var content = new StringBuilder()
+        .append(tableName).append('\n')
+        .append(metadata).append('\n');
+    for (var key : foreignKeyGraph.getImportedKeys(tableName)) {
+      append(content.append("imported "), key);
+    }
+    for (var key : foreignKeyGraph.getExportedKeys(tableName)) {
+      append(content.append("exported "), key);
+    }
+
+    for (var neighbour : foreignKeyGraph.getNeighbours(tableName)) {
+      content.append(neighbour).append('=')
+          .append(NameConverter.toClassName(neighbour, config.getClassNameRules())).append('\n');
+    }
+
+    content.append(className).append('\n')
+        .append(config.getPackageName()).append('\n')
+        .append(config.getGeneratedValueStrategy()).append('\n')
+        .append(config.isRemarksAsJavadoc()).append('\n')
+        .append(matching(config.getClassAnnotationRules(), className)).append('\n')
+        .append(matching(config.getInterfaceRules(), className)).append('\n')
+        .append(matching(config.getClassAdditionalCommentRules(), className)).append('\n')
+        .append(matching(config.getFieldTypeRules(), className)).append('\n')
+        .append(matching(config.getFieldAnnotationRules(), className)).append('\n')
+        .append(matching(config.getFieldDefaultValueRules(), className)).append('\n')
+        .append(matching(config.getFieldAdditionalCommentRules(), className)).append('\n')
+        .append(TableFingerprint.class.getPackage().getImplementationVersion());
+
+    return Hashes.sha256(content.toString());
+  }
+
+  private static <T extends ClassMatcher> List<T> matching(List<T> rules, String className) {
+    return rules.stream().filter(o -> o.matches(className)).toList();
+  }
+
+  private static void append(StringBuilder content, Column column) {
+    content.append("column ");
+    field(content, column.getName());
+    field(content, column.getTypeCode());
+    field(content, column.getTypeName());
+    field(content, column.isNullable());
+    field(content, column.isPrimaryKey());
+    field(content, column.isAutoIncrement());
+    field(content, column.getColumnSize());
+    field(content, column.getDecimalDigits());
+    field(content, column.getRemarks());
+    content.append('\n');
+  }
+
+  private static void append(StringBuilder content, Index index) {
+    content.append("index ");
+    field(content, index.getColumnName());
+    field(content, index.isNonUnique());
+    content.append('\n');
+  }
+
+  private static void append(StringBuilder content, Key key) {
+    field(content, key.getPrimaryKeyTableName());
+    field(content, key.getPrimaryKeyColumnName());
+    field(content, key.getForeignKeyTableName());
+    field(content, key.getForeignKeyColumnName());
+    content.append('\n');
+  }
+
+  private static void field(StringBuilder content, Object value) {
+    if (value == null) {
+      content.append("-;");
+    } else {
+      var text = value.toString();
+      content.append(text.length()).append(':').append(text).append(';');
+    }
+  }
+}
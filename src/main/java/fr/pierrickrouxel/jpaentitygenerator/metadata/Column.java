@@ -15,4 +15,16 @@ public class Column {
   private int columnSize;
   private int decimalDigits;
   private String remarks;
+
+  public static class ColumnBuilder {
+    public ColumnBuilder name(String name) {
+      this.name = Names.intern(name);
+      return this;
+    }
+
+    public ColumnBuilder typeName(String typeName) {
+      this.typeName = Names.intern(typeName);
+      return this;
+    }
+  }
 }
@@ -0,0 +1,154 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Minimal JDBC connection pool reusing connections across metadata calls.
+ * <p>
+ * Connections are opened lazily, up to the pool size defined in the JDBC
+ * settings. Closing a borrowed connection returns it to the pool, closing the
+ * pool closes all physical connections.
+ */
+@Slf4j
+public class ConnectionPool implements AutoCloseable {
+
+  private final JdbcSettings jdbcSettings;
+  private final JdbcStatistics statistics;
+  private final Semaphore permits;
+  private final ConcurrentLinkedDeque<Connection> idleConnections = new ConcurrentLinkedDeque<>();
+  private volatile boolean closed;
+
+  public ConnectionPool(JdbcSettings jdbcSettings) {
+    this(jdbcSettings, null);
+  }
+
+  /**
+   * Creates a pool whose connections record their metadata round trips.
+   *
+   * @param jdbcSettings The JDBC settings
+   * @param statistics   The statistics to record to, `null` to disable
+   *                     instrumentation
+   */
+  public ConnectionPool(JdbcSettings jdbcSettings, JdbcStatistics statistics) {
+    this.jdbcSettings = jdbcSettings;
+    this.statistics = statistics;
+    this.permits = new Semaphore(Math.max(1, jdbcSettings.getMaxPoolSize()), true);
+  }
+
+  /**
+   * Borrows a connection, waiting for one to be released when the pool is
+   * exhausted.
+   *
+   * @return The connection, to be closed to return it to the pool
+   * @throws SQLException
+   */
+  public Connection getConnection() throws SQLException {
+    if (closed) {
+      throw new SQLException("Connection pool is closed");
+    }
+
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLException("Interrupted while waiting for a connection", e);
+    }
+
+    try {
+      var connection = idleConnections.pollFirst();
+      while (connection != null && !isUsable(connection)) {
+        closeQuietly(connection);
+        connection = idleConnections.pollFirst();
+      }
+      if (connection == null) {
+        connection = DriverManager.getConnection(jdbcSettings.getUrl(), jdbcSettings.getUsername(),
+            jdbcSettings.getPassword());
+        if (statistics != null) {
+          connection = InstrumentedConnection.wrap(connection, statistics);
+        }
+      }
+      return wrap(connection);
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+    var connections = new ArrayList<Connection>();
+    Connection connection;
+    while ((connection = idleConnections.pollFirst()) != null) {
+      connections.add(connection);
+    }
+    connections.forEach(this::closeQuietly);
+  }
+
+  private void release(Connection connection) {
+    try {
+      if (closed || !isUsable(connection)) {
+        closeQuietly(connection);
+      } else {
+        idleConnections.offerFirst(connection);
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Wraps a physical connection so that closing it returns it to the pool.
+   */
+  private Connection wrap(Connection connection) {
+    var released = new AtomicBoolean();
+    return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+        (proxy, method, args) -> {
+          switch (method.getName()) {
+            case "close":
+              if (released.compareAndSet(false, true)) {
+                release(connection);
+              }
+              return null;
+            case "isClosed":
+              return released.get() || connection.isClosed();
+            default:
+              if (released.get()) {
+                throw new SQLException("Connection has been returned to the pool");
+              }
+              try {
+                return method.invoke(connection, args);
+              } catch (InvocationTargetException e) {
+                throw e.getCause();
+              }
+          }
+        });
+  }
+
+  private boolean isUsable(Connection connection) {
+    try {
+      return !connection.isClosed();
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void closeQuietly(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.debug("Failed to close connection", e);
+    }
+  }
+}
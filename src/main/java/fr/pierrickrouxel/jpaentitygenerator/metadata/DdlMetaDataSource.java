@@ -0,0 +1,275 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import fr.pierrickrouxel.jpaentitygenerator.metadata.DdlParser.ColumnDefinition;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.DdlParser.TableDefinition;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Reads table metadata from DDL scripts, without database.
+ * <p>
+ * Scripts are parsed once when the source is opened, tables are built on
+ * demand. Column types are mapped to JDBC type codes from their declared name.
+ * Undeclared sizes are reported as `0`, or as unbounded for character types.
+ */
+@Slf4j
+public class DdlMetaDataSource implements MetaDataSource {
+
+  private static final Map<String, Integer> TYPE_CODES = Map.ofEntries(
+      Map.entry("CHAR", Types.CHAR),
+      Map.entry("CHARACTER", Types.CHAR),
+      Map.entry("NCHAR", Types.NCHAR),
+      Map.entry("NATIONAL CHARACTER", Types.NCHAR),
+      Map.entry("VARCHAR", Types.VARCHAR),
+      Map.entry("VARCHAR2", Types.VARCHAR),
+      Map.entry("CHARACTER VARYING", Types.VARCHAR),
+      Map.entry("CHAR VARYING", Types.VARCHAR),
+      Map.entry("VARCHAR_IGNORECASE", Types.VARCHAR),
+      Map.entry("NVARCHAR", Types.NVARCHAR),
+      Map.entry("NVARCHAR2", Types.NVARCHAR),
+      Map.entry("NATIONAL CHARACTER VARYING", Types.NVARCHAR),
+      Map.entry("TEXT", Types.CLOB),
+      Map.entry("TINYTEXT", Types.CLOB),
+      Map.entry("MEDIUMTEXT", Types.CLOB),
+      Map.entry("LONGTEXT", Types.CLOB),
+      Map.entry("CLOB", Types.CLOB),
+      Map.entry("CHARACTER LARGE OBJECT", Types.CLOB),
+      Map.entry("NCLOB", Types.NCLOB),
+      Map.entry("BINARY", Types.BINARY),
+      Map.entry("VARBINARY", Types.VARBINARY),
+      Map.entry("BINARY VARYING", Types.VARBINARY),
+      Map.entry("BLOB", Types.BLOB),
+      Map.entry("LONGBLOB", Types.BLOB),
+      Map.entry("BYTEA", Types.BLOB),
+      Map.entry("BINARY LARGE OBJECT", Types.BLOB),
+      Map.entry("BOOLEAN", Types.BOOLEAN),
+      Map.entry("BOOL", Types.BOOLEAN),
+      Map.entry("BIT", Types.BIT),
+      Map.entry("TINYINT", Types.TINYINT),
+      Map.entry("SMALLINT", Types.SMALLINT),
+      Map.entry("INT2", Types.SMALLINT),
+      Map.entry("SMALLSERIAL", Types.SMALLINT),
+      Map.entry("MEDIUMINT", Types.INTEGER),
+      Map.entry("INT", Types.INTEGER),
+      Map.entry("INT4", Types.INTEGER),
+      Map.entry("INTEGER", Types.INTEGER),
+      Map.entry("SERIAL", Types.INTEGER),
+      Map.entry("BIGINT", Types.BIGINT),
+      Map.entry("INT8", Types.BIGINT),
+      Map.entry("BIGSERIAL", Types.BIGINT),
+      Map.entry("IDENTITY", Types.BIGINT),
+      Map.entry("NUMERIC", Types.NUMERIC),
+      Map.entry("NUMBER", Types.NUMERIC),
+      Map.entry("DECIMAL", Types.DECIMAL),
+      Map.entry("DEC", Types.DECIMAL),
+      Map.entry("REAL", Types.REAL),
+      Map.entry("FLOAT4", Types.REAL),
+      Map.entry("FLOAT", Types.FLOAT),
+      Map.entry("DOUBLE", Types.DOUBLE),
+      Map.entry("DOUBLE PRECISION", Types.DOUBLE),
+      Map.entry("FLOAT8", Types.DOUBLE),
+      Map.entry("DATE", Types.DATE),
+      Map.entry("TIME", Types.TIME),
+      Map.entry("TIME WITHOUT TIME ZONE", Types.TIME),
+      Map.entry("TIME WITH TIME ZONE", Types.TIME_WITH_TIMEZONE),
+      Map.entry("TIMESTAMP", Types.TIMESTAMP),
+      Map.entry("DATETIME", Types.TIMESTAMP),
+      Map.entry("TIMESTAMP WITHOUT TIME ZONE", Types.TIMESTAMP),
+      Map.entry("TIMESTAMP WITH TIME ZONE", Types.TIMESTAMP_WITH_TIMEZONE),
+      Map.entry("TIMESTAMPTZ", Types.TIMESTAMP_WITH_TIMEZONE));
+
+  private static final Set<String> AUTO_INCREMENT_TYPES = Set.of("SERIAL", "SMALLSERIAL", "BIGSERIAL", "IDENTITY");
+
+  private static final Set<Integer> CHARACTER_TYPE_CODES = Set.of(Types.CHAR, Types.NCHAR, Types.VARCHAR,
+      Types.NVARCHAR, Types.CLOB, Types.NCLOB);
+
+  // Tables by name, a name being created in several schemas
+  private final Map<String, List<TableDefinition>> tables = new LinkedHashMap<>();
+  private final Map<TableDefinition, List<Key>> importedKeys;
+  private final ForeignKeyGraph foreignKeyGraph;
+
+  private DdlMetaDataSource(DdlParser parser) {
+    this(parser.getTables(), getKeys(parser));
+  }
+
+  private DdlMetaDataSource(List<TableDefinition> definitions, Map<TableDefinition, List<Key>> importedKeys) {
+    definitions.forEach(o -> tables.computeIfAbsent(o.name, k -> new ArrayList<>()).add(o));
+    this.importedKeys = importedKeys;
+    this.foreignKeyGraph = new ForeignKeyGraph(definitions.stream()
+        .flatMap(o -> importedKeys.getOrDefault(o, List.of()).stream())
+        .toList());
+  }
+
+  /**
+   * Parses DDL script files, in order.
+   *
+   * @param paths The script file paths
+   * @return The metadata source
+   * @throws IOException
+   * @throws SQLException when a script has a syntax error
+   */
+  public static DdlMetaDataSource open(List<Path> paths) throws IOException, SQLException {
+    var parser = new DdlParser();
+    for (var path : paths) {
+      parser.parse(Files.readString(path));
+    }
+    return new DdlMetaDataSource(parser);
+  }
+
+  /**
+   * Parses a DDL script.
+   *
+   * @param script The DDL script
+   * @return The metadata source
+   * @throws SQLException when the script has a syntax error
+   */
+  public static DdlMetaDataSource parse(String script) throws SQLException {
+    var parser = new DdlParser();
+    parser.parse(script);
+    return new DdlMetaDataSource(parser);
+  }
+
+  @Override
+  public List<String> getTableNames() {
+    return new ArrayList<>(tables.keySet());
+  }
+
+  /**
+   * Get the metadata of a table.
+   *
+   * @param tableName The table name
+   * @return The table
+   * @throws SQLException If the table is created in several schemas
+   */
+  @Override
+  public Table getTable(String tableName) throws SQLException {
+    var definitions = tables.get(tableName);
+    if (definitions == null) {
+      return Table.builder().name(tableName).build();
+    }
+    if (definitions.size() > 1) {
+      throw new SQLException("Table " + tableName + " is created in schemas "
+          + definitions.stream().map(o -> String.valueOf(o.schema)).toList()
+          + ", set jdbcSettings.schemas to generate each schema apart");
+    }
+
+    var definition = definitions.getFirst();
+    var table = Table.builder()
+        .name(definition.name)
+        .schema(definition.schema)
+        .remarks(definition.remarks)
+        .build();
+    for (var column : definition.columns.values()) {
+      table.getColumns().add(getColumn(column, definition.primaryKeyColumnNames.contains(column.name)));
+    }
+    for (var index : definition.indexes) {
+      for (var columnName : index.columnNames()) {
+        table.getIndexes().add(Index.builder()
+            .name(index.name())
+            .columnName(columnName)
+            .nonUnique(!index.unique())
+            .build());
+      }
+    }
+    table.getImportedKeys().addAll(foreignKeyGraph.getImportedKeys(tableName));
+    table.getExportedKeys().addAll(foreignKeyGraph.getExportedKeys(tableName));
+    return table;
+  }
+
+  @Override
+  public ForeignKeyGraph getForeignKeyGraph() {
+    return foreignKeyGraph;
+  }
+
+  /**
+   * Get the tables created in a schema by qualified names, with the foreign
+   * keys of these tables.
+   *
+   * @param schema The schema name
+   * @return The schema source
+   */
+  @Override
+  public DdlMetaDataSource forSchema(String schema) {
+    var definitions = tables.values().stream()
+        .flatMap(List::stream)
+        .filter(o -> schema.equals(o.schema))
+        .toList();
+    return new DdlMetaDataSource(definitions, importedKeys);
+  }
+
+  @Override
+  public void close() {
+    // Scripts are read when the source is opened
+  }
+
+  private Column getColumn(ColumnDefinition column, boolean primaryKey) {
+    var typeCode = TYPE_CODES.getOrDefault(column.typeName, Types.OTHER);
+    var defaultSize = CHARACTER_TYPE_CODES.contains(typeCode) ? Integer.MAX_VALUE : 0;
+
+    return Column.builder()
+        .name(column.name)
+        .typeCode(typeCode)
+        .typeName(column.typeName)
+        .columnSize(column.columnSize != null ? column.columnSize : defaultSize)
+        .decimalDigits(column.decimalDigits != null ? column.decimalDigits : 0)
+        .remarks(column.remarks)
+        .nullable(column.nullable && !primaryKey)
+        .primaryKey(primaryKey)
+        .autoIncrement(column.autoIncrement || AUTO_INCREMENT_TYPES.contains(column.typeName))
+        .build();
+  }
+
+  /**
+   * Resolves foreign key definitions into one key per column, as returned by
+   * {@link java.sql.DatabaseMetaData#getImportedKeys}, by foreign key table.
+   */
+  private static Map<TableDefinition, List<Key>> getKeys(DdlParser parser) {
+    var keys = new LinkedHashMap<TableDefinition, List<Key>>();
+    for (var foreignKey : parser.getForeignKeys()) {
+      var table = foreignKey.table();
+      var referencedTable = parser.findTable(foreignKey.referencedTableNames());
+      if (referencedTable == null) {
+        log.warn("Ignoring foreign key of {} to unknown table {}", table.name,
+            String.join(".", foreignKey.referencedTableNames()));
+        continue;
+      }
+
+      var referencedColumnNames = foreignKey.referencedColumnNames() != null
+          ? foreignKey.referencedColumnNames()
+          : referencedTable.primaryKeyColumnNames;
+      if (referencedColumnNames.size() != foreignKey.columnNames().size()) {
+        log.debug("Ignoring foreign key of {} with mismatched columns", table.name);
+        continue;
+      }
+
+      // The referenced key is the primary key or unique constraint on the referenced columns
+      var referencedKey = referencedTable.indexes.stream()
+          .filter(o -> o.unique() && o.columnNames().equals(referencedColumnNames))
+          .findFirst();
+      var primaryKeyName = referencedKey.isPresent() ? referencedKey.get().name() : referencedTable.primaryKeyName;
+
+      var tableKeys = keys.computeIfAbsent(table, k -> new ArrayList<>());
+      for (var i = 0; i < referencedColumnNames.size(); i++) {
+        tableKeys.add(Key.builder()
+            .primaryKeyName(primaryKeyName)
+            .primaryKeyTableName(referencedTable.name)
+            .primaryKeyColumnName(referencedColumnNames.get(i))
+            .foreignKeyName(foreignKey.name())
+            .foreignKeyTableName(table.name)
+            .foreignKeyColumnName(foreignKey.columnNames().get(i))
+            .build());
+      }
+    }
+    return keys;
+  }
+}
@@ -0,0 +1,676 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.SQLSyntaxErrorException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Single pass parser of DDL scripts.
+ * <p>
+ * Only the statements describing tables are parsed: {@code CREATE TABLE},
+ * {@code ALTER TABLE ... ADD}, {@code CREATE [UNIQUE] INDEX} and
+ * {@code COMMENT ON}. Any other statement is skipped. Unquoted identifiers are
+ * upper-cased as the SQL standard requires, quoted identifiers are kept as is.
+ * <p>
+ * Tables are identified by schema and name. An unqualified name refers to the
+ * table created without schema, or to the only table of that name. Names of
+ * constraints and indexes are only kept when the script declares them, since
+ * the ones generated by databases cannot be predicted.
+ */
+@Slf4j
+final class DdlParser {
+
+  private static final Set<String> MULTI_WORD_TYPES = Set.of(
+      "CHARACTER VARYING", "CHAR VARYING", "NATIONAL CHARACTER", "NATIONAL CHARACTER VARYING",
+      "CHARACTER LARGE OBJECT", "BINARY VARYING", "BINARY LARGE OBJECT", "DOUBLE PRECISION",
+      "TIME WITH TIME ZONE", "TIME WITHOUT TIME ZONE", "TIMESTAMP WITH TIME ZONE", "TIMESTAMP WITHOUT TIME ZONE");
+
+  private static final Set<String> CREATE_MODIFIERS = Set.of(
+      "OR", "REPLACE", "CACHED", "MEMORY", "TEMP", "TEMPORARY", "GLOBAL", "LOCAL", "UNLOGGED");
+
+  private final Map<TableName, TableDefinition> tables = new LinkedHashMap<>();
+  private final List<ForeignKeyDefinition> foreignKeys = new ArrayList<>();
+  private String script;
+  private int position;
+  private Token token;
+
+  /**
+   * Parses a script, adding its definitions to the ones of the previously
+   * parsed scripts.
+   *
+   * @param script The DDL script
+   * @throws SQLSyntaxErrorException
+   */
+  void parse(String script) throws SQLSyntaxErrorException {
+    this.script = script;
+    this.position = 0;
+    parseStatements();
+  }
+
+  List<TableDefinition> getTables() {
+    return new ArrayList<>(tables.values());
+  }
+
+  List<ForeignKeyDefinition> getForeignKeys() {
+    return foreignKeys;
+  }
+
+  private void parseStatements() throws SQLSyntaxErrorException {
+    next();
+    while (token.type != TokenType.END) {
+      if (accept("CREATE")) {
+        parseCreate();
+      } else if (accept("ALTER")) {
+        parseAlter();
+      } else if (accept("COMMENT")) {
+        parseComment();
+      }
+      skipStatement();
+    }
+  }
+
+  private void parseCreate() throws SQLSyntaxErrorException {
+    while (token.type == TokenType.WORD && CREATE_MODIFIERS.contains(token.text)) {
+      next();
+    }
+    if (accept("TABLE")) {
+      parseCreateTable();
+    } else if (accept("UNIQUE")) {
+      expect("INDEX");
+      parseCreateIndex(true);
+    } else if (accept("INDEX")) {
+      parseCreateIndex(false);
+    }
+  }
+
+  private void parseCreateTable() throws SQLSyntaxErrorException {
+    acceptIfNotExists();
+    var table = getOrCreateTable(parseQualifiedName());
+    if (!acceptSymbol('(')) {
+      return;
+    }
+    do {
+      parseTableElement(table);
+    } while (acceptSymbol(','));
+    expectSymbol(')');
+
+    while (!isStatementEnd()) {
+      if (accept("COMMENT")) {
+        acceptSymbol('=');
+        table.remarks = parseString();
+      } else {
+        skipToken();
+      }
+    }
+  }
+
+  private void parseCreateIndex(boolean unique) throws SQLSyntaxErrorException {
+    acceptIfNotExists();
+    var start = token.start;
+    var name = isKeyword("ON") ? null : last(parseQualifiedName());
+    expect("ON");
+    var tableNames = parseQualifiedName();
+    var table = findTable(tableNames);
+    if (accept("USING")) {
+      next();
+    }
+    var columnNames = parseColumnList();
+    if (table != null) {
+      table.addIndex(name, columnNames, unique);
+    } else {
+      log.warn("Ignoring index on unknown table {} at line {}", String.join(".", tableNames), getLine(start));
+    }
+  }
+
+  private void parseAlter() throws SQLSyntaxErrorException {
+    if (!accept("TABLE")) {
+      return;
+    }
+    if (accept("IF")) {
+      expect("EXISTS");
+    }
+    accept("ONLY");
+    var start = token.start;
+    var tableNames = parseQualifiedName();
+    var table = findTable(tableNames);
+    if (table == null) {
+      log.warn("Ignoring alteration of unknown table {} at line {}", String.join(".", tableNames), getLine(start));
+      return;
+    }
+    do {
+      if (accept("ADD")) {
+        if (accept("COLUMN")) {
+          acceptIfNotExists();
+          parseColumn(table);
+        } else if (acceptSymbol('(')) {
+          do {
+            parseTableElement(table);
+          } while (acceptSymbol(','));
+          expectSymbol(')');
+        } else {
+          parseTableElement(table);
+        }
+      }
+      skipElement();
+    } while (acceptSymbol(','));
+  }
+
+  private void parseComment() throws SQLSyntaxErrorException {
+    expect("ON");
+    var start = token.start;
+    if (accept("TABLE")) {
+      var names = parseQualifiedName();
+      var table = findTable(names);
+      expect("IS");
+      var remarks = parseString();
+      if (table != null) {
+        table.remarks = remarks;
+      } else {
+        log.warn("Ignoring comment on unknown table {} at line {}", String.join(".", names), getLine(start));
+      }
+    } else if (accept("COLUMN")) {
+      var names = parseQualifiedName();
+      var table = names.size() < 2 ? null : findTable(names.subList(0, names.size() - 1));
+      var column = table == null ? null : table.columns.get(last(names));
+      expect("IS");
+      var remarks = parseString();
+      if (column != null) {
+        column.remarks = remarks;
+      } else {
+        log.warn("Ignoring comment on unknown column {} at line {}", String.join(".", names), getLine(start));
+      }
+    }
+  }
+
+  private void parseTableElement(TableDefinition table) throws SQLSyntaxErrorException {
+    String constraintName = null;
+    if (accept("CONSTRAINT")) {
+      constraintName = parseIdentifier();
+    }
+
+    if (accept("PRIMARY")) {
+      expect("KEY");
+      table.setPrimaryKey(constraintName, parseColumnList());
+    } else if (accept("UNIQUE")) {
+      if (!accept("KEY")) {
+        accept("INDEX");
+      }
+      var name = isSymbol('(') ? constraintName : parseIdentifier();
+      table.addIndex(name, parseColumnList(), true);
+    } else if (accept("FOREIGN")) {
+      expect("KEY");
+      if (!isSymbol('(')) {
+        parseIdentifier();
+      }
+      parseReferences(table, constraintName, parseColumnList());
+    } else if (constraintName == null && isIndexDefinition()) {
+      next();
+      var name = isSymbol('(') || isKeyword("USING") ? null : parseIdentifier();
+      if (accept("USING")) {
+        next();
+      }
+      table.addIndex(name, parseColumnList(), false);
+    } else if (constraintName == null && !isKeyword("CHECK")) {
+      parseColumn(table);
+    }
+    skipElement();
+  }
+
+  private void parseColumn(TableDefinition table) throws SQLSyntaxErrorException {
+    var column = new ColumnDefinition(parseIdentifier());
+    parseType(column);
+    table.columns.put(column.name, column);
+
+    String constraintName = null;
+    while (!isElementEnd()) {
+      if (accept("NOT")) {
+        expect("NULL");
+        column.nullable = false;
+      } else if (accept("NULL")) {
+        column.nullable = true;
+      } else if (accept("PRIMARY")) {
+        expect("KEY");
+        table.setPrimaryKey(constraintName, List.of(column.name));
+      } else if (accept("UNIQUE")) {
+        accept("KEY");
+        table.addIndex(constraintName, List.of(column.name), true);
+      } else if (accept("AUTO_INCREMENT") || accept("AUTOINCREMENT") || accept("IDENTITY")) {
+        column.autoIncrement = true;
+      } else if (accept("COMMENT")) {
+        column.remarks = parseString();
+      } else if (accept("CONSTRAINT")) {
+        constraintName = parseIdentifier();
+      } else if (isKeyword("REFERENCES")) {
+        parseReferences(table, constraintName, List.of(column.name));
+      } else if (accept("DEFAULT")) {
+        // The default value may be NULL, which must not be read as nullability
+        skipToken();
+      } else if (accept("ON")) {
+        // Referential actions such as ON DELETE SET NULL
+        skipToken();
+        if (accept("SET")) {
+          skipToken();
+        }
+      } else {
+        // Other attributes such as CHECK, COLLATE or ON UPDATE
+        skipToken();
+      }
+    }
+  }
+
+  private void parseType(ColumnDefinition column) throws SQLSyntaxErrorException {
+    var typeName = new StringBuilder(parseIdentifier().toUpperCase(Locale.ROOT));
+    var sized = false;
+    while (true) {
+      if (!sized && acceptSymbol('(')) {
+        sized = true;
+        column.columnSize = parseSize();
+        if (acceptSymbol(',')) {
+          column.decimalDigits = parseSize();
+        }
+        while (!acceptSymbol(')')) {
+          skipToken();
+        }
+      } else if (token.type == TokenType.WORD && isTypePrefix(typeName + " " + token.text)) {
+        typeName.append(' ').append(token.text);
+        next();
+      } else {
+        break;
+      }
+    }
+    column.typeName = typeName.toString();
+  }
+
+  private int parseSize() throws SQLSyntaxErrorException {
+    if (token.type != TokenType.NUMBER) {
+      // Unbounded sizes such as VARCHAR(MAX)
+      skipToken();
+      return Integer.MAX_VALUE;
+    }
+    var size = token.text.length() > 9 ? Integer.MAX_VALUE : Integer.parseInt(token.text);
+    next();
+    return size;
+  }
+
+  private void parseReferences(TableDefinition table, String constraintName, List<String> columnNames)
+      throws SQLSyntaxErrorException {
+    expect("REFERENCES");
+    var referencedTableNames = parseQualifiedName();
+    var referencedColumnNames = isSymbol('(') ? parseColumnList() : null;
+    foreignKeys.add(new ForeignKeyDefinition(constraintName, table, columnNames, referencedTableNames,
+        referencedColumnNames));
+  }
+
+  /**
+   * Parses a parenthesized list of columns, ignoring expressions, orderings and
+   * prefix lengths.
+   */
+  private List<String> parseColumnList() throws SQLSyntaxErrorException {
+    expectSymbol('(');
+    var columnNames = new ArrayList<String>();
+    do {
+      var name = parseIdentifier();
+      if (acceptSymbol('(')) {
+        if (token.type != TokenType.NUMBER) {
+          // Function call of an expression index, not a prefix length
+          name = null;
+        }
+        while (!acceptSymbol(')')) {
+          skipToken();
+        }
+      }
+      while (!isElementEnd()) {
+        skipToken();
+      }
+      if (name != null) {
+        columnNames.add(name);
+      }
+    } while (acceptSymbol(','));
+    expectSymbol(')');
+    return columnNames;
+  }
+
+  private List<String> parseQualifiedName() throws SQLSyntaxErrorException {
+    var names = new ArrayList<String>();
+    do {
+      names.add(parseIdentifier());
+    } while (acceptSymbol('.'));
+    return names;
+  }
+
+  private String parseIdentifier() throws SQLSyntaxErrorException {
+    if (token.type != TokenType.WORD && token.type != TokenType.IDENTIFIER) {
+      throw error("identifier");
+    }
+    var identifier = token.text;
+    next();
+    return identifier;
+  }
+
+  private String parseString() throws SQLSyntaxErrorException {
+    if (accept("NULL")) {
+      return null;
+    }
+    if (token.type != TokenType.STRING) {
+      throw error("string");
+    }
+    var value = token.text;
+    next();
+    return value;
+  }
+
+  private void acceptIfNotExists() throws SQLSyntaxErrorException {
+    if (accept("IF")) {
+      expect("NOT");
+      expect("EXISTS");
+    }
+  }
+
+  private TableDefinition getOrCreateTable(List<String> names) {
+    return tables.computeIfAbsent(TableName.of(names), k -> new TableDefinition(k.name(), k.schema()));
+  }
+
+  /**
+   * Find a table from its qualified name. A qualified name matches the table of
+   * that schema, or else the table created without schema. An unqualified name
+   * matches the table created without schema, or else the only table of that
+   * name.
+   *
+   * @param names The parts of the qualified name
+   * @return The table, `null` if it is unknown or ambiguous
+   */
+  TableDefinition findTable(List<String> names) {
+    var tableName = TableName.of(names);
+    var table = tables.get(tableName);
+    if (table != null) {
+      return table;
+    }
+    if (tableName.schema() != null) {
+      return tables.get(new TableName(null, tableName.name()));
+    }
+    var matches = tables.values().stream().filter(o -> o.name.equals(tableName.name())).limit(2).toList();
+    return matches.size() == 1 ? matches.getFirst() : null;
+  }
+
+  private static String last(List<String> names) {
+    return names.get(names.size() - 1);
+  }
+
+  private static boolean isTypePrefix(String typeName) {
+    return MULTI_WORD_TYPES.stream().anyMatch(o -> o.equals(typeName) || o.startsWith(typeName + " "));
+  }
+
+  /**
+   * Predicates if a KEY or INDEX keyword starts an index definition, such as
+   * {@code KEY idx_name (name)}, rather than a column named KEY or INDEX, such
+   * as {@code key VARCHAR(20)}.
+   */
+  private boolean isIndexDefinition() {
+    if (!isKeyword("KEY") && !isKeyword("INDEX")) {
+      return false;
+    }
+    var savedPosition = position;
+    var savedToken = token;
+    try {
+      next();
+      if (isSymbol('(') || isKeyword("USING")) {
+        return true;
+      }
+      if (token.type != TokenType.WORD && token.type != TokenType.IDENTIFIER) {
+        return false;
+      }
+      next();
+      if (isKeyword("USING")) {
+        return true;
+      }
+      if (!acceptSymbol('(')) {
+        return false;
+      }
+      // A column list, not the size of a column type
+      return token.type == TokenType.WORD || token.type == TokenType.IDENTIFIER;
+    } finally {
+      position = savedPosition;
+      token = savedToken;
+    }
+  }
+
+  // Token navigation
+
+  private boolean isKeyword(String keyword) {
+    return token.type == TokenType.WORD && token.text.equals(keyword);
+  }
+
+  private boolean isSymbol(char symbol) {
+    return token.type == TokenType.SYMBOL && token.text.charAt(0) == symbol;
+  }
+
+  private boolean isStatementEnd() {
+    return token.type == TokenType.END || isSymbol(';');
+  }
+
+  private boolean isElementEnd() {
+    return isStatementEnd() || isSymbol(',') || isSymbol(')');
+  }
+
+  private boolean accept(String keyword) {
+    if (isKeyword(keyword)) {
+      next();
+      return true;
+    }
+    return false;
+  }
+
+  private boolean acceptSymbol(char symbol) {
+    if (isSymbol(symbol)) {
+      next();
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(String keyword) throws SQLSyntaxErrorException {
+    if (!accept(keyword)) {
+      throw error(keyword);
+    }
+  }
+
+  private void expectSymbol(char symbol) throws SQLSyntaxErrorException {
+    if (!acceptSymbol(symbol)) {
+      throw error(String.valueOf(symbol));
+    }
+  }
+
+  /**
+   * Skips a token, or a whole parenthesized group.
+   */
+  private void skipToken() throws SQLSyntaxErrorException {
+    if (isStatementEnd()) {
+      throw error("token");
+    }
+    if (!acceptSymbol('(')) {
+      next();
+      return;
+    }
+    while (!acceptSymbol(')')) {
+      skipToken();
+    }
+  }
+
+  private void skipElement() throws SQLSyntaxErrorException {
+    while (!isElementEnd()) {
+      skipToken();
+    }
+  }
+
+  private void skipStatement() {
+    var depth = 0;
+    while (token.type != TokenType.END && (depth > 0 || !isSymbol(';'))) {
+      if (isSymbol('(')) {
+        depth++;
+      } else if (isSymbol(')')) {
+        depth = Math.max(0, depth - 1);
+      }
+      next();
+    }
+    next();
+  }
+
+  private SQLSyntaxErrorException error(String expected) {
+    var found = token.type == TokenType.END ? "end of script" : "'" + token.text + "'";
+    return new SQLSyntaxErrorException(
+        "Expected " + expected + " but found " + found + " at line " + getLine(token.start));
+  }
+
+  private int getLine(int offset) {
+    var line = 1;
+    for (var i = 0; i < offset; i++) {
+      if (script.charAt(i) == '\n') {
+        line++;
+      }
+    }
+    return line;
+  }
+
+  // Tokenizer
+
+  private void next() {
+    skipWhitespaceAndComments();
+    var start = position;
+    if (position >= script.length()) {
+      token = new Token(TokenType.END, "", start);
+      return;
+    }
+
+    var c = script.charAt(position);
+    if (Character.isLetter(c) || c == '_') {
+      while (position < script.length() && isIdentifierPart(script.charAt(position))) {
+        position++;
+      }
+      token = new Token(TokenType.WORD, script.substring(start, position).toUpperCase(Locale.ROOT), start);
+    } else if (c == '"' || c == '`') {
+      token = new Token(TokenType.IDENTIFIER, scanQuoted(c), start);
+    } else if (c == '[') {
+      token = new Token(TokenType.IDENTIFIER, scanQuoted(']'), start);
+    } else if (c == '\'') {
+      token = new Token(TokenType.STRING, scanQuoted('\''), start);
+    } else if (Character.isDigit(c)) {
+      while (position < script.length() && Character.isDigit(script.charAt(position))) {
+        position++;
+      }
+      token = new Token(TokenType.NUMBER, script.substring(start, position), start);
+    } else {
+      position++;
+      token = new Token(TokenType.SYMBOL, String.valueOf(c), start);
+    }
+  }
+
+  private static boolean isIdentifierPart(char c) {
+    return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+  }
+
+  /**
+   * Scans a quoted token, a doubled closing quote standing for the quote
+   * itself.
+   */
+  private String scanQuoted(char closingQuote) {
+    position++;
+    var value = new StringBuilder();
+    while (position < script.length()) {
+      var c = script.charAt(position++);
+      if (c != closingQuote) {
+        value.append(c);
+      } else if (position < script.length() && script.charAt(position) == closingQuote) {
+        value.append(c);
+        position++;
+      } else {
+        break;
+      }
+    }
+    return value.toString();
+  }
+
+  private void skipWhitespaceAndComments() {
+    while (position < script.length()) {
+      var c = script.charAt(position);
+      if (Character.isWhitespace(c)) {
+        position++;
+      } else if (script.startsWith("--", position)) {
+        var end = script.indexOf('\n', position);
+        position = end < 0 ? script.length() : end + 1;
+      } else if (script.startsWith("/*", position)) {
+        var end = script.indexOf("*/", position + 2);
+        position = end < 0 ? script.length() : end + 2;
+      } else {
+        return;
+      }
+    }
+  }
+
+  private enum TokenType {
+    WORD, IDENTIFIER, STRING, NUMBER, SYMBOL, END
+  }
+
+  private record Token(TokenType type, String text, int start) {
+  }
+
+  // Definitions
+
+  static final class TableDefinition {
+    final String name;
+    final String schema;
+    final Map<String, ColumnDefinition> columns = new LinkedHashMap<>();
+    final List<IndexDefinition> indexes = new ArrayList<>();
+    String remarks;
+    String primaryKeyName;
+    List<String> primaryKeyColumnNames = List.of();
+
+    private TableDefinition(String name, String schema) {
+      this.name = name;
+      this.schema = schema;
+    }
+
+    private void setPrimaryKey(String constraintName, List<String> columnNames) {
+      primaryKeyName = constraintName;
+      primaryKeyColumnNames = columnNames;
+      addIndex(constraintName, columnNames, true);
+    }
+
+    private void addIndex(String name, List<String> columnNames, boolean unique) {
+      indexes.add(new IndexDefinition(name, columnNames, unique));
+    }
+  }
+
+  static final class ColumnDefinition {
+    final String name;
+    String typeName;
+    Integer columnSize;
+    Integer decimalDigits;
+    boolean nullable = true;
+    boolean autoIncrement;
+    String remarks;
+
+    private ColumnDefinition(String name) {
+      this.name = name;
+    }
+  }
+
+  record IndexDefinition(String name, List<String> columnNames, boolean unique) {
+  }
+
+  record ForeignKeyDefinition(String name, TableDefinition table, List<String> columnNames,
+      List<String> referencedTableNames, List<String> referencedColumnNames) {
+  }
+
+  private record TableName(String schema, String name) {
+
+    static TableName of(List<String> names) {
+      return new TableName(names.size() > 1 ? names.get(names.size() - 2) : null, last(names));
+    }
+  }
+}
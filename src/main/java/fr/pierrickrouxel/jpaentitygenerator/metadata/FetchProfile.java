@@ -0,0 +1,45 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Selects the table metadata to fetch, to skip catalog calls whose results
+ * cannot affect the generated entities.
+ */
+@Value
+@Builder
+public class FetchProfile {
+
+  /**
+   * The profile fetching all metadata.
+   */
+  public static final FetchProfile FULL = FetchProfile.builder().build();
+
+  /**
+   * Fetch the table and column remarks.
+   */
+  @Builder.Default
+  boolean remarks = true;
+
+  /**
+   * Fetch the non unique indexes, unique indexes are always fetched.
+   */
+  @Builder.Default
+  boolean nonUniqueIndexes = true;
+
+  /**
+   * Get the profile fetching only the metadata used by the entity generation.
+   *
+   * @param config The config
+   * @return The profile
+   */
+  public static FetchProfile of(EntityGeneratorConfig config) {
+    return FetchProfile.builder()
+        .remarks(config.isRemarksAsJavadoc())
+        // Indexes only mark columns as unique
+        .nonUniqueIndexes(false)
+        .build();
+  }
+}
@@ -0,0 +1,90 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Schema-wide foreign key relationships indexed by table name.
+ * <p>
+ * The graph is built from imported keys only: the exported keys of a table are
+ * the imported keys of the tables referencing it.
+ */
+public class ForeignKeyGraph {
+
+  private final List<Key> keys = new ArrayList<>();
+  private final Map<String, List<Key>> importedKeys = new HashMap<>();
+  private final Map<String, List<Key>> exportedKeys = new HashMap<>();
+
+  /**
+   * Creates the graph from imported keys.
+   *
+   * @param keys The imported keys of all tables
+   */
+  public ForeignKeyGraph(Collection<Key> keys) {
+    this.keys.addAll(new LinkedHashSet<>(keys));
+    for (var key : this.keys) {
+      importedKeys.computeIfAbsent(key.getForeignKeyTableName(), k -> new ArrayList<>()).add(key);
+      exportedKeys.computeIfAbsent(key.getPrimaryKeyTableName(), k -> new ArrayList<>()).add(key);
+    }
+  }
+
+  /**
+   * Creates the graph holding the relationships of a single table.
+   *
+   * @param table The table
+   * @return The graph
+   */
+  public static ForeignKeyGraph of(Table table) {
+    return new ForeignKeyGraph(Stream.concat(table.getImportedKeys().stream(), table.getExportedKeys().stream())
+        .toList());
+  }
+
+  /**
+   * Get the keys of all tables.
+   *
+   * @return The imported keys
+   */
+  public List<Key> getKeys() {
+    return Collections.unmodifiableList(keys);
+  }
+
+  /**
+   * Get the keys of the table referencing other tables.
+   *
+   * @param tableName The table name
+   * @return The imported keys
+   */
+  public List<Key> getImportedKeys(String tableName) {
+    return Collections.unmodifiableList(importedKeys.getOrDefault(tableName, List.of()));
+  }
+
+  /**
+   * Get the keys of other tables referencing the table.
+   *
+   * @param tableName The table name
+   * @return The exported keys
+   */
+  public List<Key> getExportedKeys(String tableName) {
+    return Collections.unmodifiableList(exportedKeys.getOrDefault(tableName, List.of()));
+  }
+
+  /**
+   * Get the tables referenced by or referencing the table.
+   *
+   * @param tableName The table name
+   * @return The neighbour table names
+   */
+  public Set<String> getNeighbours(String tableName) {
+    var neighbours = new LinkedHashSet<String>();
+    getImportedKeys(tableName).forEach(o -> neighbours.add(o.getPrimaryKeyTableName()));
+    getExportedKeys(tableName).forEach(o -> neighbours.add(o.getForeignKeyTableName()));
+    return neighbours;
+  }
+}
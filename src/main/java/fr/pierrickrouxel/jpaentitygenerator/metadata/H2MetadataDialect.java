@@ -0,0 +1,350 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * H2 2.x metadata dialect querying INFORMATION_SCHEMA directly.
+ */
+public class H2MetadataDialect implements MetadataDialect {
+
+  private static final int FETCH_SIZE = 10_000;
+
+  private static final String TABLES_QUERY = """
+      SELECT DISTINCT TABLE_NAME
+      FROM INFORMATION_SCHEMA.TABLES
+      WHERE TABLE_SCHEMA LIKE ? AND TABLE_TYPE IN ('BASE TABLE', 'VIEW')
+      ORDER BY TABLE_NAME
+      """;
+
+  private static final String REMARKS_QUERY = """
+      SELECT TABLE_SCHEMA, TABLE_NAME, REMARKS
+      FROM INFORMATION_SCHEMA.TABLES
+      WHERE TABLE_SCHEMA LIKE ? AND TABLE_NAME = ANY(?)
+      """;
+
+  private static final String PRIMARY_KEYS_QUERY = """
+      SELECT KCU.TABLE_SCHEMA, KCU.TABLE_NAME, KCU.COLUMN_NAME
+      FROM INFORMATION_SCHEMA.TABLE_CONSTRAINTS TC
+      JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE KCU
+        ON KCU.CONSTRAINT_SCHEMA = TC.CONSTRAINT_SCHEMA AND KCU.CONSTRAINT_NAME = TC.CONSTRAINT_NAME
+      WHERE TC.CONSTRAINT_TYPE = 'PRIMARY KEY'
+        AND TC.TABLE_SCHEMA LIKE ? AND TC.TABLE_NAME = ANY(?)
+      """;
+
+  private static final String COLUMNS_QUERY = """
+      SELECT TABLE_SCHEMA, TABLE_NAME, COLUMN_NAME, DATA_TYPE, IS_NULLABLE, IS_IDENTITY, REMARKS,
+        CHARACTER_MAXIMUM_LENGTH, NUMERIC_PRECISION, NUMERIC_SCALE, DATETIME_PRECISION, INTERVAL_PRECISION,
+        MAXIMUM_CARDINALITY
+      FROM INFORMATION_SCHEMA.COLUMNS
+      WHERE TABLE_SCHEMA LIKE ? AND TABLE_NAME = ANY(?)
+      ORDER BY TABLE_SCHEMA, TABLE_NAME, ORDINAL_POSITION
+      """;
+
+  private static final String INDEXES_QUERY = """
+      SELECT TABLE_SCHEMA, TABLE_NAME, INDEX_NAME, COLUMN_NAME, IS_UNIQUE
+      FROM INFORMATION_SCHEMA.INDEX_COLUMNS
+      WHERE TABLE_SCHEMA LIKE ? AND TABLE_NAME = ANY(?) AND (IS_UNIQUE OR CAST(? AS BOOLEAN))
+      ORDER BY TABLE_SCHEMA, TABLE_NAME, INDEX_NAME, ORDINAL_POSITION
+      """;
+
+  private static final String IMPORTED_KEYS_QUERY = """
+      SELECT PK.CONSTRAINT_NAME AS PK_NAME, PK.TABLE_NAME AS PKTABLE_NAME, PK.COLUMN_NAME AS PKCOLUMN_NAME,
+        FK.CONSTRAINT_NAME AS FK_NAME, FK.TABLE_NAME AS FKTABLE_NAME, FK.COLUMN_NAME AS FKCOLUMN_NAME
+      FROM INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS RC
+      JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE FK
+        ON FK.CONSTRAINT_SCHEMA = RC.CONSTRAINT_SCHEMA AND FK.CONSTRAINT_NAME = RC.CONSTRAINT_NAME
+      JOIN INFORMATION_SCHEMA.KEY_COLUMN_USAGE PK
+        ON PK.CONSTRAINT_SCHEMA = RC.UNIQUE_CONSTRAINT_SCHEMA AND PK.CONSTRAINT_NAME = RC.UNIQUE_CONSTRAINT_NAME
+        AND PK.ORDINAL_POSITION = FK.POSITION_IN_UNIQUE_CONSTRAINT
+      WHERE FK.TABLE_SCHEMA LIKE ?
+      ORDER BY FK.TABLE_NAME, FK.CONSTRAINT_NAME, FK.ORDINAL_POSITION
+      """;
+
+  private static final String CHECKSUMS_QUERY = """
+      SELECT T.TABLE_NAME, RAWTOHEX(HASH('SHA-256', CONCAT_WS('|', T.REMARKS,
+        (SELECT LISTAGG(CONCAT_WS(':', C.COLUMN_NAME, C.DATA_TYPE, C.IS_NULLABLE, C.IS_IDENTITY,
+            C.CHARACTER_MAXIMUM_LENGTH, C.NUMERIC_PRECISION, C.NUMERIC_SCALE, C.REMARKS), ',')
+            WITHIN GROUP (ORDER BY C.ORDINAL_POSITION)
+          FROM INFORMATION_SCHEMA.COLUMNS C
+          WHERE C.TABLE_SCHEMA = T.TABLE_SCHEMA AND C.TABLE_NAME = T.TABLE_NAME),
+        (SELECT LISTAGG(CONCAT_WS(':', I.INDEX_NAME, I.COLUMN_NAME, I.IS_UNIQUE), ',')
+            WITHIN GROUP (ORDER BY I.INDEX_NAME, I.ORDINAL_POSITION)
+          FROM INFORMATION_SCHEMA.INDEX_COLUMNS I
+          WHERE I.TABLE_SCHEMA = T.TABLE_SCHEMA AND I.TABLE_NAME = T.TABLE_NAME),
+        (SELECT LISTAGG(CONCAT_WS(':', K.CONSTRAINT_NAME, K.COLUMN_NAME, R.UNIQUE_CONSTRAINT_NAME), ',')
+            WITHIN GROUP (ORDER BY K.CONSTRAINT_NAME, K.ORDINAL_POSITION)
+          FROM INFORMATION_SCHEMA.KEY_COLUMN_USAGE K
+          LEFT JOIN INFORMATION_SCHEMA.REFERENTIAL_CONSTRAINTS R
+            ON R.CONSTRAINT_SCHEMA = K.CONSTRAINT_SCHEMA AND R.CONSTRAINT_NAME = K.CONSTRAINT_NAME
+          WHERE K.TABLE_SCHEMA = T.TABLE_SCHEMA AND K.TABLE_NAME = T.TABLE_NAME)))) AS CHECKSUM
+      FROM INFORMATION_SCHEMA.TABLES T
+      WHERE T.TABLE_SCHEMA LIKE ? AND T.TABLE_TYPE IN ('BASE TABLE', 'VIEW')
+      """;
+
+  private static final Map<String, Integer> TYPE_CODES = Map.ofEntries(
+      Map.entry("CHARACTER", Types.CHAR),
+      Map.entry("CHARACTER VARYING", Types.VARCHAR),
+      Map.entry("VARCHAR_IGNORECASE", Types.VARCHAR),
+      Map.entry("CHARACTER LARGE OBJECT", Types.CLOB),
+      Map.entry("BINARY", Types.BINARY),
+      Map.entry("BINARY VARYING", Types.VARBINARY),
+      Map.entry("BINARY LARGE OBJECT", Types.BLOB),
+      Map.entry("BOOLEAN", Types.BOOLEAN),
+      Map.entry("TINYINT", Types.TINYINT),
+      Map.entry("SMALLINT", Types.SMALLINT),
+      Map.entry("INTEGER", Types.INTEGER),
+      Map.entry("BIGINT", Types.BIGINT),
+      Map.entry("NUMERIC", Types.NUMERIC),
+      Map.entry("DECFLOAT", Types.NUMERIC),
+      Map.entry("REAL", Types.REAL),
+      Map.entry("DOUBLE PRECISION", Types.DOUBLE),
+      Map.entry("DATE", Types.DATE),
+      Map.entry("TIME", Types.TIME),
+      Map.entry("TIME WITH TIME ZONE", Types.TIME_WITH_TIMEZONE),
+      Map.entry("TIMESTAMP", Types.TIMESTAMP),
+      Map.entry("TIMESTAMP WITH TIME ZONE", Types.TIMESTAMP_WITH_TIMEZONE),
+      Map.entry("JAVA_OBJECT", Types.JAVA_OBJECT),
+      Map.entry("UUID", Types.BINARY),
+      Map.entry("ARRAY", Types.ARRAY));
+
+  @Override
+  public String getName() {
+    return "h2";
+  }
+
+  @Override
+  public boolean supports(String url) {
+    return url != null && url.startsWith("jdbc:h2:");
+  }
+
+  @Override
+  public List<String> getTableNames(Connection connection, String schemaPattern) throws SQLException {
+    var tableNames = new ArrayList<String>();
+    try (var statement = prepare(connection, TABLES_QUERY, schemaPattern, null);
+        var rs = statement.executeQuery()) {
+      while (rs.next()) {
+        tableNames.add(rs.getString(1));
+      }
+    }
+    return tableNames;
+  }
+
+  /**
+   * Fetches the tables with a query per kind of metadata. Rows are keyed by
+   * schema and name, so that a table name found in several schemas matched by
+   * the pattern is detected and rejected instead of being merged.
+   */
+  @Override
+  public List<Table> getTables(Connection connection, String schemaPattern, Collection<String> tableNames,
+      FetchProfile profile) throws SQLException {
+    // Tables by name, then by schema
+    var tables = new HashMap<String, Map<String, Table>>();
+
+    if (profile.isRemarks()) {
+      try (var statement = prepare(connection, REMARKS_QUERY, schemaPattern, tableNames);
+          var rs = statement.executeQuery()) {
+        while (rs.next()) {
+          getTable(tables, rs.getString(1), rs.getString(2)).setRemarks(rs.getString(3));
+        }
+      }
+    }
+
+    var primaryKeyNames = new HashMap<TableKey, List<String>>();
+    try (var statement = prepare(connection, PRIMARY_KEYS_QUERY, schemaPattern, tableNames);
+        var rs = statement.executeQuery()) {
+      while (rs.next()) {
+        primaryKeyNames.computeIfAbsent(new TableKey(rs.getString(1), rs.getString(2)), k -> new ArrayList<>())
+            .add(rs.getString(3));
+      }
+    }
+
+    try (var statement = prepare(connection, COLUMNS_QUERY, schemaPattern, tableNames);
+        var rs = statement.executeQuery()) {
+      while (rs.next()) {
+        var tableKey = new TableKey(rs.getString(1), rs.getString(2));
+        var columnName = rs.getString(3);
+        var typeName = rs.getString(4);
+        var typeCode = toTypeCode(typeName);
+
+        var column = Column.builder()
+            .name(columnName)
+            .typeCode(typeCode)
+            .typeName(typeName)
+            .nullable("YES".equals(rs.getString(5)))
+            .autoIncrement("YES".equals(rs.getString(6)))
+            .remarks(profile.isRemarks() ? rs.getString(7) : null)
+            .columnSize(getColumnSize(typeName, typeCode, rs))
+            .decimalDigits(getDecimalDigits(rs))
+            .primaryKey(primaryKeyNames.getOrDefault(tableKey, List.of()).contains(columnName))
+            .build();
+
+        getTable(tables, tableKey.schema(), tableKey.name()).getColumns().add(column);
+      }
+    }
+
+    try (var statement = prepare(connection, INDEXES_QUERY, schemaPattern, tableNames)) {
+      statement.setBoolean(3, profile.isNonUniqueIndexes());
+      try (var rs = statement.executeQuery()) {
+        while (rs.next()) {
+          var table = getTable(tables, rs.getString(1), rs.getString(2));
+          var index = Index.builder()
+              .name(rs.getString(3))
+              .columnName(rs.getString(4))
+              .nonUnique(!rs.getBoolean(5))
+              .build();
+
+          table.getIndexes().add(index);
+        }
+      }
+    }
+
+    var result = new ArrayList<Table>(tableNames.size());
+    for (var tableName : new LinkedHashSet<>(tableNames)) {
+      var schemaTables = tables.get(tableName);
+      if (schemaTables == null) {
+        result.add(Table.builder().name(tableName).build());
+      } else if (schemaTables.size() > 1) {
+        throw new SQLException("Table " + tableName + " exists in schemas " + schemaTables.keySet()
+            + " matched by " + schemaPattern + ", set jdbcSettings.schemas to generate each schema apart");
+      } else {
+        result.add(schemaTables.values().iterator().next());
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public List<Key> getImportedKeys(Connection connection, String schemaPattern) throws SQLException {
+    var keys = new ArrayList<Key>();
+    try (var statement = prepare(connection, IMPORTED_KEYS_QUERY, schemaPattern, null);
+        var rs = statement.executeQuery()) {
+      while (rs.next()) {
+        var key = Key.builder()
+            .primaryKeyName(rs.getString(1))
+            .primaryKeyTableName(rs.getString(2))
+            .primaryKeyColumnName(rs.getString(3))
+            .foreignKeyName(rs.getString(4))
+            .foreignKeyTableName(rs.getString(5))
+            .foreignKeyColumnName(rs.getString(6))
+            .build();
+
+        keys.add(key);
+      }
+    }
+    return keys;
+  }
+
+  @Override
+  public Optional<Map<String, String>> getTableChecksums(Connection connection, String schemaPattern)
+      throws SQLException {
+    var checksums = new HashMap<String, String>();
+    try (var statement = prepare(connection, CHECKSUMS_QUERY, schemaPattern, null);
+        var rs = statement.executeQuery()) {
+      while (rs.next()) {
+        checksums.put(rs.getString(1), rs.getString(2));
+      }
+    }
+    return Optional.of(checksums);
+  }
+
+  private PreparedStatement prepare(Connection connection, String query, String schemaPattern,
+      Collection<String> tableNames) throws SQLException {
+    var statement = connection.prepareStatement(query);
+    try {
+      statement.setFetchSize(FETCH_SIZE);
+      statement.setString(1, schemaPattern == null ? "%" : schemaPattern);
+      if (tableNames != null) {
+        statement.setArray(2, connection.createArrayOf("VARCHAR", tableNames.toArray()));
+      }
+      return statement;
+    } catch (SQLException e) {
+      statement.close();
+      throw e;
+    }
+  }
+
+  private static Table getTable(Map<String, Map<String, Table>> tables, String schemaName, String tableName) {
+    return tables.computeIfAbsent(tableName, k -> new TreeMap<>())
+        .computeIfAbsent(schemaName, k -> Table.builder().name(tableName).build());
+  }
+
+  /**
+   * Get the column size the way the H2 JDBC driver does in
+   * DatabaseMetaData#getColumns: the precision of the data type, which
+   * INFORMATION_SCHEMA only exposes for string and numeric types.
+   */
+  private static int getColumnSize(String typeName, int typeCode, ResultSet rs) throws SQLException {
+    if (typeCode == Types.ARRAY) {
+      return rs.getInt(13);
+    }
+    switch (typeName) {
+      case "BOOLEAN":
+        return 1;
+      case "DATE":
+        return 10;
+      case "UUID":
+        return 16;
+      case "TIME":
+        return 8 + getFractionLength(rs);
+      case "TIME WITH TIME ZONE":
+        return 14 + getFractionLength(rs);
+      case "TIMESTAMP":
+        return 19 + getFractionLength(rs);
+      case "TIMESTAMP WITH TIME ZONE":
+        return 25 + getFractionLength(rs);
+      case "INTERVAL":
+        return rs.getInt(12);
+      default:
+        // Character and binary strings, including JAVA_OBJECT, or numbers
+        var precision = rs.getLong(8);
+        if (rs.wasNull()) {
+          precision = rs.getLong(9);
+        }
+        return (int) Math.min(precision, Integer.MAX_VALUE);
+    }
+  }
+
+  /**
+   * Get the length of the fractional seconds of a datetime, with their
+   * separator.
+   */
+  private static int getFractionLength(ResultSet rs) throws SQLException {
+    var scale = rs.getInt(11);
+    return scale > 0 ? scale + 1 : 0;
+  }
+
+  /**
+   * Get the decimal digits the way the H2 JDBC driver does: the scale of
+   * numbers or the fractional seconds precision of datetimes.
+   */
+  private static int getDecimalDigits(ResultSet rs) throws SQLException {
+    var scale = rs.getInt(10);
+    return rs.wasNull() ? rs.getInt(11) : scale;
+  }
+
+  private record TableKey(String schema, String name) {
+  }
+
+  /**
+   * Converts an H2 data type name to its SQL type code, the way the H2 JDBC
+   * driver does in DatabaseMetaData#getColumns.
+   */
+  private static int toTypeCode(String typeName) {
+    if (typeName.endsWith(" ARRAY")) {
+      return Types.ARRAY;
+    }
+    return TYPE_CODES.getOrDefault(typeName, Types.OTHER);
+  }
+}
@@ -9,4 +9,16 @@ public class Index {
   private String name;
   private String columnName;
   private boolean nonUnique;
+
+  public static class IndexBuilder {
+    public IndexBuilder name(String name) {
+      this.name = Names.intern(name);
+      return this;
+    }
+
+    public IndexBuilder columnName(String columnName) {
+      this.columnName = Names.intern(columnName);
+      return this;
+    }
+  }
 }
@@ -0,0 +1,110 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+/**
+ * Wraps a connection to account for its metadata round trips in
+ * {@link JdbcStatistics}.
+ * <p>
+ * Every {@link DatabaseMetaData} method returning a result set and every
+ * prepared statement query is counted as a call. Catalog calls are attributed
+ * to the table name pattern they were made for.
+ */
+public final class InstrumentedConnection {
+
+  /**
+   * The method name under which prepared statement queries are recorded.
+   */
+  public static final String EXECUTE_QUERY = "executeQuery";
+
+  private InstrumentedConnection() {
+  }
+
+  /**
+   * Wraps a connection.
+   *
+   * @param connection The connection
+   * @param statistics The statistics to record to
+   * @return The instrumented connection
+   */
+  public static Connection wrap(Connection connection, JdbcStatistics statistics) {
+    return proxy(Connection.class, (proxy, method, args) -> {
+      var result = invoke(connection, method, args);
+      if (result instanceof DatabaseMetaData metaData) {
+        return wrapMetaData(metaData, statistics);
+      }
+      if (result instanceof PreparedStatement statement) {
+        return wrapStatement(statement, statistics);
+      }
+      return result;
+    });
+  }
+
+  private static DatabaseMetaData wrapMetaData(DatabaseMetaData metaData, JdbcStatistics statistics) {
+    return proxy(DatabaseMetaData.class, (proxy, method, args) -> {
+      if (!ResultSet.class.equals(method.getReturnType())) {
+        return invoke(metaData, method, args);
+      }
+      var tableName = args != null && args.length > 2 && args[2] instanceof String o ? o : null;
+      return record(statistics, method.getName(), tableName, () -> (ResultSet) invoke(metaData, method, args));
+    });
+  }
+
+  private static PreparedStatement wrapStatement(PreparedStatement statement, JdbcStatistics statistics) {
+    return proxy(PreparedStatement.class, (proxy, method, args) -> {
+      if (!method.getName().equals("executeQuery") || args != null) {
+        return invoke(statement, method, args);
+      }
+      return record(statistics, EXECUTE_QUERY, null, () -> (ResultSet) invoke(statement, method, args));
+    });
+  }
+
+  private static ResultSet record(JdbcStatistics statistics, String method, String tableName, Call call)
+      throws Throwable {
+    statistics.recordCall(method, tableName);
+    var start = System.nanoTime();
+    ResultSet resultSet;
+    try {
+      resultSet = call.execute();
+    } catch (Throwable e) {
+      statistics.record(method, tableName, 0, System.nanoTime() - start);
+      throw e;
+    }
+    statistics.record(method, tableName, 0, System.nanoTime() - start);
+
+    return proxy(ResultSet.class, (proxy, resultSetMethod, args) -> {
+      if (!resultSetMethod.getName().equals("next")) {
+        return invoke(resultSet, resultSetMethod, args);
+      }
+      var nextStart = System.nanoTime();
+      var hasNext = (boolean) invoke(resultSet, resultSetMethod, args);
+      statistics.record(method, tableName, hasNext ? 1 : 0, System.nanoTime() - nextStart);
+      return hasNext;
+    });
+  }
+
+  @FunctionalInterface
+  private interface Call {
+    ResultSet execute() throws Throwable;
+  }
+
+  private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+    try {
+      return method.invoke(target, args);
+    } catch (InvocationTargetException e) {
+      throw e.getCause();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+    return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler);
+  }
+}
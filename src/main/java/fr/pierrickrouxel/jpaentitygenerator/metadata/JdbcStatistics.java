@@ -0,0 +1,133 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Round-trip accounting of JDBC metadata calls.
+ * <p>
+ * Calls, rows and elapsed time are accumulated per method and per table by
+ * {@link InstrumentedConnection}. The elapsed time of a call covers the call
+ * itself and the iteration of its result set.
+ */
+public class JdbcStatistics {
+
+  private final Map<String, Counter> methods = new ConcurrentHashMap<>();
+  private final Map<String, Counter> tables = new ConcurrentHashMap<>();
+
+  /**
+   * Records a call.
+   *
+   * @param method    The method name
+   * @param tableName The table the call was made for, `null` for schema-wide
+   *                  calls
+   */
+  void recordCall(String method, String tableName) {
+    methods.computeIfAbsent(method, k -> new Counter()).calls.increment();
+    if (tableName != null) {
+      tables.computeIfAbsent(tableName, k -> new Counter()).calls.increment();
+    }
+  }
+
+  /**
+   * Records rows read and time spent for a call.
+   *
+   * @param method    The method name
+   * @param tableName The table the call was made for, `null` for schema-wide
+   *                  calls
+   * @param rows      The number of rows read
+   * @param nanos     The elapsed time in nanoseconds
+   */
+  void record(String method, String tableName, long rows, long nanos) {
+    methods.computeIfAbsent(method, k -> new Counter()).add(rows, nanos);
+    if (tableName != null) {
+      tables.computeIfAbsent(tableName, k -> new Counter()).add(rows, nanos);
+    }
+  }
+
+  /**
+   * Get the statistics per method.
+   *
+   * @return The statistics by method name
+   */
+  public Map<String, Counter> getMethods() {
+    return Collections.unmodifiableMap(methods);
+  }
+
+  /**
+   * Get the statistics per table.
+   *
+   * @return The statistics by table name
+   */
+  public Map<String, Counter> getTables() {
+    return Collections.unmodifiableMap(tables);
+  }
+
+  /**
+   * Get the statistics of a method.
+   *
+   * @param method The method name
+   * @return The statistics, empty if the method was never called
+   */
+  public Counter getMethod(String method) {
+    return methods.getOrDefault(method, new Counter());
+  }
+
+  /**
+   * Get the total number of calls, all methods included.
+   *
+   * @return The number of calls
+   */
+  public long getTotalCalls() {
+    return methods.values().stream().mapToLong(Counter::getCalls).sum();
+  }
+
+  public void reset() {
+    methods.clear();
+    tables.clear();
+  }
+
+  @Override
+  public String toString() {
+    return methods.entrySet().stream()
+        .sorted(Map.Entry.comparingByValue(Comparator.comparingLong(Counter::getNanos).reversed()))
+        .map(o -> o.getKey() + ": " + o.getValue())
+        .collect(Collectors.joining(System.lineSeparator()));
+  }
+
+  /**
+   * Statistics of a method or a table.
+   */
+  public static class Counter {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder nanos = new LongAdder();
+
+    private void add(long rows, long nanos) {
+      this.rows.add(rows);
+      this.nanos.add(nanos);
+    }
+
+    public long getCalls() {
+      return calls.sum();
+    }
+
+    public long getRows() {
+      return rows.sum();
+    }
+
+    public long getNanos() {
+      return nanos.sum();
+    }
+
+    @Override
+    public String toString() {
+      return getCalls() + " calls, " + getRows() + " rows, " + TimeUnit.NANOSECONDS.toMillis(getNanos()) + " ms";
+    }
+  }
+}
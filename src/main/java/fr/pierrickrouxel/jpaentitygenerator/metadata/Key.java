@@ -12,4 +12,36 @@ public class Key {
   private String foreignKeyName;
   private String foreignKeyTableName;
   private String foreignKeyColumnName;
+
+  public static class KeyBuilder {
+    public KeyBuilder primaryKeyName(String primaryKeyName) {
+      this.primaryKeyName = Names.intern(primaryKeyName);
+      return this;
+    }
+
+    public KeyBuilder primaryKeyTableName(String primaryKeyTableName) {
+      this.primaryKeyTableName = Names.intern(primaryKeyTableName);
+      return this;
+    }
+
+    public KeyBuilder primaryKeyColumnName(String primaryKeyColumnName) {
+      this.primaryKeyColumnName = Names.intern(primaryKeyColumnName);
+      return this;
+    }
+
+    public KeyBuilder foreignKeyName(String foreignKeyName) {
+      this.foreignKeyName = Names.intern(foreignKeyName);
+      return this;
+    }
+
+    public KeyBuilder foreignKeyTableName(String foreignKeyTableName) {
+      this.foreignKeyTableName = Names.intern(foreignKeyTableName);
+      return this;
+    }
+
+    public KeyBuilder foreignKeyColumnName(String foreignKeyColumnName) {
+      this.foreignKeyColumnName = Names.intern(foreignKeyColumnName);
+      return this;
+    }
+  }
 }
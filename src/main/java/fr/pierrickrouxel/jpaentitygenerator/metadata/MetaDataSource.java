@@ -0,0 +1,88 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Source of table metadata used to generate entities.
+ */
+public interface MetaDataSource extends AutoCloseable {
+
+  /**
+   * Get the names of all tables.
+   *
+   * @return The table names
+   * @throws SQLException
+   */
+  List<String> getTableNames() throws SQLException;
+
+  /**
+   * Get the metadata of a table.
+   *
+   * @param tableName The table name
+   * @return The table
+   * @throws SQLException
+   */
+  Table getTable(String tableName) throws SQLException;
+
+  /**
+   * Streams the metadata of tables. Each table is fetched only when the stream
+   * reaches it, so it can be garbage collected once consumed.
+   * <p>
+   * Failures are thrown as {@link UncheckedSQLException} while the stream is
+   * consumed.
+   *
+   * @param tableNames The table names
+   * @return The tables, in the order of the given names
+   */
+  default Stream<Table> streamTables(List<String> tableNames) {
+    return tableNames.stream().map(o -> {
+      try {
+        return getTable(o);
+      } catch (SQLException e) {
+        throw new UncheckedSQLException(e);
+      }
+    });
+  }
+
+  /**
+   * Get the source of the tables of a single schema. Tables of the returned
+   * source have their schema set.
+   * <p>
+   * Closing the returned source does not close this source.
+   *
+   * @param schema The schema name
+   * @return The schema source
+   * @throws UnsupportedOperationException If the source does not know the
+   *                                       schemas of its tables
+   */
+  default MetaDataSource forSchema(String schema) {
+    throw new UnsupportedOperationException(getClass().getSimpleName() + " does not support schemas");
+  }
+
+  /**
+   * Get the foreign key relationships of all tables.
+   *
+   * @return The foreign key graph
+   * @throws SQLException
+   */
+  ForeignKeyGraph getForeignKeyGraph() throws SQLException;
+
+  /**
+   * Get a cheap checksum of the definition of each table, to detect changed
+   * tables without fetching their metadata.
+   *
+   * @return The checksums by table name, empty if the source does not support
+   *         checksums
+   * @throws SQLException
+   */
+  default Optional<Map<String, String>> getTableChecksums() throws SQLException {
+    return Optional.empty();
+  }
+
+  @Override
+  void close();
+}
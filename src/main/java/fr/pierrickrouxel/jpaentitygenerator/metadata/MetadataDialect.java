@@ -0,0 +1,121 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceLoader;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+
+/**
+ * Database specific metadata queries replacing the generic JDBC
+ * {@link java.sql.DatabaseMetaData} calls of {@link TableMetaDataFetcher}.
+ * <p>
+ * Implementations are discovered with {@link ServiceLoader}. When no dialect
+ * matches the JDBC URL, the generic JDBC metadata calls are used.
+ */
+public interface MetadataDialect {
+
+  /**
+   * The dialect name forcing the generic JDBC metadata calls.
+   */
+  String JDBC = "jdbc";
+
+  /**
+   * Returns the name used to select the dialect in the JDBC settings.
+   */
+  String getName();
+
+  /**
+   * Predicates if the dialect handles a given JDBC URL.
+   *
+   * @param url The JDBC URL
+   * @return `true` if the dialect handles the URL
+   */
+  boolean supports(String url);
+
+  /**
+   * Get the names of the tables and views of the schemas.
+   *
+   * @param connection    The connection
+   * @param schemaPattern The schema pattern
+   * @return The table names
+   * @throws SQLException
+   */
+  List<String> getTableNames(Connection connection, String schemaPattern) throws SQLException;
+
+  /**
+   * Get the tables with their remarks, columns and indexes. Keys are not
+   * fetched, they are resolved from {@link #getImportedKeys}.
+   * <p>
+   * Tables are identified by name only: a table name found in several schemas
+   * matched by the pattern must be rejected rather than merged. Tables that do
+   * not exist may be left out.
+   *
+   * @param connection    The connection
+   * @param schemaPattern The schema pattern
+   * @param tableNames    The table names
+   * @param profile       The metadata to fetch
+   * @return The tables, in the order of the given names
+   * @throws SQLException If a table name is found in several schemas
+   */
+  List<Table> getTables(Connection connection, String schemaPattern, Collection<String> tableNames,
+      FetchProfile profile) throws SQLException;
+
+  /**
+   * Get the imported keys of all tables of the schemas.
+   *
+   * @param connection    The connection
+   * @param schemaPattern The schema pattern
+   * @return The imported keys
+   * @throws SQLException
+   */
+  List<Key> getImportedKeys(Connection connection, String schemaPattern) throws SQLException;
+
+  /**
+   * Get a checksum of the catalog definition of each table, changing whenever
+   * its remarks, columns, constraints or indexes change. It is used to detect
+   * changed tables without fetching their metadata, for instance to tell
+   * whether the generation task is up to date, so it must be cheaper than
+   * {@link #getTables}: a single catalog query, returning a hash of the
+   * definitions or the last DDL time of each table when the catalog records
+   * it. Without checksums, the tables are fetched by batches.
+   *
+   * @param connection    The connection
+   * @param schemaPattern The schema pattern
+   * @return The checksums by table name, empty if the dialect does not support
+   *         checksums
+   * @throws SQLException
+   */
+  default Optional<Map<String, String>> getTableChecksums(Connection connection, String schemaPattern)
+      throws SQLException {
+    return Optional.empty();
+  }
+
+  /**
+   * Find the dialect selected by the JDBC settings, or matching the JDBC URL
+   * when no dialect is selected.
+   *
+   * @param jdbcSettings The JDBC settings
+   * @return The dialect, empty to use the generic JDBC metadata calls
+   */
+  static Optional<MetadataDialect> find(JdbcSettings jdbcSettings) {
+    var name = jdbcSettings.getMetadataDialect();
+    if (JDBC.equalsIgnoreCase(name)) {
+      return Optional.empty();
+    }
+
+    var dialect = ServiceLoader.load(MetadataDialect.class, MetadataDialect.class.getClassLoader()).stream()
+        .map(ServiceLoader.Provider::get)
+        .filter(o -> name == null ? o.supports(jdbcSettings.getUrl()) : o.getName().equalsIgnoreCase(name))
+        .findFirst();
+
+    if (name != null && dialect.isEmpty()) {
+      throw new IllegalArgumentException("Unknown metadata dialect " + name);
+    }
+    return dialect;
+  }
+}
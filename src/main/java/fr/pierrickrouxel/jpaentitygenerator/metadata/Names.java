@@ -0,0 +1,18 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+/**
+ * Canonicalizes catalog names.
+ * <p>
+ * Table, column, type and constraint names repeat on every metadata row, for
+ * example in each key referencing a table. Interning them keeps a single
+ * instance of each name on the heap whatever the number of rows.
+ */
+final class Names {
+
+  private Names() {
+  }
+
+  static String intern(String name) {
+    return name == null ? null : name.intern();
+  }
+}
@@ -0,0 +1,179 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Caches the metadata of schemas in memory, so that generation runs against
+ * the same database share their catalog calls.
+ * <p>
+ * Schemas are keyed by their JDBC settings, schema and fetch profile. The
+ * table names, foreign keys and checksums are fetched when a schema is loaded.
+ * Tables are fetched on first use, by the fetcher of the run using them, and
+ * kept for the next runs. Loading a schema only blocks the runs on the same
+ * schema.
+ * <p>
+ * A cached schema is revalidated with the catalog checksums of its tables when
+ * the metadata dialect supports them, otherwise it is reused until its time to
+ * live expires. Cached tables are shared between runs and must not be
+ * modified.
+ */
+@Slf4j
+public class SchemaCache {
+
+  private final Map<Key, Slot> schemas = new ConcurrentHashMap<>();
+
+  /**
+   * Get the metadata of the schema of a fetcher, loaded with the fetcher when
+   * it is not cached or no longer valid.
+   * <p>
+   * Closing the returned source does not close the fetcher.
+   *
+   * @param fetcher The fetcher of the schema, used to fetch the missing tables
+   * @param ttl     The time after which a schema without checksums is reloaded
+   * @return The metadata source
+   * @throws SQLException
+   */
+  public MetaDataSource get(TableMetaDataFetcher fetcher, Duration ttl) throws SQLException {
+    var key = Key.of(fetcher);
+    // The catalog calls are made under the lock of the key, not of the map
+    var schema = schemas.computeIfAbsent(key, k -> new Slot()).get(key, fetcher, ttl);
+    return new CachedSchemaSource(schema, fetcher);
+  }
+
+  /**
+   * Get the number of cached schemas.
+   *
+   * @return The number of schemas
+   */
+  public int size() {
+    return schemas.size();
+  }
+
+  private record Key(JdbcSettings jdbcSettings, String schema, FetchProfile profile) {
+
+    static Key of(TableMetaDataFetcher fetcher) {
+      // The schemas of a run are cached separately, by their fetchers
+      var jdbcSettings = fetcher.getJdbcSettings().toBuilder().schemas(List.of()).build();
+      return new Key(jdbcSettings, fetcher.getSchema(), fetcher.getProfile());
+    }
+  }
+
+  /**
+   * Holds the schema of a key. Concurrent runs on the same key wait for a
+   * single load, runs on other keys are not blocked.
+   */
+  private static class Slot {
+    private CachedSchema schema;
+
+    synchronized CachedSchema get(Key key, TableMetaDataFetcher fetcher, Duration ttl) throws SQLException {
+      if (schema == null || !schema.isValid(fetcher, ttl)) {
+        log.debug("Loading the metadata of schema {} of {}", key.schema(), key.jdbcSettings().getUrl());
+        schema = CachedSchema.load(fetcher);
+      }
+      return schema;
+    }
+  }
+
+  private static class CachedSchema {
+    private final List<String> tableNames;
+    private final ForeignKeyGraph foreignKeyGraph;
+    private final Optional<Map<String, String>> checksums;
+    private final long loadedAt = System.nanoTime();
+    private final Map<String, Table> tables = new ConcurrentHashMap<>();
+
+    private CachedSchema(List<String> tableNames, ForeignKeyGraph foreignKeyGraph,
+        Optional<Map<String, String>> checksums) {
+      this.tableNames = List.copyOf(tableNames);
+      this.foreignKeyGraph = foreignKeyGraph;
+      this.checksums = checksums;
+    }
+
+    static CachedSchema load(TableMetaDataFetcher fetcher) throws SQLException {
+      return new CachedSchema(fetcher.getTableNames(), fetcher.getForeignKeyGraph(), fetcher.getTableChecksums());
+    }
+
+    boolean isValid(TableMetaDataFetcher fetcher, Duration ttl) throws SQLException {
+      if (checksums.isPresent()) {
+        return checksums.equals(fetcher.getTableChecksums());
+      }
+      return System.nanoTime() - loadedAt < ttl.toNanos();
+    }
+  }
+
+  /**
+   * Serves a cached schema, fetching the tables that are not cached yet.
+   */
+  private static class CachedSchemaSource implements MetaDataSource {
+    private final CachedSchema schema;
+    private final TableMetaDataFetcher fetcher;
+
+    CachedSchemaSource(CachedSchema schema, TableMetaDataFetcher fetcher) {
+      this.schema = schema;
+      this.fetcher = fetcher;
+    }
+
+    @Override
+    public List<String> getTableNames() {
+      return new ArrayList<>(schema.tableNames);
+    }
+
+    @Override
+    public Table getTable(String tableName) throws SQLException {
+      var table = schema.tables.get(tableName);
+      return table != null ? table : cache(tableName, fetcher.getTable(tableName));
+    }
+
+    /**
+     * Streams the metadata of tables. The tables that are not cached are
+     * streamed by the fetcher and cached as the stream reaches them.
+     */
+    @Override
+    public Stream<Table> streamTables(List<String> tableNames) {
+      var missingTableNames = tableNames.stream()
+          .filter(o -> !schema.tables.containsKey(o))
+          .toList();
+      if (missingTableNames.isEmpty()) {
+        return tableNames.stream().map(schema.tables::get);
+      }
+
+      // The missing tables come in the order of the given names
+      var missing = new HashSet<>(missingTableNames);
+      var missingTables = fetcher.streamTables(missingTableNames);
+      var iterator = missingTables.iterator();
+      return tableNames.stream()
+          .map(o -> missing.contains(o) ? cache(o, iterator.next()) : schema.tables.get(o))
+          .onClose(missingTables::close);
+    }
+
+    private Table cache(String tableName, Table table) {
+      var cached = schema.tables.putIfAbsent(tableName, table);
+      return cached != null ? cached : table;
+    }
+
+    @Override
+    public ForeignKeyGraph getForeignKeyGraph() {
+      return schema.foreignKeyGraph;
+    }
+
+    @Override
+    public Optional<Map<String, String>> getTableChecksums() {
+      return schema.checksums;
+    }
+
+    @Override
+    public void close() {
+      // The fetcher is closed by its owner
+    }
+  }
+}
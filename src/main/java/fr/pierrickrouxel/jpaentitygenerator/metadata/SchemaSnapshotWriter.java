@@ -0,0 +1,246 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes table metadata to a compact binary snapshot read by
+ * {@link SnapshotMetaDataSource}.
+ * <p>
+ * All names are stored once in a string table and referenced by index. The
+ * file layout is:
+ * <ul>
+ * <li>header: magic, version, string count, table count, key count</li>
+ * <li>string offsets: one int per string</li>
+ * <li>table directory: schema index, name index and record offset per
+ * table</li>
+ * <li>keys: the schema index of the foreign key table and six string indexes
+ * per imported key</li>
+ * <li>table records: remarks, columns and indexes</li>
+ * <li>strings: UTF-8 length and bytes per string</li>
+ * </ul>
+ */
+public class SchemaSnapshotWriter {
+
+  static final int MAGIC = 0x4a454753;
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 5 * Integer.BYTES;
+  static final int DIRECTORY_ENTRY_SIZE = 3 * Integer.BYTES;
+  static final int KEY_SIZE = 7 * Integer.BYTES;
+  static final int COLUMN_SIZE = 6 * Integer.BYTES + 1;
+  static final int INDEX_SIZE = 2 * Integer.BYTES + 1;
+
+  static final int NULLABLE = 1;
+  static final int PRIMARY_KEY = 1 << 1;
+  static final int AUTO_INCREMENT = 1 << 2;
+
+  private final Map<String, Integer> stringIndexes = new HashMap<>();
+  private final List<byte[]> strings = new ArrayList<>();
+
+  private SchemaSnapshotWriter() {
+  }
+
+  /**
+   * Writes a snapshot of the tables of a single schema.
+   *
+   * @param path            The snapshot file path
+   * @param tables          The tables
+   * @param foreignKeyGraph The foreign key relationships
+   * @throws IOException
+   */
+  public static void write(Path path, List<Table> tables, ForeignKeyGraph foreignKeyGraph) throws IOException {
+    var foreignKeyGraphs = new HashMap<String, ForeignKeyGraph>();
+    foreignKeyGraphs.put(tables.isEmpty() ? null : tables.getFirst().getSchema(), foreignKeyGraph);
+    write(path, tables, foreignKeyGraphs);
+  }
+
+  /**
+   * Writes a snapshot of the tables of several schemas. Tables are stored with
+   * their schema, so that the snapshot can be read back schema by schema.
+   *
+   * @param path             The snapshot file path
+   * @param tables           The tables, with their schema
+   * @param foreignKeyGraphs The foreign key relationships by schema
+   * @throws IOException
+   */
+  public static void write(Path path, List<Table> tables, Map<String, ForeignKeyGraph> foreignKeyGraphs)
+      throws IOException {
+    var keys = new ArrayList<SchemaKey>();
+    foreignKeyGraphs.forEach((schema, graph) -> graph.getKeys().forEach(o -> keys.add(new SchemaKey(schema, o))));
+    new SchemaSnapshotWriter().writeSnapshot(path, tables, keys);
+  }
+
+  /**
+   * Writes a snapshot of all tables of a metadata source.
+   *
+   * @param path           The snapshot file path
+   * @param metaDataSource The metadata source
+   * @throws IOException
+   * @throws SQLException
+   */
+  public static void write(Path path, MetaDataSource metaDataSource) throws IOException, SQLException {
+    var tables = new ArrayList<Table>();
+    for (var tableName : metaDataSource.getTableNames()) {
+      tables.add(metaDataSource.getTable(tableName));
+    }
+    write(path, tables, metaDataSource.getForeignKeyGraph());
+  }
+
+  /**
+   * Writes a snapshot of all tables of several schemas of a metadata source.
+   *
+   * @param path           The snapshot file path
+   * @param metaDataSource The metadata source
+   * @param schemas        The schema names, empty to write all tables of the
+   *                       source
+   * @throws IOException
+   * @throws SQLException
+   */
+  public static void write(Path path, MetaDataSource metaDataSource, List<String> schemas)
+      throws IOException, SQLException {
+    if (schemas.isEmpty()) {
+      write(path, metaDataSource);
+      return;
+    }
+
+    var tables = new ArrayList<Table>();
+    var foreignKeyGraphs = new HashMap<String, ForeignKeyGraph>();
+    for (var schema : schemas) {
+      try (var schemaSource = metaDataSource.forSchema(schema)) {
+        for (var tableName : schemaSource.getTableNames()) {
+          tables.add(schemaSource.getTable(tableName));
+        }
+        foreignKeyGraphs.put(schema, schemaSource.getForeignKeyGraph());
+      }
+    }
+    write(path, tables, foreignKeyGraphs);
+  }
+
+  private void writeSnapshot(Path path, List<Table> tables, List<SchemaKey> keys) throws IOException {
+    tables.forEach(this::internTable);
+    keys.forEach(this::internKey);
+
+    var recordsOffset = HEADER_SIZE + strings.size() * Integer.BYTES + tables.size() * DIRECTORY_ENTRY_SIZE
+        + keys.size() * KEY_SIZE;
+    var stringsOffset = recordsOffset + tables.stream().mapToInt(SchemaSnapshotWriter::getRecordSize).sum();
+
+    try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(strings.size());
+      out.writeInt(tables.size());
+      out.writeInt(keys.size());
+
+      var stringOffset = stringsOffset;
+      for (var string : strings) {
+        out.writeInt(stringOffset);
+        stringOffset += Integer.BYTES + string.length;
+      }
+
+      var recordOffset = recordsOffset;
+      for (var table : tables) {
+        out.writeInt(stringIndex(table.getSchema()));
+        out.writeInt(stringIndex(table.getName()));
+        out.writeInt(recordOffset);
+        recordOffset += getRecordSize(table);
+      }
+
+      for (var schemaKey : keys) {
+        var key = schemaKey.key();
+        out.writeInt(stringIndex(schemaKey.schema()));
+        out.writeInt(stringIndex(key.getPrimaryKeyName()));
+        out.writeInt(stringIndex(key.getPrimaryKeyTableName()));
+        out.writeInt(stringIndex(key.getPrimaryKeyColumnName()));
+        out.writeInt(stringIndex(key.getForeignKeyName()));
+        out.writeInt(stringIndex(key.getForeignKeyTableName()));
+        out.writeInt(stringIndex(key.getForeignKeyColumnName()));
+      }
+
+      for (var table : tables) {
+        writeTable(out, table);
+      }
+
+      for (var string : strings) {
+        out.writeInt(string.length);
+        out.write(string);
+      }
+    }
+  }
+
+  private void writeTable(DataOutputStream out, Table table) throws IOException {
+    out.writeInt(stringIndex(table.getRemarks()));
+
+    out.writeInt(table.getColumns().size());
+    for (var column : table.getColumns()) {
+      out.writeInt(stringIndex(column.getName()));
+      out.writeInt(column.getTypeCode());
+      out.writeInt(stringIndex(column.getTypeName()));
+      out.writeInt(column.getColumnSize());
+      out.writeInt(column.getDecimalDigits());
+      out.writeInt(stringIndex(column.getRemarks()));
+      out.writeByte((column.isNullable() ? NULLABLE : 0)
+          | (column.isPrimaryKey() ? PRIMARY_KEY : 0)
+          | (column.isAutoIncrement() ? AUTO_INCREMENT : 0));
+    }
+
+    out.writeInt(table.getIndexes().size());
+    for (var index : table.getIndexes()) {
+      out.writeInt(stringIndex(index.getName()));
+      out.writeInt(stringIndex(index.getColumnName()));
+      out.writeByte(index.isNonUnique() ? 1 : 0);
+    }
+  }
+
+  private static int getRecordSize(Table table) {
+    return 3 * Integer.BYTES + table.getColumns().size() * COLUMN_SIZE + table.getIndexes().size() * INDEX_SIZE;
+  }
+
+  private void internTable(Table table) {
+    intern(table.getSchema());
+    intern(table.getName());
+    intern(table.getRemarks());
+    for (var column : table.getColumns()) {
+      intern(column.getName());
+      intern(column.getTypeName());
+      intern(column.getRemarks());
+    }
+    for (var index : table.getIndexes()) {
+      intern(index.getName());
+      intern(index.getColumnName());
+    }
+  }
+
+  private void internKey(SchemaKey schemaKey) {
+    var key = schemaKey.key();
+    intern(schemaKey.schema());
+    intern(key.getPrimaryKeyName());
+    intern(key.getPrimaryKeyTableName());
+    intern(key.getPrimaryKeyColumnName());
+    intern(key.getForeignKeyName());
+    intern(key.getForeignKeyTableName());
+    intern(key.getForeignKeyColumnName());
+  }
+
+  private void intern(String value) {
+    if (value != null && !stringIndexes.containsKey(value)) {
+      stringIndexes.put(value, strings.size());
+      strings.add(value.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  private int stringIndex(String value) {
+    return value == null ? -1 : stringIndexes.get(value);
+  }
+
+  private record SchemaKey(String schema, Key key) {
+  }
+}
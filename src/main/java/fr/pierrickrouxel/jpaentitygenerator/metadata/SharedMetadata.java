@@ -0,0 +1,79 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+
+/**
+ * JDBC connections and schema metadata shared by the generation runs of a
+ * build, such as the runs of several Gradle tasks against the same database.
+ * <p>
+ * A connection pool is opened per database and closed with the shared
+ * metadata. Schemas are cached in a {@link SchemaCache}, which may outlive it:
+ * schemas loaded since the shared metadata was created are always reused, older
+ * ones are reused within the time to live or while their checksums did not
+ * change.
+ */
+public class SharedMetadata implements AutoCloseable {
+
+  private final SchemaCache schemaCache;
+  private final Duration ttl;
+  private final long createdAt = System.nanoTime();
+  private final Map<JdbcSettings, ConnectionPool> connectionPools = new ConcurrentHashMap<>();
+
+  /**
+   * Creates shared metadata.
+   *
+   * @param schemaCache The schema cache
+   * @param ttl         The time after which a schema without checksums loaded
+   *                    before the shared metadata is reloaded
+   */
+  public SharedMetadata(SchemaCache schemaCache, Duration ttl) {
+    this.schemaCache = schemaCache;
+    this.ttl = ttl;
+  }
+
+  /**
+   * Opens a fetcher borrowing the shared connections of its database.
+   *
+   * @param jdbcSettings The JDBC settings
+   * @param profile      The metadata to fetch
+   * @return The fetcher, whose closing does not close the connections
+   */
+  public TableMetaDataFetcher openFetcher(JdbcSettings jdbcSettings, FetchProfile profile) {
+    // The connections do not depend on the schemas
+    var poolSettings = jdbcSettings.toBuilder()
+        .schemaPattern(null)
+        .schemas(List.of())
+        .metadataDialect(null)
+        .build();
+    var connectionPool = connectionPools.computeIfAbsent(poolSettings, ConnectionPool::new);
+    return new TableMetaDataFetcher(connectionPool, jdbcSettings, profile);
+  }
+
+  /**
+   * Get the cached metadata of the schema of a source.
+   *
+   * @param metaDataSource The source
+   * @return The cached metadata when the source is a fetcher, the source itself
+   *         otherwise
+   * @throws SQLException
+   */
+  public MetaDataSource cache(MetaDataSource metaDataSource) throws SQLException {
+    if (!(metaDataSource instanceof TableMetaDataFetcher fetcher)) {
+      return metaDataSource;
+    }
+    var age = Duration.ofNanos(System.nanoTime() - createdAt);
+    return schemaCache.get(fetcher, age.compareTo(ttl) > 0 ? age : ttl);
+  }
+
+  @Override
+  public void close() {
+    connectionPools.values().forEach(ConnectionPool::close);
+    connectionPools.clear();
+  }
+}
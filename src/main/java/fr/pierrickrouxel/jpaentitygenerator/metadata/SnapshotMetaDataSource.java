@@ -0,0 +1,189 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.AUTO_INCREMENT;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.COLUMN_SIZE;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.DIRECTORY_ENTRY_SIZE;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.HEADER_SIZE;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.INDEX_SIZE;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.KEY_SIZE;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.MAGIC;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.NULLABLE;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.PRIMARY_KEY;
+import static fr.pierrickrouxel.jpaentitygenerator.metadata.SchemaSnapshotWriter.VERSION;
+
+/**
+ * Serves table metadata from a snapshot written by
+ * {@link SchemaSnapshotWriter}, without database.
+ * <p>
+ * The snapshot is memory-mapped and tables are decoded on demand, only the
+ * table directory is loaded on the heap. A snapshot of several schemas serves
+ * the tables of all schemas, or of one schema through {@link #forSchema}.
+ */
+public class SnapshotMetaDataSource implements MetaDataSource {
+
+  private final ByteBuffer buffer;
+  private final int stringCount;
+  private final int keyCount;
+  private final int keysOffset;
+  private final String schema;
+  private final Map<String, TableEntry> entries = new HashMap<>();
+  private final List<String> tableNames = new ArrayList<>();
+  private ForeignKeyGraph foreignKeyGraph;
+
+  private SnapshotMetaDataSource(ByteBuffer buffer, String schema) {
+    this.buffer = buffer;
+    this.schema = schema;
+
+    stringCount = buffer.getInt(2 * Integer.BYTES);
+    var tableCount = buffer.getInt(3 * Integer.BYTES);
+    keyCount = buffer.getInt(4 * Integer.BYTES);
+
+    var directoryOffset = HEADER_SIZE + stringCount * Integer.BYTES;
+    for (var i = 0; i < tableCount; i++) {
+      var entryOffset = directoryOffset + i * DIRECTORY_ENTRY_SIZE;
+      var tableSchema = getString(buffer.getInt(entryOffset));
+      if (isInSchema(tableSchema)) {
+        var tableName = getString(buffer.getInt(entryOffset + Integer.BYTES));
+        tableNames.add(tableName);
+        entries.putIfAbsent(tableName, new TableEntry(tableSchema, buffer.getInt(entryOffset + 2 * Integer.BYTES)));
+      }
+    }
+    keysOffset = directoryOffset + tableCount * DIRECTORY_ENTRY_SIZE;
+  }
+
+  /**
+   * Opens a snapshot.
+   *
+   * @param path The snapshot file path
+   * @return The metadata source
+   * @throws IOException
+   */
+  public static SnapshotMetaDataSource open(Path path) throws IOException {
+    try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.getInt(0) != MAGIC || buffer.getInt(Integer.BYTES) != VERSION) {
+        throw new IOException("Unsupported schema snapshot format");
+      }
+      return new SnapshotMetaDataSource(buffer, null);
+    }
+  }
+
+  /**
+   * Get the tables of a single schema of the snapshot, sharing its mapping.
+   *
+   * @param schema The schema name
+   * @return The schema source
+   */
+  @Override
+  public SnapshotMetaDataSource forSchema(String schema) {
+    return new SnapshotMetaDataSource(buffer, schema);
+  }
+
+  @Override
+  public List<String> getTableNames() {
+    return new ArrayList<>(tableNames);
+  }
+
+  @Override
+  public Table getTable(String tableName) {
+    var entry = entries.get(tableName);
+    if (entry == null) {
+      return Table.builder().name(tableName).schema(schema).build();
+    }
+
+    var table = Table.builder().name(tableName).schema(entry.schema()).build();
+    var offset = entry.offset();
+    table.setRemarks(getString(buffer.getInt(offset)));
+    offset += Integer.BYTES;
+
+    var columnCount = buffer.getInt(offset);
+    offset += Integer.BYTES;
+    for (var i = 0; i < columnCount; i++, offset += COLUMN_SIZE) {
+      var flags = buffer.get(offset + 6 * Integer.BYTES);
+      var column = Column.builder()
+          .name(getString(buffer.getInt(offset)))
+          .typeCode(buffer.getInt(offset + Integer.BYTES))
+          .typeName(getString(buffer.getInt(offset + 2 * Integer.BYTES)))
+          .columnSize(buffer.getInt(offset + 3 * Integer.BYTES))
+          .decimalDigits(buffer.getInt(offset + 4 * Integer.BYTES))
+          .remarks(getString(buffer.getInt(offset + 5 * Integer.BYTES)))
+          .nullable((flags & NULLABLE) != 0)
+          .primaryKey((flags & PRIMARY_KEY) != 0)
+          .autoIncrement((flags & AUTO_INCREMENT) != 0)
+          .build();
+      table.getColumns().add(column);
+    }
+
+    var indexCount = buffer.getInt(offset);
+    offset += Integer.BYTES;
+    for (var i = 0; i < indexCount; i++, offset += INDEX_SIZE) {
+      var index = Index.builder()
+          .name(getString(buffer.getInt(offset)))
+          .columnName(getString(buffer.getInt(offset + Integer.BYTES)))
+          .nonUnique(buffer.get(offset + 2 * Integer.BYTES) != 0)
+          .build();
+      table.getIndexes().add(index);
+    }
+
+    var graph = getForeignKeyGraph();
+    table.getImportedKeys().addAll(graph.getImportedKeys(tableName));
+    table.getExportedKeys().addAll(graph.getExportedKeys(tableName));
+    return table;
+  }
+
+  @Override
+  public synchronized ForeignKeyGraph getForeignKeyGraph() {
+    if (foreignKeyGraph == null) {
+      var keys = new ArrayList<Key>();
+      for (var i = 0; i < keyCount; i++) {
+        var offset = keysOffset + i * KEY_SIZE;
+        if (!isInSchema(getString(buffer.getInt(offset)))) {
+          continue;
+        }
+        keys.add(Key.builder()
+            .primaryKeyName(getString(buffer.getInt(offset + Integer.BYTES)))
+            .primaryKeyTableName(getString(buffer.getInt(offset + 2 * Integer.BYTES)))
+            .primaryKeyColumnName(getString(buffer.getInt(offset + 3 * Integer.BYTES)))
+            .foreignKeyName(getString(buffer.getInt(offset + 4 * Integer.BYTES)))
+            .foreignKeyTableName(getString(buffer.getInt(offset + 5 * Integer.BYTES)))
+            .foreignKeyColumnName(getString(buffer.getInt(offset + 6 * Integer.BYTES)))
+            .build());
+      }
+      foreignKeyGraph = new ForeignKeyGraph(keys);
+    }
+    return foreignKeyGraph;
+  }
+
+  @Override
+  public void close() {
+    // The mapping is released when the buffer is garbage collected
+  }
+
+  private boolean isInSchema(String tableSchema) {
+    return schema == null || schema.equals(tableSchema);
+  }
+
+  private String getString(int index) {
+    if (index < 0 || index >= stringCount) {
+      return null;
+    }
+    var offset = buffer.getInt(HEADER_SIZE + index * Integer.BYTES);
+    var bytes = new byte[buffer.getInt(offset)];
+    buffer.get(offset + Integer.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private record TableEntry(String schema, int offset) {
+  }
+}
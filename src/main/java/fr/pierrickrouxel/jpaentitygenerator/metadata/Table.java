@@ -20,4 +20,16 @@ public class Table {
   private List<Key> exportedKeys = new ArrayList<>();
   @Builder.Default
   private List<Index> indexes = new ArrayList<>();
+
+  public static class TableBuilder {
+    public TableBuilder name(String name) {
+      this.name = Names.intern(name);
+      return this;
+    }
+
+    public TableBuilder schema(String schema) {
+      this.schema = Names.intern(schema);
+      return this;
+    }
+  }
 }
@@ -1,107 +1,479 @@
 package fr.pierrickrouxel.jpaentitygenerator.metadata;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
-import java.sql.DriverManager;
+import java.sql.DatabaseMetaData;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Fetches metadata for all tables in a given database.
+ * <p>
+ * Connections are pooled for the lifetime of the fetcher, which must be closed
+ * at the end of the generation run. Metadata is fetched with the
+ * {@link MetadataDialect} matching the JDBC URL, or with the generic JDBC
+ * metadata calls when there is none.
  */
 @Slf4j
-@RequiredArgsConstructor
-public class TableMetaDataFetcher {
+public class TableMetaDataFetcher implements MetaDataSource {
 
   private static final String[] TABLE_TYPES = new String[] { "TABLE", "VIEW" };
 
+  /**
+   * The number of tables fetched at once when streaming with a dialect.
+   */
+  private static final int STREAM_BATCH_SIZE = 256;
+
   private final JdbcSettings jdbcSettings;
+  private final ConnectionPool connectionPool;
+  private final MetadataDialect dialect;
+  private final FetchProfile profile;
+  private final String schema;
+  private final boolean ownsPool;
+  private ForeignKeyGraph foreignKeyGraph;
+
+  public TableMetaDataFetcher(JdbcSettings jdbcSettings) {
+    this(jdbcSettings, FetchProfile.FULL, null);
+  }
+
+  /**
+   * Creates a fetcher.
+   *
+   * @param jdbcSettings The JDBC settings
+   * @param profile      The metadata to fetch
+   * @param statistics   The statistics to record to, `null` to disable
+   *                     instrumentation
+   */
+  public TableMetaDataFetcher(JdbcSettings jdbcSettings, FetchProfile profile, JdbcStatistics statistics) {
+    this.jdbcSettings = jdbcSettings;
+    this.profile = profile;
+    this.connectionPool = new ConnectionPool(jdbcSettings, statistics);
+    this.dialect = MetadataDialect.find(jdbcSettings).orElse(null);
+    this.schema = null;
+    this.ownsPool = true;
+  }
+
+  /**
+   * Creates a fetcher borrowing the connections of a pool it does not own.
+   * <p>
+   * Closing the fetcher does not close the pool.
+   *
+   * @param connectionPool The connection pool
+   * @param jdbcSettings   The JDBC settings
+   * @param profile        The metadata to fetch
+   */
+  public TableMetaDataFetcher(ConnectionPool connectionPool, JdbcSettings jdbcSettings, FetchProfile profile) {
+    this.jdbcSettings = jdbcSettings;
+    this.profile = profile;
+    this.connectionPool = connectionPool;
+    this.dialect = MetadataDialect.find(jdbcSettings).orElse(null);
+    this.schema = null;
+    this.ownsPool = false;
+  }
+
+  private TableMetaDataFetcher(TableMetaDataFetcher parent, String schema) {
+    this.jdbcSettings = parent.jdbcSettings.toBuilder().schemaPattern(schema).build();
+    this.profile = parent.profile;
+    this.connectionPool = parent.connectionPool;
+    this.dialect = parent.dialect;
+    this.schema = schema;
+    this.ownsPool = false;
+  }
+
+  /**
+   * Creates a fetcher for a single schema, sharing the connections of this
+   * fetcher. Fetched tables have their schema set.
+   * <p>
+   * Closing the returned fetcher does not close the shared connections.
+   *
+   * @param schema The schema name
+   * @return The schema fetcher
+   */
+  @Override
+  public TableMetaDataFetcher forSchema(String schema) {
+    return new TableMetaDataFetcher(this, schema);
+  }
+
+  JdbcSettings getJdbcSettings() {
+    return jdbcSettings;
+  }
+
+  FetchProfile getProfile() {
+    return profile;
+  }
+
+  String getSchema() {
+    return schema;
+  }
 
   private Connection getConnection() throws SQLException {
-    return DriverManager.getConnection(jdbcSettings.getUrl(), jdbcSettings.getUsername(), jdbcSettings.getPassword());
+    return connectionPool.getConnection();
+  }
+
+  @Override
+  public void close() {
+    if (ownsPool) {
+      connectionPool.close();
+    }
   }
 
+  @Override
   public List<String> getTableNames() throws SQLException {
-    var tableNames = new ArrayList<String>();
     try (var connection = getConnection()) {
-      try (var rs = connection.getMetaData().getTables(null, jdbcSettings.getSchemaPattern(), "%", TABLE_TYPES)) {
-        while (rs.next()) {
-          tableNames.add(rs.getString("TABLE_NAME"));
-        }
+      return getTableNames(connection);
+    }
+  }
+
+  private List<String> getTableNames(Connection connection) throws SQLException {
+    if (dialect != null) {
+      return dialect.getTableNames(connection, jdbcSettings.getSchemaPattern());
+    }
+
+    var tableNames = new ArrayList<String>();
+    try (var rs = connection.getMetaData().getTables(null, jdbcSettings.getSchemaPattern(), "%", TABLE_TYPES)) {
+      var tableNameIndex = rs.findColumn("TABLE_NAME");
+      while (rs.next()) {
+        tableNames.add(rs.getString(tableNameIndex));
       }
     }
     return tableNames;
   }
 
+  @Override
   public Table getTable(String tableName) throws SQLException {
+    if (dialect != null) {
+      return getTables(List.of(tableName)).getFirst();
+    }
 
     try (var connection = getConnection()) {
-      var remarks = getRemarks(connection, null, tableName);
+      var schemaName = jdbcSettings.getSchemaPattern();
+      var remarks = profile.isRemarks() ? getRemarks(connection, schemaName, tableName) : null;
 
-      var primaryKeyNames = getPrimaryKeyNames(connection, null, tableName);
+      var primaryKeyNames = getPrimaryKeyNames(connection, schemaName, tableName);
 
-      var columns = getColumns(connection, null, tableName, primaryKeyNames);
+      var columns = getColumns(connection, schemaName, tableName, primaryKeyNames);
 
-      var importedKeys = getImportedKeys(connection, null, tableName);
-      var exportedKeys = getExportedKeys(connection, null, tableName);
-      var indexes = getIndexes(connection, null, tableName);
+      var foreignKeyGraph = getForeignKeyGraph(connection);
+      var indexes = getIndexes(connection, schemaName, tableName);
 
       return Table.builder()
           .name(tableName)
+          .schema(schema)
           .remarks(remarks)
-          .importedKeys(importedKeys)
-          .exportedKeys(exportedKeys)
+          .importedKeys(new ArrayList<>(foreignKeyGraph.getImportedKeys(tableName)))
+          .exportedKeys(new ArrayList<>(foreignKeyGraph.getExportedKeys(tableName)))
           .indexes(indexes)
           .columns(columns)
           .build();
     }
   }
 
+  /**
+   * Streams the metadata of tables. Tables are fetched by batches, with the
+   * queries of the dialect or with schema-wide JDBC metadata calls, so that
+   * only one batch is held in memory at a time.
+   *
+   * @param tableNames The table names
+   * @return The tables, in the order of the given names
+   */
+  @Override
+  public Stream<Table> streamTables(List<String> tableNames) {
+    var batchCount = (tableNames.size() + STREAM_BATCH_SIZE - 1) / STREAM_BATCH_SIZE;
+    return IntStream.range(0, batchCount)
+        .mapToObj(i -> tableNames.subList(i * STREAM_BATCH_SIZE,
+            Math.min(tableNames.size(), (i + 1) * STREAM_BATCH_SIZE)))
+        .flatMap(o -> {
+          try {
+            return getTables(o).stream();
+          } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+          }
+        });
+  }
+
+  /**
+   * Get the foreign key relationships of the whole schema.
+   * <p>
+   * The graph is built once per fetcher from a single schema-wide imported keys
+   * call, exported keys are never queried.
+   *
+   * @return The foreign key graph
+   * @throws SQLException
+   */
+  @Override
+  public ForeignKeyGraph getForeignKeyGraph() throws SQLException {
+    try (var connection = getConnection()) {
+      return getForeignKeyGraph(connection);
+    }
+  }
+
+  private synchronized ForeignKeyGraph getForeignKeyGraph(Connection connection) throws SQLException {
+    if (foreignKeyGraph != null) {
+      return foreignKeyGraph;
+    }
+
+    var schemaName = jdbcSettings.getSchemaPattern();
+    var keys = dialect != null ? dialect.getImportedKeys(connection, schemaName) : getAllImportedKeys(connection);
+    foreignKeyGraph = new ForeignKeyGraph(keys);
+    return foreignKeyGraph;
+  }
+
+  private List<Key> getAllImportedKeys(Connection connection) throws SQLException {
+    var schemaName = jdbcSettings.getSchemaPattern();
+    var keys = new ArrayList<Key>();
+    var rs = openSchemaWide(connection.getMetaData(), o -> o.getImportedKeys(null, schemaName, null));
+    if (rs == null) {
+      for (var tableName : getTableNames(connection)) {
+        keys.addAll(getImportedKeys(connection, schemaName, tableName));
+      }
+      return keys;
+    }
+
+    try (rs) {
+      var keyReader = new KeyReader(rs);
+      while (rs.next()) {
+        keys.add(keyReader.read(rs));
+      }
+    }
+    return keys;
+  }
+
+  @Override
+  public Optional<Map<String, String>> getTableChecksums() throws SQLException {
+    if (dialect == null) {
+      return Optional.empty();
+    }
+    try (var connection = getConnection()) {
+      return dialect.getTableChecksums(connection, jdbcSettings.getSchemaPattern());
+    }
+  }
+
+  private void addKeys(Table table, ForeignKeyGraph foreignKeyGraph) {
+    table.getImportedKeys().addAll(foreignKeyGraph.getImportedKeys(table.getName()));
+    table.getExportedKeys().addAll(foreignKeyGraph.getExportedKeys(table.getName()));
+  }
+
+  /**
+   * Dumps the metadata of all tables to a snapshot file, to generate entities
+   * later without database.
+   *
+   * @param path The snapshot file path
+   * @throws SQLException
+   * @throws IOException
+   */
+  public void writeSnapshot(Path path) throws SQLException, IOException {
+    var tables = getTables(getTableNames());
+    SchemaSnapshotWriter.write(path, tables, getForeignKeyGraph());
+  }
+
+  /**
+   * Dumps the metadata of all tables of several schemas to a snapshot file.
+   * Tables are stored with their schema, so that the snapshot is read back
+   * schema by schema.
+   *
+   * @param path    The snapshot file path
+   * @param schemas The schema names, empty to dump the tables of this fetcher
+   * @throws SQLException
+   * @throws IOException
+   */
+  public void writeSnapshot(Path path, List<String> schemas) throws SQLException, IOException {
+    if (schemas.isEmpty()) {
+      writeSnapshot(path);
+      return;
+    }
+
+    var tables = new ArrayList<Table>();
+    var foreignKeyGraphs = new HashMap<String, ForeignKeyGraph>();
+    for (var schemaName : schemas) {
+      try (var schemaFetcher = forSchema(schemaName)) {
+        tables.addAll(schemaFetcher.getTables(schemaFetcher.getTableNames()));
+        foreignKeyGraphs.put(schemaName, schemaFetcher.getForeignKeyGraph());
+      }
+    }
+    SchemaSnapshotWriter.write(path, tables, foreignKeyGraphs);
+  }
+
+  /**
+   * Fetches metadata for the given tables with schema-wide catalog calls.
+   * <p>
+   * Each kind of metadata is queried once for the whole schema and the rows are
+   * dispatched to their table, instead of issuing one call per table. Drivers
+   * rejecting schema-wide calls for primary keys or indexes fall back to
+   * per-table calls for that kind of metadata only.
+   *
+   * @param tableNames The table names
+   * @return The tables, in the order of the given names
+   * @throws SQLException
+   */
+  public List<Table> getTables(Collection<String> tableNames) throws SQLException {
+    var tables = new LinkedHashMap<String, Table>();
+    tableNames.forEach(o -> tables.put(o, Table.builder().name(o).schema(schema).build()));
+
+    try (var connection = getConnection()) {
+      if (dialect != null) {
+        // Missing tables are returned empty, as with the JDBC metadata calls
+        for (var table : dialect.getTables(connection, jdbcSettings.getSchemaPattern(), tableNames, profile)) {
+          table.setSchema(schema);
+          tables.put(table.getName(), table);
+        }
+        var foreignKeyGraph = getForeignKeyGraph(connection);
+        tables.values().forEach(o -> addKeys(o, foreignKeyGraph));
+        return new ArrayList<>(tables.values());
+      }
+
+      var metaData = connection.getMetaData();
+      var schemaName = jdbcSettings.getSchemaPattern();
+
+      if (profile.isRemarks()) {
+        try (var rs = metaData.getTables(null, schemaName, "%", TABLE_TYPES)) {
+          var tableNameIndex = rs.findColumn("TABLE_NAME");
+          var remarksIndex = rs.findColumn("REMARKS");
+          while (rs.next()) {
+            var table = tables.get(rs.getString(tableNameIndex));
+            if (table != null) {
+              table.setRemarks(rs.getString(remarksIndex));
+            }
+          }
+        }
+      }
+
+      var primaryKeyNames = new HashMap<String, Set<String>>();
+      fetchAll(metaData, tables,
+          (o, tableName) -> o.getPrimaryKeys(null, schemaName, tableName),
+          rs -> {
+            var columnNameIndex = rs.findColumn("COLUMN_NAME");
+            return (table, row) -> primaryKeyNames.computeIfAbsent(table.getName(), k -> new HashSet<>())
+                .add(row.getString(columnNameIndex));
+          });
+
+      try (var rs = metaData.getColumns(null, schemaName, "%", "%")) {
+        var columnReader = new ColumnReader(rs, profile);
+        while (rs.next()) {
+          var table = tables.get(columnReader.getTableName(rs));
+          if (table != null) {
+            table.getColumns().add(columnReader.read(rs, primaryKeyNames.getOrDefault(table.getName(), Set.of())));
+          }
+        }
+      }
+
+      var foreignKeyGraph = getForeignKeyGraph(connection);
+      tables.values().forEach(o -> addKeys(o, foreignKeyGraph));
+
+      fetchAll(metaData, tables,
+          (o, tableName) -> o.getIndexInfo(null, schemaName, tableName, !profile.isNonUniqueIndexes(), true),
+          rs -> {
+            var indexReader = new IndexReader(rs);
+            return (table, row) -> table.getIndexes().add(indexReader.read(row));
+          });
+    }
+
+    return new ArrayList<>(tables.values());
+  }
+
+  /**
+   * Runs a catalog query for the whole schema and dispatches rows to their
+   * table, or runs it once per table when the driver rejects schema-wide calls.
+   * Readers are created once per result set to resolve column indexes.
+   */
+  private void fetchAll(DatabaseMetaData metaData, Map<String, Table> tables, CatalogQuery query,
+      RowReaderFactory readerFactory) throws SQLException {
+    var rs = openSchemaWide(metaData, o -> query.execute(o, null));
+    if (rs == null) {
+      for (var table : tables.values()) {
+        try (var tableRs = query.execute(metaData, table.getName())) {
+          var reader = readerFactory.create(tableRs);
+          while (tableRs.next()) {
+            reader.read(table, tableRs);
+          }
+        }
+      }
+      return;
+    }
+
+    try (rs) {
+      var tableNameIndex = rs.findColumn("TABLE_NAME");
+      var reader = readerFactory.create(rs);
+      while (rs.next()) {
+        var table = tables.get(rs.getString(tableNameIndex));
+        if (table != null) {
+          reader.read(table, rs);
+        }
+      }
+    }
+  }
+
+  private ResultSet openSchemaWide(DatabaseMetaData metaData, SchemaWideQuery query) {
+    try {
+      return query.execute(metaData);
+    } catch (SQLException e) {
+      log.debug("Schema-wide catalog call is not supported, falling back to per-table calls", e);
+      return null;
+    }
+  }
+
+  @FunctionalInterface
+  private interface SchemaWideQuery {
+    ResultSet execute(DatabaseMetaData metaData) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface CatalogQuery {
+    ResultSet execute(DatabaseMetaData metaData, String tableName) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface RowReader {
+    void read(Table table, ResultSet rs) throws SQLException;
+  }
+
+  @FunctionalInterface
+  private interface RowReaderFactory {
+    RowReader create(ResultSet rs) throws SQLException;
+  }
+
   private String getRemarks(Connection connection, String schemaName, String tableName) throws SQLException {
     try (var rs = connection.getMetaData().getTables(null, schemaName, tableName, TABLE_TYPES)) {
       if (rs.next()) {
-        return rs.getString("REMARKS");
+        return rs.getString(rs.findColumn("REMARKS"));
       }
     }
     return null;
   }
 
-  private List<String> getPrimaryKeyNames(Connection connection, String schemaName, String tableName)
+  private Set<String> getPrimaryKeyNames(Connection connection, String schemaName, String tableName)
       throws SQLException {
-    var primaryKeyNames = new ArrayList<String>();
+    var primaryKeyNames = new HashSet<String>();
     try (var rs = connection.getMetaData().getPrimaryKeys(null, schemaName, tableName)) {
+      var columnNameIndex = rs.findColumn("COLUMN_NAME");
       while (rs.next()) {
-        primaryKeyNames.add(rs.getString("COLUMN_NAME"));
+        primaryKeyNames.add(rs.getString(columnNameIndex));
       }
     }
     return primaryKeyNames;
   }
 
   private List<Column> getColumns(Connection connection, String schemaName, String tableName,
-      List<String> primaryKeyNames) throws SQLException {
+      Set<String> primaryKeyNames) throws SQLException {
     var columns = new ArrayList<Column>();
     try (var rs = connection.getMetaData().getColumns(null, schemaName, tableName, "%")) {
+      var columnReader = new ColumnReader(rs, profile);
       while (rs.next()) {
-        var columnName = rs.getString("COLUMN_NAME");
-
-        var column = Column.builder()
-            .name(columnName)
-            .typeCode(rs.getInt("DATA_TYPE"))
-            .typeName(rs.getString("TYPE_NAME"))
-            .columnSize(rs.getInt("COLUMN_SIZE"))
-            .decimalDigits(rs.getInt("DECIMAL_DIGITS"))
-            .remarks(rs.getString("REMARKS"))
-            .autoIncrement(getBooleanResult(rs, tableName, "IS_AUTOINCREMENT"))
-            .nullable(getBooleanResult(rs, tableName, "IS_NULLABLE"))
-            .primaryKey(primaryKeyNames.stream().anyMatch(pk -> pk.equals(columnName)))
-            .build();
-
-        columns.add(column);
+        columns.add(columnReader.read(rs, primaryKeyNames));
       }
     }
     return columns;
@@ -110,59 +482,146 @@ public class TableMetaDataFetcher {
   private List<Key> getImportedKeys(Connection connection, String schemaName, String tableName) throws SQLException {
     var keys = new ArrayList<Key>();
     try (var rs = connection.getMetaData().getImportedKeys(null, schemaName, tableName)) {
+      var keyReader = new KeyReader(rs);
       while (rs.next()) {
-        var key = getKey(rs);
-        keys.add(key);
+        keys.add(keyReader.read(rs));
       }
     }
     return keys;
   }
 
-  private List<Key> getExportedKeys(Connection connection, String schemaName, String tableName) throws SQLException {
-    var keys = new ArrayList<Key>();
-    try (var rs = connection.getMetaData().getExportedKeys(null, schemaName, tableName)) {
+  private List<Index> getIndexes(Connection connection, String schemaName, String tableName) throws SQLException {
+    var indexes = new ArrayList<Index>();
+    var uniqueOnly = !profile.isNonUniqueIndexes();
+    try (var rs = connection.getMetaData().getIndexInfo(null, schemaName, tableName, uniqueOnly, true)) {
+      var indexReader = new IndexReader(rs);
       while (rs.next()) {
-        var key = getKey(rs);
-        keys.add(key);
+        indexes.add(indexReader.read(rs));
       }
     }
-    return keys;
+    return indexes;
   }
 
-  private List<Index> getIndexes(Connection connection, String schemaName, String tableName) throws SQLException {
-    var indexes = new ArrayList<Index>();
-    try (var rs = connection.getMetaData().getIndexInfo(null, schemaName, tableName, false, true)) {
-      while (rs.next()) {
-        var index = Index.builder()
-            .name(rs.getString("INDEX_NAME"))
-            .columnName(rs.getString("COLUMN_NAME"))
-            .nonUnique(rs.getBoolean("NON_UNIQUE"))
-            .build();
+  /**
+   * Get the index of a result set column, or `0` when the driver does not
+   * return it.
+   */
+  private static int findOptionalColumn(ResultSet rs, String label) {
+    try {
+      return rs.findColumn(label);
+    } catch (SQLException e) {
+      log.debug("Result set has no {} column", label, e);
+      return 0;
+    }
+  }
 
-        indexes.add(index);
+  /**
+   * Decodes rows of {@link DatabaseMetaData#getColumns}.
+   */
+  private static final class ColumnReader {
+    private final int tableNameIndex;
+    private final int columnNameIndex;
+    private final int dataTypeIndex;
+    private final int typeNameIndex;
+    private final int columnSizeIndex;
+    private final int decimalDigitsIndex;
+    private final int remarksIndex;
+    private final int autoIncrementIndex;
+    private final int nullableIndex;
+
+    ColumnReader(ResultSet rs, FetchProfile profile) throws SQLException {
+      tableNameIndex = rs.findColumn("TABLE_NAME");
+      columnNameIndex = rs.findColumn("COLUMN_NAME");
+      dataTypeIndex = rs.findColumn("DATA_TYPE");
+      typeNameIndex = rs.findColumn("TYPE_NAME");
+      columnSizeIndex = rs.findColumn("COLUMN_SIZE");
+      decimalDigitsIndex = rs.findColumn("DECIMAL_DIGITS");
+      remarksIndex = profile.isRemarks() ? rs.findColumn("REMARKS") : 0;
+      autoIncrementIndex = findOptionalColumn(rs, "IS_AUTOINCREMENT");
+      nullableIndex = findOptionalColumn(rs, "IS_NULLABLE");
+    }
+
+    String getTableName(ResultSet rs) throws SQLException {
+      return rs.getString(tableNameIndex);
+    }
+
+    Column read(ResultSet rs, Set<String> primaryKeyNames) throws SQLException {
+      var columnName = rs.getString(columnNameIndex);
+
+      return Column.builder()
+          .name(columnName)
+          .typeCode(rs.getInt(dataTypeIndex))
+          .typeName(rs.getString(typeNameIndex))
+          .columnSize(rs.getInt(columnSizeIndex))
+          .decimalDigits(rs.getInt(decimalDigitsIndex))
+          .remarks(remarksIndex == 0 ? null : rs.getString(remarksIndex))
+          .autoIncrement(getBoolean(rs, autoIncrementIndex))
+          .nullable(getBoolean(rs, nullableIndex))
+          .primaryKey(primaryKeyNames.contains(columnName))
+          .build();
+    }
+
+    private static boolean getBoolean(ResultSet rs, int columnIndex) throws SQLException {
+      if (columnIndex == 0) {
+        return false;
       }
+      var value = rs.getString(columnIndex);
+      return value == null || value.equals("YES");
     }
-    return indexes;
   }
 
-  private Key getKey(ResultSet rs) throws SQLException {
-    return Key.builder()
-        .primaryKeyName(rs.getString("PK_NAME"))
-        .primaryKeyTableName(rs.getString("PKTABLE_NAME"))
-        .primaryKeyColumnName(rs.getString("PKCOLUMN_NAME"))
-        .foreignKeyName(rs.getString("FK_NAME"))
-        .foreignKeyTableName(rs.getString("FKTABLE_NAME"))
-        .foreignKeyColumnName(rs.getString("FKCOLUMN_NAME"))
-        .build();
+  /**
+   * Decodes rows of {@link DatabaseMetaData#getIndexInfo}.
+   */
+  private static final class IndexReader {
+    private final int indexNameIndex;
+    private final int columnNameIndex;
+    private final int nonUniqueIndex;
+
+    IndexReader(ResultSet rs) throws SQLException {
+      indexNameIndex = rs.findColumn("INDEX_NAME");
+      columnNameIndex = rs.findColumn("COLUMN_NAME");
+      nonUniqueIndex = rs.findColumn("NON_UNIQUE");
+    }
+
+    Index read(ResultSet rs) throws SQLException {
+      return Index.builder()
+          .name(rs.getString(indexNameIndex))
+          .columnName(rs.getString(columnNameIndex))
+          .nonUnique(rs.getBoolean(nonUniqueIndex))
+          .build();
+    }
   }
 
-  private boolean getBooleanResult(ResultSet rs, String tableName, String columnName) {
-    try {
-      var isNullableMetadata = rs.getString(columnName);
-      return isNullableMetadata == null || isNullableMetadata.equals("YES");
-    } catch (SQLException e) {
-      log.debug("Failed to fetch nullable flag for {}.{}", tableName, columnName, e);
+  /**
+   * Decodes rows of {@link DatabaseMetaData#getImportedKeys}.
+   */
+  private static final class KeyReader {
+    private final int primaryKeyNameIndex;
+    private final int primaryKeyTableNameIndex;
+    private final int primaryKeyColumnNameIndex;
+    private final int foreignKeyNameIndex;
+    private final int foreignKeyTableNameIndex;
+    private final int foreignKeyColumnNameIndex;
+
+    KeyReader(ResultSet rs) throws SQLException {
+      primaryKeyNameIndex = rs.findColumn("PK_NAME");
+      primaryKeyTableNameIndex = rs.findColumn("PKTABLE_NAME");
+      primaryKeyColumnNameIndex = rs.findColumn("PKCOLUMN_NAME");
+      foreignKeyNameIndex = rs.findColumn("FK_NAME");
+      foreignKeyTableNameIndex = rs.findColumn("FKTABLE_NAME");
+      foreignKeyColumnNameIndex = rs.findColumn("FKCOLUMN_NAME");
+    }
+
+    Key read(ResultSet rs) throws SQLException {
+      return Key.builder()
+          .primaryKeyName(rs.getString(primaryKeyNameIndex))
+          .primaryKeyTableName(rs.getString(primaryKeyTableNameIndex))
+          .primaryKeyColumnName(rs.getString(primaryKeyColumnNameIndex))
+          .foreignKeyName(rs.getString(foreignKeyNameIndex))
+          .foreignKeyTableName(rs.getString(foreignKeyTableNameIndex))
+          .foreignKeyColumnName(rs.getString(foreignKeyColumnNameIndex))
+          .build();
     }
-    return false;
   }
 }
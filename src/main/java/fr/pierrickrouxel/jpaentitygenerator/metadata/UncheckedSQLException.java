@@ -0,0 +1,18 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.SQLException;
+
+/**
+ * Wraps an {@link SQLException} thrown while a stream of tables is consumed.
+ */
+public class UncheckedSQLException extends RuntimeException {
+
+  public UncheckedSQLException(SQLException cause) {
+    super(cause);
+  }
+
+  @Override
+  public synchronized SQLException getCause() {
+    return (SQLException) super.getCause();
+  }
+}
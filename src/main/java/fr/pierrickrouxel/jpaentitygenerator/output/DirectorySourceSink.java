@@ -0,0 +1,159 @@
+package fr.pierrickrouxel.jpaentitygenerator.output;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import fr.pierrickrouxel.jpaentitygenerator.incremental.GenerationManifest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes the sources to a source directory, in sub-directories of their
+ * packages.
+ * <p>
+ * The content hashes of the generated files are kept in a
+ * {@link GenerationManifest} of the generated package, at the root of the
+ * directory. Files whose content did not change are not written, so that their
+ * modification time is kept, and the files of the package generated by the
+ * previous run but not by the current one are deleted when the run finishes.
+ */
+@Slf4j
+public class DirectorySourceSink implements GeneratedSourceSink {
+
+  private final Path directory;
+  private final String packageName;
+  private final GenerationManifest manifest;
+  private final boolean partition;
+
+  private final LongAdder written = new LongAdder();
+  private final LongAdder unchanged = new LongAdder();
+
+  /**
+   * Creates a sink, loading the manifest of the previous run.
+   *
+   * @param directory   The source directory
+   * @param packageName The generated package, whose sub-packages are generated
+   *                    by the same run
+   * @throws IOException
+   */
+  public DirectorySourceSink(Path directory, String packageName) throws IOException {
+    this.directory = directory;
+    this.packageName = packageName;
+    this.manifest = GenerationManifest.load(getManifestPath(directory, packageName));
+    this.partition = false;
+  }
+
+  /**
+   * Creates a sink for a partition of a run, loading the manifest of the
+   * previous run. The partition saves the files it generated to its own
+   * manifest, and does not delete any file.
+   *
+   * @param directory    The source directory
+   * @param packageName  The generated package
+   * @param manifestPath The manifest file path of the partition
+   * @throws IOException
+   * @see GenerationManifest#merge(Path, java.util.List)
+   */
+  public DirectorySourceSink(Path directory, String packageName, Path manifestPath) throws IOException {
+    this.directory = directory;
+    this.packageName = packageName;
+    this.manifest = GenerationManifest.load(getManifestPath(directory, packageName), manifestPath);
+    this.partition = true;
+  }
+
+  /**
+   * Get the path of the manifest of a package generated to a source directory.
+   *
+   * @param directory   The source directory
+   * @param packageName The generated package
+   * @return The manifest file path
+   */
+  public static Path getManifestPath(Path directory, String packageName) {
+    return directory.resolve(GenerationManifest.getFileName(packageName));
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Get the path of the source of a class.
+   *
+   * @param packageName The package name
+   * @param className   The simple class name
+   * @return The path
+   */
+  public Path getPath(String packageName, String className) {
+    return directory.resolve(GeneratedSource.getFile(packageName, className));
+  }
+
+  @Override
+  public void write(GeneratedSource source) throws IOException {
+    var file = source.getFile();
+    var path = directory.resolve(file);
+    var hash = source.getHash();
+
+    if (hash.equals(manifest.getPreviousHash(file)) && Files.exists(path)) {
+      manifest.record(file, hash);
+      unchanged.increment();
+      return;
+    }
+
+    // Does nothing when the directory exists, and tolerates concurrent creations
+    Files.createDirectories(path.getParent());
+    try (var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      var buffer = ByteBuffer.wrap(source.getContent());
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+    manifest.record(file, hash);
+    written.increment();
+  }
+
+  @Override
+  public boolean keep(String packageName, String className) {
+    var file = GeneratedSource.getFile(packageName, className);
+    manifest.keep(file);
+    return Files.exists(directory.resolve(file));
+  }
+
+  /**
+   * Deletes the files generated by the previous run only and saves the
+   * manifest. Partitions only save their manifest.
+   *
+   * @throws IOException
+   */
+  @Override
+  public void finish() throws IOException {
+    var removedFiles = partition ? Set.<String>of() : manifest.deleteRemovedFiles(directory, packageName);
+    manifest.save();
+    log.info("Generated sources in {}: {} written, {} unchanged, {} deleted", directory, written.sum(),
+        unchanged.sum(), removedFiles.size());
+  }
+
+  /**
+   * Get the number of files written since the sink was created.
+   *
+   * @return The number of files
+   */
+  public long getWrittenCount() {
+    return written.sum();
+  }
+
+  /**
+   * Get the number of files whose content did not change since the previous
+   * run.
+   *
+   * @return The number of files
+   */
+  public long getUnchangedCount() {
+    return unchanged.sum();
+  }
+}
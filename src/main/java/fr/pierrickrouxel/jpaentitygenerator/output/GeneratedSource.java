@@ -0,0 +1,110 @@
+package fr.pierrickrouxel.jpaentitygenerator.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+import com.squareup.javapoet.JavaFile;
+
+import fr.pierrickrouxel.jpaentitygenerator.util.Hashes;
+
+/**
+ * The rendered source of an entity, encoded in UTF-8, with its content hash.
+ * <p>
+ * Sources are rendered and hashed by the generation engine, so that sinks only
+ * write bytes.
+ */
+public final class GeneratedSource {
+
+  private final String packageName;
+  private final String className;
+  private final byte[] content;
+  private final String hash;
+
+  private GeneratedSource(String packageName, String className, byte[] content, String hash) {
+    this.packageName = packageName;
+    this.className = className;
+    this.content = content;
+    this.hash = hash;
+  }
+
+  /**
+   * Renders and hashes the source of an entity file.
+   *
+   * @param javaFile The entity file
+   * @return The source
+   */
+  public static GeneratedSource of(JavaFile javaFile) {
+    var content = new ByteArrayOutputStream();
+    try (var writer = new OutputStreamWriter(content, StandardCharsets.UTF_8)) {
+      javaFile.writeTo(writer);
+    } catch (IOException e) {
+      // Not thrown by in-memory streams
+      throw new UncheckedIOException(e);
+    }
+    var bytes = content.toByteArray();
+    return new GeneratedSource(javaFile.packageName, javaFile.typeSpec.name, bytes, Hashes.sha256(bytes));
+  }
+
+  public String getPackageName() {
+    return packageName;
+  }
+
+  public String getClassName() {
+    return className;
+  }
+
+  /**
+   * Get the UTF-8 encoded source. The array is shared and must not be
+   * modified.
+   *
+   * @return The source bytes
+   */
+  public byte[] getContent() {
+    return content;
+  }
+
+  /**
+   * Get the SHA-256 hash of the content.
+   *
+   * @return The hexadecimal hash
+   */
+  public String getHash() {
+    return hash;
+  }
+
+  /**
+   * Get the path of the source relative to a source directory, in the
+   * sub-directory of its package.
+   *
+   * @return The relative path, with `/` separators
+   */
+  String getFile() {
+    return getFile(packageName, className);
+  }
+
+  /**
+   * Get the path of the source of a class relative to a source directory.
+   *
+   * @param packageName The package name
+   * @param className   The simple class name
+   * @return The relative path, with `/` separators
+   */
+  static String getFile(String packageName, String className) {
+    return packageName.isEmpty()
+        ? className + ".java"
+        : packageName.replace('.', '/') + "/" + className + ".java";
+  }
+
+  /**
+   * Get the source code.
+   *
+   * @return The source code
+   */
+  @Override
+  public String toString() {
+    return new String(content, StandardCharsets.UTF_8);
+  }
+}
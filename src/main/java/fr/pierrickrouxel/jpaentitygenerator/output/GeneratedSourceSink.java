@@ -0,0 +1,75 @@
+package fr.pierrickrouxel.jpaentitygenerator.output;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Target of the generated entity sources.
+ * <p>
+ * Sinks receive the {@link GeneratedSource} of each entity, already rendered
+ * and hashed by the generation engine, and write it to their target. Sinks are
+ * written by several threads at the same time.
+ */
+public interface GeneratedSourceSink {
+
+  /**
+   * Writes the source of an entity.
+   *
+   * @param source The entity source
+   * @throws IOException
+   */
+  void write(GeneratedSource source) throws IOException;
+
+  /**
+   * Keeps the source of a class written by a previous run, which is not
+   * regenerated by the current run. Sinks without previous runs always
+   * regenerate the sources.
+   *
+   * @param packageName The package name
+   * @param className   The simple class name
+   * @return `true` if the source exists and is kept
+   */
+  default boolean keep(String packageName, String className) {
+    return false;
+  }
+
+  /**
+   * Completes a successful run. It is not called when the run fails.
+   *
+   * @throws IOException
+   */
+  default void finish() throws IOException {
+  }
+
+  /**
+   * Creates a sink writing the sources to a source directory, in sub-directories
+   * of their packages.
+   *
+   * @param directory   The source directory
+   * @param packageName The generated package
+   * @return The sink
+   * @throws IOException
+   */
+  static DirectorySourceSink directory(Path directory, String packageName) throws IOException {
+    return new DirectorySourceSink(directory, packageName);
+  }
+
+  /**
+   * Creates a sink collecting the sources in memory.
+   *
+   * @return The sink
+   */
+  static InMemorySourceSink inMemory() {
+    return new InMemorySourceSink();
+  }
+
+  /**
+   * Creates a sink printing the sources to the standard output, one after the
+   * other.
+   *
+   * @return The sink
+   */
+  static PrintStreamSourceSink standardOutput() {
+    return new PrintStreamSourceSink(System.out);
+  }
+}
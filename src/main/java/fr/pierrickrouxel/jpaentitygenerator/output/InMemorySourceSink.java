@@ -0,0 +1,36 @@
+package fr.pierrickrouxel.jpaentitygenerator.output;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects the sources in memory, by qualified class name.
+ */
+public class InMemorySourceSink implements GeneratedSourceSink {
+
+  private final Map<String, String> sources = new ConcurrentHashMap<>();
+
+  @Override
+  public void write(GeneratedSource source) {
+    sources.put(getQualifiedName(source.getPackageName(), source.getClassName()), source.toString());
+  }
+
+  @Override
+  public boolean keep(String packageName, String className) {
+    return sources.containsKey(getQualifiedName(packageName, className));
+  }
+
+  /**
+   * Get the sources written so far.
+   *
+   * @return The sources by qualified class name
+   */
+  public Map<String, String> getSources() {
+    return Collections.unmodifiableMap(sources);
+  }
+
+  private static String getQualifiedName(String packageName, String className) {
+    return packageName.isEmpty() ? className : packageName + "." + className;
+  }
+}
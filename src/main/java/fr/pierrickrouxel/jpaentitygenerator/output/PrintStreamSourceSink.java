@@ -0,0 +1,33 @@
+package fr.pierrickrouxel.jpaentitygenerator.output;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * Prints the sources to a stream, one after the other.
+ */
+public class PrintStreamSourceSink implements GeneratedSourceSink {
+
+  private final PrintStream out;
+
+  /**
+   * Creates a sink.
+   *
+   * @param out The stream, which is not closed by the sink
+   */
+  public PrintStreamSourceSink(PrintStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public void write(GeneratedSource source) throws IOException {
+    // Sources of concurrent writes are not interleaved
+    synchronized (out) {
+      out.writeBytes(source.getContent());
+      out.flush();
+    }
+    if (out.checkError()) {
+      throw new IOException("Failed to print the source of " + source.getClassName());
+    }
+  }
+}
@@ -24,35 +24,7 @@ public interface ClassMatcher {
    * @return true if the rule matches.
    */
   default boolean matches(String className) {
-    if ((getClassName() == null || getClassName().isEmpty())
-        && (getClassNames() == null || getClassNames().isEmpty())) {
-      // global settings
-      return true;
-    }
-
-    var singleTarget = getClassName();
-    if (singleTarget != null) {
-      var matched = singleTarget.equals(className) || className.matches(singleTarget);
-      if (matched) {
-        return true;
-      }
-    }
-
-    var targets = getClassNames();
-    if (targets != null && targets.isEmpty() == false) {
-      var matched = targets.contains(className);
-      if (matched) {
-        return true;
-      } else {
-        for (String target : targets) {
-          if (className.matches(target)) {
-            return true;
-          }
-        }
-      }
-    }
-
-    return false;
+    return NameMatcher.of(getClassName(), getClassNames()).matches(className);
   }
 
 }
@@ -26,32 +26,6 @@ public interface FieldMatcher extends ClassMatcher {
    * @return true if the rule matches.
    */
   default boolean matches(String className, String fieldName) {
-    if (matches(className) == false) {
-      return false;
-    }
-
-    String singleTarget = getFieldName();
-    if (singleTarget != null) {
-      boolean matched = singleTarget.equals(fieldName) || fieldName.matches(singleTarget);
-      if (matched) {
-        return true;
-      }
-    }
-
-    List<String> targets = getFieldNames();
-    if (targets != null && targets.isEmpty() == false) {
-      boolean matched = targets.contains(fieldName);
-      if (matched) {
-        return true;
-      } else {
-        for (String target : targets) {
-          if (fieldName.matches(target)) {
-            return true;
-          }
-        }
-      }
-    }
-
-    return false;
+    return matches(className) && NameMatcher.ofExplicit(getFieldName(), getFieldNames()).matches(fieldName);
   }
 }
@@ -0,0 +1,115 @@
+package fr.pierrickrouxel.jpaentitygenerator.rule;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled name targets of a rule.
+ * <p>
+ * Targets without regular expression metacharacters are looked up in a hash
+ * set, the other ones are compiled with the matcher. The rule index of a config
+ * compiles the targets of each rule once.
+ */
+public final class NameMatcher implements Serializable {
+
+  private static final NameMatcher ALL = new NameMatcher(true, Set.of(), List.of());
+  private static final NameMatcher NONE = new NameMatcher(false, Set.of(), List.of());
+
+  private final boolean all;
+  private final Set<String> names;
+  private final List<Pattern> patterns;
+
+  private NameMatcher(boolean all, Set<String> names, List<Pattern> patterns) {
+    this.all = all;
+    this.names = names;
+    this.patterns = patterns;
+  }
+
+  /**
+   * Compiles the targets of a rule, a rule without target matches all names.
+   *
+   * @param name  A single partial-matching target
+   * @param names Multiple partial-matching targets
+   * @return The matcher
+   * @throws PatternSyntaxException when a target is not a valid regular
+   *                                expression
+   */
+  public static NameMatcher of(String name, List<String> names) {
+    if ((name == null || name.isEmpty()) && (names == null || names.isEmpty())) {
+      // global settings
+      return ALL;
+    }
+    return compile(name, names);
+  }
+
+  /**
+   * Compiles the targets of a rule, a rule without target matches no name.
+   *
+   * @param name  A single partial-matching target
+   * @param names Multiple partial-matching targets
+   * @return The matcher
+   * @throws PatternSyntaxException when a target is not a valid regular
+   *                                expression
+   */
+  public static NameMatcher ofExplicit(String name, List<String> names) {
+    if (name == null && (names == null || names.isEmpty())) {
+      return NONE;
+    }
+    return compile(name, names);
+  }
+
+  private static NameMatcher compile(String name, List<String> names) {
+    var targets = new ArrayList<String>();
+    if (name != null) {
+      targets.add(name);
+    }
+    if (names != null) {
+      targets.addAll(names);
+    }
+
+    var literals = new HashSet<String>();
+    var patterns = new ArrayList<Pattern>();
+    for (var target : targets) {
+      literals.add(target);
+      if (!isLiteral(target)) {
+        patterns.add(Pattern.compile(target));
+      }
+    }
+    return new NameMatcher(false, Set.copyOf(literals), List.copyOf(patterns));
+  }
+
+  /**
+   * Check if a target matches only itself as a regular expression.
+   */
+  private static boolean isLiteral(String target) {
+    for (var i = 0; i < target.length(); i++) {
+      if ("\\.[]{}()*+?^$|".indexOf(target.charAt(i)) >= 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Predicates if a name is one of the targets or matches one of them.
+   *
+   * @param name The name
+   * @return `true` if the name matches
+   */
+  public boolean matches(String name) {
+    if (all || names.contains(name)) {
+      return true;
+    }
+    for (var pattern : patterns) {
+      if (pattern.matcher(name).matches()) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
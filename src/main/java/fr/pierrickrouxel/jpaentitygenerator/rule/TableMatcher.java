@@ -23,34 +23,7 @@ public interface TableMatcher {
      * @return true if the rule matches.
      */
     default boolean matches(String tableName) {
-        if ((getTableName() == null || getTableName().isEmpty()) && (getTableNames() == null || getTableNames().isEmpty())) {
-            // global settings
-            return true;
-        }
-
-        var singleTarget = getTableName();
-        if (singleTarget != null) {
-            var matched = singleTarget.equals(tableName) || tableName.matches(singleTarget);
-            if (matched) {
-                return true;
-            }
-        }
-
-        var targets = getTableNames();
-        if (targets != null && targets.isEmpty() == false) {
-            var matched = targets.contains(tableName);
-            if (matched) {
-                return true;
-            } else {
-                for (var target : targets) {
-                    if (tableName.matches(target)) {
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+        return NameMatcher.of(getTableName(), getTableNames()).matches(tableName);
     }
 
 }
@@ -0,0 +1,40 @@
+package fr.pierrickrouxel.jpaentitygenerator.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Utility about the content hashes of fingerprints and generated sources.
+ */
+public class Hashes {
+
+  private Hashes() {
+  }
+
+  /**
+   * Get the SHA-256 hash of a text, encoded in UTF-8.
+   *
+   * @param content The text
+   * @return The hexadecimal hash
+   */
+  public static String sha256(String content) {
+    return sha256(content.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Get the SHA-256 hash of bytes.
+   *
+   * @param content The bytes
+   * @return The hexadecimal hash
+   */
+  public static String sha256(byte[] content) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+    } catch (NoSuchAlgorithmException e) {
+      // Every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+}
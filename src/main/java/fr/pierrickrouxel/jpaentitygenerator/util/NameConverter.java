@@ -1,6 +1,7 @@
 package fr.pierrickrouxel.jpaentitygenerator.util;
 
 import java.util.List;
+import java.util.Locale;
 
 import org.apache.commons.text.CaseUtils;
 import org.atteo.evo.inflector.English;
@@ -51,4 +52,15 @@ public class NameConverter {
   public static String toListFieldName(String tableName) {
     return toFieldName(English.plural(tableName));
   }
+
+  /**
+   * Get package name from schema name.
+   *
+   * @param schemaName The schema name
+   * @return The package name
+   */
+  public static String toPackageName(String schemaName) {
+    var packageName = schemaName.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9_]", "_");
+    return Character.isJavaIdentifierStart(packageName.charAt(0)) ? packageName : "_" + packageName;
+  }
 }
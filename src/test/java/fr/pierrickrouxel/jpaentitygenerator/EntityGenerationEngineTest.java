@@ -0,0 +1,47 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Key;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+
+public class EntityGenerationEngineTest {
+
+  @Test
+  public void testGenerateIsDeterministic() {
+    var tables = new ArrayList<Table>();
+    var keys = new ArrayList<Key>();
+    for (var i = 0; i < 500; i++) {
+      var table = Table.builder().name("TABLE_" + i).build();
+      table.getColumns().add(Column.builder().name("ID").typeCode(4).primaryKey(true).build());
+      table.getColumns().add(Column.builder().name("NAME").typeCode(12).columnSize(30).build());
+      if (i > 0) {
+        table.getColumns().add(Column.builder().name("PARENT_ID").typeCode(4).nullable(true).build());
+        keys.add(Key.builder().primaryKeyTableName("TABLE_" + (i - 1)).primaryKeyColumnName("ID")
+            .foreignKeyTableName("TABLE_" + i).foreignKeyColumnName("PARENT_ID").build());
+      }
+      tables.add(table);
+    }
+    var foreignKeyGraph = new ForeignKeyGraph(keys);
+    tables.forEach(o -> o.getImportedKeys().addAll(foreignKeyGraph.getImportedKeys(o.getName())));
+    var config = new EntityGeneratorConfig();
+
+    List<String> expected;
+    try (var engine = new EntityGenerationEngine(1)) {
+      expected = engine.generate(tables, foreignKeyGraph, config);
+    }
+    for (var parallelism : List.of(0, 2, 7)) {
+      try (var engine = new EntityGenerationEngine(parallelism)) {
+        assertThat(engine.generate(tables, foreignKeyGraph, config)).isEqualTo(expected);
+      }
+    }
+    assertThat(expected.get(42)).contains("public class Table42", "private Table41 table41;");
+  }
+}
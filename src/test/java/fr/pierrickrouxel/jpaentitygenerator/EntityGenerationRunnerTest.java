@@ -0,0 +1,97 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+import fr.pierrickrouxel.jpaentitygenerator.config.SnapshotMode;
+import fr.pierrickrouxel.jpaentitygenerator.output.DirectorySourceSink;
+import fr.pierrickrouxel.jpaentitygenerator.output.GeneratedSourceSink;
+
+public class EntityGenerationRunnerTest {
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  public void testRunPartitions() throws SQLException, IOException {
+    var config = getConfig(10);
+    runPartitions(config, 3);
+
+    var packageDirectory = directory.resolve("src/fr/example");
+    try (var files = Files.list(packageDirectory)) {
+      assertThat(files).hasSize(10);
+    }
+    var manifestPath = DirectorySourceSink.getManifestPath(directory.resolve("src"), "fr.example");
+    assertThat(manifestPath).exists();
+    assertThat(manifestPath.resolveSibling(manifestPath.getFileName() + ".part0")).doesNotExist();
+    assertThat(Files.readString(directory.resolve("fingerprints.properties"))).contains("TABLE_0", "TABLE_9");
+
+    // Tables dropped from the schema are deleted once all partitions are merged
+    runPartitions(getConfig(4), 3);
+    try (var files = Files.list(packageDirectory)) {
+      assertThat(files).hasSize(4);
+    }
+  }
+
+  @Test
+  public void testRunSnapshotOfSchemas() throws SQLException, IOException {
+    var jdbcSettings = JdbcSettings.builder()
+        .url("jdbc:h2:mem:runner-schemas;DB_CLOSE_DELAY=-1")
+        .schemaPattern("PUBLIC")
+        .schemas(List.of("SALES", "STOCK"))
+        .build();
+    try (var connection = DriverManager.getConnection(jdbcSettings.getUrl());
+        var statement = connection.createStatement()) {
+      for (var schema : List.of("SALES", "STOCK")) {
+        statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+        statement.execute("CREATE TABLE IF NOT EXISTS " + schema + ".item (id INTEGER PRIMARY KEY)");
+      }
+    }
+    var config = EntityGeneratorConfig.builder()
+        .jdbcSettings(jdbcSettings)
+        .snapshotMode(SnapshotMode.WRITE)
+        .snapshotPath(directory.resolve("schema.snapshot").toString())
+        .build();
+
+    var written = GeneratedSourceSink.inMemory();
+    new EntityGenerationRunner(config).run(written);
+    var read = GeneratedSourceSink.inMemory();
+    new EntityGenerationRunner(config.toBuilder().snapshotMode(SnapshotMode.READ).build()).run(read);
+
+    assertThat(read.getSources()).isEqualTo(written.getSources())
+        .containsOnlyKeys("fr.example.sales.Item", "fr.example.stock.Item");
+    assertThat(read.getSources().get("fr.example.sales.Item")).contains("schema = ", "SALES");
+  }
+
+  private void runPartitions(EntityGeneratorConfig config, int count) throws SQLException, IOException {
+    var runner = new EntityGenerationRunner(config);
+    for (var i = 0; i < count; i++) {
+      runner.runPartition(i, count);
+    }
+    runner.mergePartitions(count);
+  }
+
+  private EntityGeneratorConfig getConfig(int tableCount) throws IOException {
+    var ddl = directory.resolve("schema.sql");
+    Files.writeString(ddl, String.join(";\n", IntStream.range(0, tableCount)
+        .mapToObj(i -> "CREATE TABLE TABLE_" + i + " (ID INTEGER PRIMARY KEY)")
+        .toList()));
+    return EntityGeneratorConfig.builder()
+        .ddlScripts(List.of(ddl.toString()))
+        .outputDirectory(directory.resolve("src").toString())
+        .incremental(true)
+        .fingerprintPath(directory.resolve("fingerprints.properties").toString())
+        .build();
+  }
+}
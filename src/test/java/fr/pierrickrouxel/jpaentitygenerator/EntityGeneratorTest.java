@@ -15,6 +15,7 @@ import com.squareup.javapoet.AnnotationSpec;
 
 import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Index;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Key;
 import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
@@ -40,6 +41,36 @@ public class EntityGeneratorTest {
     assertThat(entity).isEqualTo(getExample("Article") + "\n");
   }
 
+  @Test
+  public void testRemarksAsJavadoc() {
+    var table = Table.builder().name("ARTICLE").remarks("The articles").build();
+    table.getColumns().add(Column.builder().name("ID").typeCode(4).typeName("INTEGER").primaryKey(true)
+        .remarks("The identifier").build());
+
+    var config = new EntityGeneratorConfig();
+    assertThat(EntityGenerator.getEntity(table, config)).contains("The articles", "The identifier");
+
+    config.setRemarksAsJavadoc(false);
+    assertThat(EntityGenerator.getEntity(table, config)).doesNotContain("The articles", "The identifier");
+  }
+
+  @Test
+  public void testGenerateEntityWithIdRule() {
+    var table = Table.builder().name("ARTICLE").build();
+    table.getColumns().add(Column.builder().name("CODE").typeCode(12).typeName("VARCHAR").build());
+    var id = Annotation.builder().className("jakarta.persistence.Id").build();
+    var config = EntityGeneratorConfig.builder()
+        .fieldAnnotationRules(List.of(
+            FieldAnnotationRule.builder().className("Article").fieldName("code").annotations(List.of(id)).build()))
+        .build();
+
+    var specs = new SpecRegistry();
+    assertThat(EntityGenerator.getEntityFile(table, new ForeignKeyGraph(List.of()), config, specs).toString())
+        .contains("@Id");
+    assertThat(specs.getAnnotation(id)).isSameAs(specs.getAnnotation(id));
+    assertThat(SpecRegistry.isId(specs.getAnnotation(id))).isTrue();
+  }
+
   @Test
   public void testGetClassInterfaceRules() {
     var table = Table.builder().name("ARTICLE").build();
@@ -136,6 +167,33 @@ public class EntityGeneratorTest {
             """);
   }
 
+  @Test
+  public void testGenerateWideEntity() {
+    var table = Table.builder().name("LEGACY").build();
+    table.getColumns().add(Column.builder().name("ID").typeCode(4).primaryKey(true).build());
+    for (var i = 0; i < 800; i++) {
+      table.getColumns().add(Column.builder().name("COL_" + i).typeCode(4).nullable(i % 2 == 0).build());
+      if (i % 3 == 0) {
+        table.getIndexes().add(Index.builder().name("UK_" + i).columnName("COL_" + i).build());
+      }
+      if (i % 100 == 0) {
+        table.getImportedKeys().add(Key.builder().primaryKeyTableName("PARENT_" + i).primaryKeyColumnName("ID")
+            .foreignKeyTableName("LEGACY").foreignKeyColumnName("COL_" + i).build());
+      }
+    }
+
+    var fields = EntityGenerator.getFields(table.getColumns(), "Legacy", table.getIndexes(),
+        table.getImportedKeys(), new EntityGeneratorConfig());
+    assertThat(fields).hasSize(793);
+    assertThat(fields.get(2).annotations.get(0).toString()).contains("name = \"\\\"COL_2\\\"\"", "unique = false");
+    assertThat(fields.get(3).annotations.get(0).toString()).contains("name = \"\\\"COL_3\\\"\"", "unique = true");
+
+    var manyToOneFields = EntityGenerator.getManyToOneFields(table.getImportedKeys(), table.getColumns(),
+        Collections.emptyList());
+    assertThat(manyToOneFields).hasSize(8);
+    assertThat(manyToOneFields).allMatch(o -> o.annotations.get(1).toString().contains("nullable = true"));
+  }
+
   @Test
   public void testGetManyToOneFieldWithCompositeRelationship() {
     var columns = List.of(Column.builder().name("PHONE").typeCode(4).build(),
@@ -175,6 +233,18 @@ public class EntityGeneratorTest {
         """);
   }
 
+  @Test
+  public void testGetOneToManyFieldsFromGraph() {
+    var key = Key.builder().primaryKeyTableName("BLOG").primaryKeyColumnName("ID")
+        .foreignKeyTableName("ARTICLE").foreignKeyColumnName("BLOG_ID").build();
+    var graph = new ForeignKeyGraph(List.of(key));
+
+    assertThat(EntityGenerator.getOneToManyFields("BLOG", graph, Collections.emptyList()))
+        .extracting(o -> o.name)
+        .containsExactly("articles");
+    assertThat(EntityGenerator.getOneToManyFields("ARTICLE", graph, Collections.emptyList())).isEmpty();
+  }
+
   @Test
   public void testGetFieldType() {
     assertThat(EntityGenerator.getFieldType("code", 4, "Article", Collections.emptyList()).toString())
@@ -228,6 +298,14 @@ public class EntityGeneratorTest {
         "@jakarta.persistence.Column(name = \"\\\"AVERAGE\\\"\", nullable = false, unique = false, precision = 9, scale = 2)");
   }
 
+  @Test
+  public void testGetTableAnnotationSchema() {
+    assertThat(EntityGenerator.getTableAnnotation("ARTICLE").toString())
+        .isEqualTo("@jakarta.persistence.Table(name = \"\\\"ARTICLE\\\"\")");
+    assertThat(EntityGenerator.getTableAnnotation("SALES", "ARTICLE").toString())
+        .isEqualTo("@jakarta.persistence.Table(name = \"\\\"ARTICLE\\\"\", schema = \"\\\"SALES\\\"\")");
+  }
+
   private String getExample(String entityName) throws IOException, URISyntaxException {
     var path = Paths.get(getClass().getClassLoader()
         .getResource(String.format("example/%s.java", entityName)).toURI());
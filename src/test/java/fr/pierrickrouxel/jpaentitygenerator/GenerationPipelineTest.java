@@ -0,0 +1,105 @@
+package fr.pierrickrouxel.jpaentitygenerator;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.output.GeneratedSourceSink;
+
+public class GenerationPipelineTest {
+
+  private final EntityGeneratorConfig config = EntityGeneratorConfig.builder()
+      .fetchParallelism(3)
+      .generationParallelism(2)
+      .writeParallelism(2)
+      .pipelineQueueCapacity(4)
+      .build();
+
+  private final List<List<String>> fetchUnits = IntStream.range(0, 50)
+      .mapToObj(i -> IntStream.range(0, 10).mapToObj(j -> "TABLE_" + (i * 10 + j)).toList())
+      .toList();
+
+  @Test
+  public void testRun() throws SQLException, IOException {
+    var sink = GeneratedSourceSink.inMemory();
+    try (var engine = new EntityGenerationEngine(config)) {
+      var pipeline = new GenerationPipeline(config, engine);
+      pipeline.run(fetchUnits,
+          o -> o.stream().map(this::getTable),
+          o -> engine.generateSources(o, new ForeignKeyGraph(List.of()), config),
+          sink);
+
+      assertThat(sink.getSources()).hasSize(500);
+      assertThat(sink.getSources().get("fr.example.Table42")).contains("public class Table42");
+      assertThat(pipeline.getMetrics())
+          .allSatisfy(o -> assertThat(o.getItems()).isEqualTo(500))
+          .allSatisfy(o -> assertThat(o.getPeakQueueSize()).isLessThanOrEqualTo(o.getQueueCapacity()));
+    }
+  }
+
+  @Test
+  public void testFetchParallelismIsBoundedByPool() {
+    var pooledConfig = config.toBuilder()
+        .fetchParallelism(16)
+        .jdbcSettings(JdbcSettings.builder().url("jdbc:h2:mem:").maxPoolSize(2).build())
+        .build();
+    try (var engine = new EntityGenerationEngine(pooledConfig)) {
+      var pipeline = new GenerationPipeline(pooledConfig, engine);
+      assertThat(pipeline.getMetrics().getFirst().getParallelism()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  public void testRunFetchFailures() {
+    var sink = GeneratedSourceSink.inMemory();
+    try (var engine = new EntityGenerationEngine(config)) {
+      var pipeline = new GenerationPipeline(config, engine);
+      assertThatThrownBy(() -> pipeline.run(fetchUnits,
+          o -> {
+            if (o.contains("TABLE_250") || o.contains("TABLE_420")) {
+              throw new SQLException("Connection lost");
+            }
+            return o.stream().map(this::getTable);
+          },
+          o -> engine.generateSources(o, new ForeignKeyGraph(List.of()), config),
+          sink))
+          .isInstanceOf(SQLException.class)
+          .hasMessage("Failed to fetch metadata for tables [TABLE_250, TABLE_420]")
+          .satisfies(o -> assertThat(o.getSuppressed()).hasSize(2));
+
+      // The other tables of the failed units are still generated
+      assertThat(sink.getSources()).hasSize(498).containsKey("fr.example.Table251");
+    }
+  }
+
+  @Test
+  public void testRunFailure() {
+    try (var engine = new EntityGenerationEngine(config)) {
+      var pipeline = new GenerationPipeline(config, engine);
+      assertThatThrownBy(() -> pipeline.run(fetchUnits,
+          o -> o.stream().map(this::getTable),
+          o -> engine.generateSources(o, new ForeignKeyGraph(List.of()), config),
+          o -> {
+            throw new IOException("Disk full");
+          }))
+          .isInstanceOf(IOException.class)
+          .hasMessage("Disk full");
+    }
+  }
+
+  private Table getTable(String tableName) {
+    var table = Table.builder().name(tableName).build();
+    table.getColumns().add(Column.builder().name("ID").typeCode(4).primaryKey(true).build());
+    return table;
+  }
+}
@@ -1,5 +1,6 @@
 package fr.pierrickrouxel.jpaentitygenerator.config;
 
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -50,4 +51,17 @@ public class CodeGeneratorConfigTest {
     assertThat(replaceEnvVariables("${" + k1 + "}${" + k2 + "}", environment).equals(v1 + v2)).isTrue();
   }
 
+  @Test
+  public void testForSchema() {
+    var config = EntityGeneratorConfig.builder()
+        .packageName("com.example")
+        .fingerprintPath("build/fingerprints.properties")
+        .build();
+    var schemaConfig = config.forSchema("Sales-2024");
+
+    assertThat(schemaConfig.getPackageName()).isEqualTo("com.example.sales_2024");
+    assertThat(schemaConfig.getFingerprintPath()).isEqualTo(Paths.get("build/Sales-2024-fingerprints.properties").toString());
+    assertThat(config.getPackageName()).isEqualTo("com.example");
+  }
+
 }
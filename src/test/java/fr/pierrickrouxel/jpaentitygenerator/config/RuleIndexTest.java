@@ -0,0 +1,115 @@
+package fr.pierrickrouxel.jpaentitygenerator.config;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.PatternSyntaxException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.FieldTypeRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.TableExclusionRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.TableScanRule;
+
+public class RuleIndexTest {
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  public void testGetClassRules() {
+    var all = Annotation.builder().className("All").build();
+    var article = Annotation.builder().className("Article").build();
+    var blog = Annotation.builder().className("Blog").build();
+    var config = EntityGeneratorConfig.builder()
+        .classAnnotationRules(List.of(
+            ClassAnnotationRule.builder().annotations(List.of(all)).build(),
+            ClassAnnotationRule.builder().className("Article").annotations(List.of(article)).build(),
+            ClassAnnotationRule.builder().classNames(List.of("Comment", "Blog.*")).annotations(List.of(blog)).build()))
+        .build();
+    var ruleIndex = config.getRuleIndex();
+
+    assertThat(ruleIndex.getClassRules("Article").annotations()).containsExactly(all, article);
+    assertThat(ruleIndex.getClassRules("BlogPost").annotations()).containsExactly(all, blog);
+    assertThat(ruleIndex.getClassRules("Tag").annotations()).containsExactly(all);
+    assertThat(ruleIndex.getClassRules("Article")).isSameAs(ruleIndex.getClassRules("Article"));
+    assertThat(config.getRuleIndex()).isSameAs(ruleIndex);
+  }
+
+  @Test
+  public void testGetFieldRules() {
+    var name = Annotation.builder().className("Name").build();
+    var config = EntityGeneratorConfig.builder()
+        .fieldTypeRules(List.of(
+            FieldTypeRule.builder().fieldName("createdAt").typeName("java.time.Instant").build(),
+            FieldTypeRule.builder().fieldNames(List.of(".*At")).typeName("java.time.LocalDateTime").build()))
+        .fieldAnnotationRules(List.of(
+            FieldAnnotationRule.builder().className("Article").annotations(List.of(name)).build(),
+            FieldAnnotationRule.builder().className("Article").fieldName("name").annotations(List.of(name)).build()))
+        .build();
+    var ruleIndex = config.getRuleIndex();
+
+    assertThat(ruleIndex.getFieldRules("Article", "createdAt").typeName()).isEqualTo("java.time.Instant");
+    assertThat(ruleIndex.getFieldRules("Article", "updatedAt").typeName()).isEqualTo("java.time.LocalDateTime");
+    assertThat(ruleIndex.getFieldRules("Article", "name").typeName()).isNull();
+    // Field rules without field name match no field
+    assertThat(ruleIndex.getFieldRules("Article", "name").annotations()).containsExactly(name);
+    assertThat(ruleIndex.getFieldRules("Blog", "name").annotations()).isEmpty();
+  }
+
+  @Test
+  public void testIsTableIncluded() {
+    var scanRule = new TableScanRule();
+    scanRule.setTableName("ARTICLE.*");
+    var exclusionRule = new TableExclusionRule();
+    exclusionRule.setTableNames(List.of("ARTICLE_TMP"));
+    var config = EntityGeneratorConfig.builder()
+        .tableScanRules(List.of(scanRule))
+        .tableExclusionRules(List.of(exclusionRule))
+        .build();
+    var ruleIndex = config.getRuleIndex();
+
+    assertThat(ruleIndex.isTableIncluded("ARTICLE")).isTrue();
+    assertThat(ruleIndex.isTableIncluded("ARTICLE_TAG")).isTrue();
+    assertThat(ruleIndex.isTableIncluded("ARTICLE_TMP")).isFalse();
+    assertThat(ruleIndex.isTableIncluded("BLOG")).isFalse();
+  }
+
+  @Test
+  public void testCompileWithConfig() {
+    var config = EntityGeneratorConfig.builder()
+        .fieldTypeRules(new ArrayList<>(List.of(
+            FieldTypeRule.builder().fieldName("createdAt").typeName("java.time.Instant").build())))
+        .build();
+    var ruleIndex = config.getRuleIndex();
+
+    // Rules changed once the config is built are compiled by a new config only
+    config.getFieldTypeRules()
+        .add(FieldTypeRule.builder().fieldName("updatedAt").typeName("java.time.Instant").build());
+    assertThat(config.getRuleIndex()).isSameAs(ruleIndex);
+    assertThat(ruleIndex.getFieldRules("Article", "updatedAt").typeName()).isNull();
+    assertThat(config.toBuilder().build().getRuleIndex().getFieldRules("Article", "updatedAt").typeName())
+        .isEqualTo("java.time.Instant");
+  }
+
+  @Test
+  public void testInvalidPattern() throws IOException {
+    var path = directory.resolve("jpa-entity-generator.yaml");
+    Files.writeString(path, """
+        classAnnotationRules:
+          - className: "Article("
+        """);
+
+    assertThatThrownBy(() -> EntityGeneratorConfig.load(path.toString(), Map.of()))
+        .isInstanceOf(PatternSyntaxException.class);
+  }
+}
@@ -0,0 +1,43 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAnnotationRule;
+
+public class GenerationFingerprintTest {
+
+  @Test
+  public void testOfConfig() {
+    var config = getConfig("secret");
+    var fingerprint = GenerationFingerprint.ofConfig(config);
+
+    assertThat(GenerationFingerprint.ofConfig(getConfig("secret"))).isEqualTo(fingerprint);
+    assertThat(GenerationFingerprint.ofConfig(getConfig("other"))).isEqualTo(fingerprint);
+    assertThat(config.getJdbcSettings().getPassword()).isEqualTo("secret");
+
+    config.getClassAnnotationRules().add(ClassAnnotationRule.builder()
+        .annotations(List.of(Annotation.builder().className("Audited").build())).build());
+    assertThat(GenerationFingerprint.ofConfig(config)).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void testOfSchema() {
+    var fingerprint = GenerationFingerprint.ofSchema(Map.of("ARTICLE", "a", "BLOG", "b"));
+
+    assertThat(GenerationFingerprint.ofSchema(Map.of("BLOG", "b", "ARTICLE", "a"))).isEqualTo(fingerprint);
+    assertThat(GenerationFingerprint.ofSchema(Map.of("ARTICLE", "a"))).isNotEqualTo(fingerprint);
+  }
+
+  private static EntityGeneratorConfig getConfig(String password) {
+    var config = new EntityGeneratorConfig();
+    config.setJdbcSettings(JdbcSettings.builder().url("jdbc:h2:mem:blog").password(password).build());
+    return config;
+  }
+}
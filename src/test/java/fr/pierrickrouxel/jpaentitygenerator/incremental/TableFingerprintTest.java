@@ -0,0 +1,116 @@
+package fr.pierrickrouxel.jpaentitygenerator.incremental;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Index;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Key;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+import fr.pierrickrouxel.jpaentitygenerator.rule.Annotation;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassAnnotationRule;
+import fr.pierrickrouxel.jpaentitygenerator.rule.ClassNameRule;
+
+public class TableFingerprintTest {
+
+  private final Key key = Key.builder().primaryKeyTableName("BLOG").primaryKeyColumnName("ID")
+      .foreignKeyTableName("ARTICLE").foreignKeyColumnName("BLOG_ID").build();
+
+  @TempDir
+  private Path directory;
+
+  @Test
+  public void testFingerprintColumns() {
+    var graph = new ForeignKeyGraph(List.of(key));
+    var table = getTable();
+    var fingerprint = TableFingerprint.of(table, graph, new EntityGeneratorConfig());
+
+    assertThat(TableFingerprint.of(getTable(), graph, new EntityGeneratorConfig())).isEqualTo(fingerprint);
+
+    table.getColumns().add(Column.builder().name("NAME").typeCode(12).build());
+    assertThat(TableFingerprint.of(table, graph, new EntityGeneratorConfig())).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void testFingerprintFields() {
+    var graph = new ForeignKeyGraph(List.of(key));
+    var fingerprint = TableFingerprint.of(getTable(), graph, new EntityGeneratorConfig());
+
+    var table = getTable();
+    table.getColumns().getFirst().setRemarks("The identifier");
+    assertThat(TableFingerprint.of(table, graph, new EntityGeneratorConfig())).isNotEqualTo(fingerprint);
+
+    table = getTable();
+    table.getIndexes().add(Index.builder().name("IDX_ARTICLE").columnName("ID").nonUnique(true).build());
+    assertThat(TableFingerprint.of(table, graph, new EntityGeneratorConfig())).isNotEqualTo(fingerprint);
+
+    var otherKey = Key.builder().primaryKeyTableName("BLOG").primaryKeyColumnName("ID")
+        .foreignKeyTableName("ARTICLE").foreignKeyColumnName("AUTHOR_ID").build();
+    assertThat(TableFingerprint.of(getTable(), new ForeignKeyGraph(List.of(otherKey)), new EntityGeneratorConfig()))
+        .isNotEqualTo(fingerprint);
+
+    // Constraint names are not generated from
+    var namedKey = Key.builder().primaryKeyTableName("BLOG").primaryKeyColumnName("ID")
+        .foreignKeyName("FK_ARTICLE_BLOG").foreignKeyTableName("ARTICLE").foreignKeyColumnName("BLOG_ID").build();
+    assertThat(TableFingerprint.of(getTable(), new ForeignKeyGraph(List.of(namedKey)), new EntityGeneratorConfig()))
+        .isEqualTo(fingerprint);
+  }
+
+  @Test
+  public void testFingerprintRules() {
+    var graph = new ForeignKeyGraph(List.of(key));
+    var fingerprint = TableFingerprint.of(getTable(), graph, new EntityGeneratorConfig());
+
+    var blogRule = ClassAnnotationRule.builder().className("Blog")
+        .annotations(List.of(Annotation.builder().className("Deprecated").build())).build();
+    var blogConfig = EntityGeneratorConfig.builder().classAnnotationRules(List.of(blogRule)).build();
+    assertThat(TableFingerprint.of(getTable(), graph, blogConfig)).isEqualTo(fingerprint);
+
+    var articleRule = ClassAnnotationRule.builder().className("Article")
+        .annotations(List.of(Annotation.builder().className("Deprecated").build())).build();
+    var articleConfig = EntityGeneratorConfig.builder().classAnnotationRules(List.of(articleRule)).build();
+    assertThat(TableFingerprint.of(getTable(), graph, articleConfig)).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void testFingerprintNeighbours() {
+    var graph = new ForeignKeyGraph(List.of(key));
+    var fingerprint = TableFingerprint.of(getTable(), graph, new EntityGeneratorConfig());
+
+    assertThat(TableFingerprint.of(getTable(), new ForeignKeyGraph(List.of()), new EntityGeneratorConfig()))
+        .isNotEqualTo(fingerprint);
+
+    var classNameRule = new ClassNameRule();
+    classNameRule.setTableName("BLOG");
+    classNameRule.setClassName("BlogPost");
+    var config = EntityGeneratorConfig.builder().classNameRules(List.of(classNameRule)).build();
+    assertThat(TableFingerprint.of(getTable(), graph, config)).isNotEqualTo(fingerprint);
+  }
+
+  @Test
+  public void testFingerprintStore() throws IOException {
+    var path = directory.resolve("fingerprints.properties");
+
+    var store = FingerprintStore.load(path);
+    assertThat(store.isChanged("ARTICLE", "1")).isTrue();
+    store.save();
+
+    store = FingerprintStore.load(path);
+    assertThat(store.isChanged("ARTICLE", "1")).isFalse();
+    assertThat(store.isChanged("ARTICLE", "2")).isTrue();
+  }
+
+  private Table getTable() {
+    var table = Table.builder().name("ARTICLE").build();
+    table.getColumns().add(Column.builder().name("ID").typeCode(4).primaryKey(true).build());
+    table.getColumns().add(Column.builder().name("BLOG_ID").typeCode(4).build());
+    return table;
+  }
+}
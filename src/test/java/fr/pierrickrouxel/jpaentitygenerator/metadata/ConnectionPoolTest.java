@@ -0,0 +1,49 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.TestDatabase;
+
+public class ConnectionPoolTest {
+
+  @Test
+  public void testReuseConnection() throws SQLException {
+    try (var pool = new ConnectionPool(TestDatabase.jdbcSettings)) {
+      Connection first;
+      try (var connection = pool.getConnection()) {
+        first = connection.unwrap(Connection.class);
+      }
+      try (var connection = pool.getConnection()) {
+        assertThat(connection.unwrap(Connection.class)).isSameAs(first);
+      }
+      assertThat(first.isClosed()).isFalse();
+    }
+  }
+
+  @Test
+  public void testReleasedConnectionIsClosed() throws SQLException {
+    try (var pool = new ConnectionPool(TestDatabase.jdbcSettings)) {
+      var connection = pool.getConnection();
+      connection.close();
+      assertThat(connection.isClosed()).isTrue();
+      assertThatThrownBy(connection::getMetaData).isInstanceOf(SQLException.class);
+    }
+  }
+
+  @Test
+  public void testClose() throws SQLException {
+    var pool = new ConnectionPool(TestDatabase.jdbcSettings);
+    Connection physical;
+    try (var connection = pool.getConnection()) {
+      physical = connection.unwrap(Connection.class);
+    }
+    pool.close();
+    assertThat(physical.isClosed()).isTrue();
+    assertThatThrownBy(pool::getConnection).isInstanceOf(SQLException.class);
+  }
+}
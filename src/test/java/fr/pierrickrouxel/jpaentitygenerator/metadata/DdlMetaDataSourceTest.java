@@ -0,0 +1,195 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.sql.Types;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.TestDatabase;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+
+public class DdlMetaDataSourceTest {
+
+  private static final JdbcSettings jdbcOnlySettings = JdbcSettings.builder()
+      .url(TestDatabase.jdbcSettings.getUrl())
+      .schemaPattern(TestDatabase.jdbcSettings.getSchemaPattern())
+      .metadataDialect(MetadataDialect.JDBC)
+      .build();
+
+  private final TableMetaDataFetcher fetcher = new TableMetaDataFetcher(jdbcOnlySettings);
+
+  @BeforeAll
+  public static void setupDatabase() throws SQLException {
+    TestDatabase.init();
+  }
+
+  @AfterEach
+  public void closeFetcher() {
+    fetcher.close();
+  }
+
+  @Test
+  public void testGetTables() throws SQLException {
+    var source = DdlMetaDataSource.parse(String.join(";\n", TestDatabase.statements));
+    assertThat(source.getTableNames()).hasSameElementsAs(fetcher.getTableNames());
+
+    for (var tableName : source.getTableNames()) {
+      var table = source.getTable(tableName);
+      var expected = fetcher.getTable(tableName);
+
+      assertThat(table.getColumns())
+          .extracting(Column::getName, Column::getTypeCode, Column::isNullable, Column::isPrimaryKey,
+              Column::isAutoIncrement)
+          .containsExactlyElementsOf(expected.getColumns().stream()
+              .map(o -> tuple(o.getName(), o.getTypeCode(), o.isNullable(), o.isPrimaryKey(), o.isAutoIncrement()))
+              .toList());
+      assertThat(table.getImportedKeys())
+          .extracting(Key::getPrimaryKeyTableName, Key::getPrimaryKeyColumnName, Key::getForeignKeyTableName,
+              Key::getForeignKeyColumnName)
+          .containsExactlyInAnyOrderElementsOf(expected.getImportedKeys().stream()
+              .map(o -> tuple(o.getPrimaryKeyTableName(), o.getPrimaryKeyColumnName(), o.getForeignKeyTableName(),
+                  o.getForeignKeyColumnName()))
+              .toList());
+      assertThat(table.getIndexes().stream().filter(o -> !o.isNonUnique()).map(Index::getColumnName))
+          .hasSameElementsAs(expected.getIndexes().stream().filter(o -> !o.isNonUnique()).map(Index::getColumnName)
+              .toList());
+    }
+
+    assertThat(source.getTable("ARTICLE").getColumns().get(1).getRemarks()).isEqualTo("database comment for blog_id");
+  }
+
+  @Test
+  public void testParse() throws SQLException {
+    var source = DdlMetaDataSource.parse("""
+        -- Authors; with a semicolon in a comment
+        CREATE TABLE app."Author" (
+          id BIGSERIAL,
+          first_name CHARACTER VARYING(50) NOT NULL DEFAULT 'none;',
+          rate NUMERIC(5, 2) DEFAULT NULL,
+          bio TEXT,
+          CONSTRAINT pk_author PRIMARY KEY (id)
+        ) ENGINE=InnoDB COMMENT='The authors';
+        INSERT INTO app."Author" (first_name) VALUES ('a;b');
+        CREATE TABLE book (
+          id INTEGER NOT NULL,
+          author_id BIGINT REFERENCES "Author" ON DELETE SET NULL,
+          title VARCHAR(100) NOT NULL
+        );
+        ALTER TABLE book ADD PRIMARY KEY (id);
+        CREATE UNIQUE INDEX uk_book_title ON book (lower(title), title);
+        COMMENT ON COLUMN app.book.title IS 'The title';
+        """);
+
+    assertThat(source.getTableNames()).containsExactly("Author", "BOOK");
+
+    var author = source.getTable("Author");
+    assertThat(author.getSchema()).isEqualTo("APP");
+    assertThat(author.getRemarks()).isEqualTo("The authors");
+    assertThat(author.getColumns())
+        .extracting(Column::getName, Column::getTypeCode, Column::getTypeName, Column::getColumnSize,
+            Column::getDecimalDigits, Column::isNullable, Column::isPrimaryKey, Column::isAutoIncrement)
+        .containsExactly(
+            tuple("ID", Types.BIGINT, "BIGSERIAL", 0, 0, false, true, true),
+            tuple("FIRST_NAME", Types.VARCHAR, "CHARACTER VARYING", 50, 0, false, false, false),
+            tuple("RATE", Types.NUMERIC, "NUMERIC", 5, 2, true, false, false),
+            tuple("BIO", Types.CLOB, "TEXT", Integer.MAX_VALUE, 0, true, false, false));
+
+    var book = source.getTable("BOOK");
+    assertThat(book.getColumns().get(1).isNullable()).isTrue();
+    assertThat(book.getColumns().get(2).getRemarks()).isEqualTo("The title");
+    assertThat(book.getIndexes())
+        .extracting(Index::getName, Index::getColumnName, Index::isNonUnique)
+        .containsExactly(tuple(null, "ID", false), tuple("UK_BOOK_TITLE", "TITLE", false));
+    assertThat(book.getImportedKeys())
+        .containsExactly(Key.builder()
+            .primaryKeyName("PK_AUTHOR")
+            .primaryKeyTableName("Author")
+            .primaryKeyColumnName("ID")
+            .foreignKeyName(null)
+            .foreignKeyTableName("BOOK")
+            .foreignKeyColumnName("AUTHOR_ID")
+            .build());
+    assertThat(author.getExportedKeys()).isEqualTo(book.getImportedKeys());
+    assertThat(source.getForeignKeyGraph().getNeighbours("BOOK")).containsExactly("Author");
+  }
+
+  @Test
+  public void testParseSchemas() throws SQLException {
+    var source = DdlMetaDataSource.parse("""
+        CREATE TABLE sales.item (id INTEGER PRIMARY KEY, name VARCHAR(30));
+        CREATE TABLE stock.item (id INTEGER PRIMARY KEY, quantity INTEGER);
+        CREATE TABLE stock.location (id INTEGER PRIMARY KEY, item_id INTEGER REFERENCES stock.item (id));
+        CREATE INDEX idx_quantity ON stock.item (quantity);
+        CREATE INDEX idx_unknown ON stock.unknown (id);
+        COMMENT ON TABLE sales.item IS 'Sold items';
+        """);
+
+    assertThat(source.getTableNames()).containsExactly("ITEM", "LOCATION");
+    assertThatThrownBy(() -> source.getTable("ITEM"))
+        .isInstanceOf(SQLException.class)
+        .hasMessageContaining("[SALES, STOCK]");
+
+    var sales = source.forSchema("SALES");
+    assertThat(sales.getTableNames()).containsExactly("ITEM");
+    assertThat(sales.getTable("ITEM").getRemarks()).isEqualTo("Sold items");
+    assertThat(sales.getTable("ITEM").getIndexes()).extracting(Index::getColumnName).containsExactly("ID");
+    assertThat(sales.getForeignKeyGraph().getKeys()).isEmpty();
+
+    var stock = source.forSchema("STOCK");
+    assertThat(stock.getTableNames()).containsExactly("ITEM", "LOCATION");
+    var item = stock.getTable("ITEM");
+    assertThat(item.getSchema()).isEqualTo("STOCK");
+    assertThat(item.getRemarks()).isNull();
+    assertThat(item.getColumns()).extracting(Column::getName).containsExactly("ID", "QUANTITY");
+    assertThat(item.getIndexes()).extracting(Index::getColumnName).containsExactly("ID", "QUANTITY");
+    assertThat(item.getExportedKeys()).extracting(Key::getForeignKeyTableName).containsExactly("LOCATION");
+  }
+
+  @Test
+  public void testParseKeywordColumns() throws SQLException {
+    var source = DdlMetaDataSource.parse("""
+        CREATE TABLE setting (
+          key VARCHAR(20) PRIMARY KEY,
+          index INTEGER,
+          KEY idx_index (index),
+          INDEX USING BTREE (key)
+        );
+        """);
+
+    var setting = source.getTable("SETTING");
+    assertThat(setting.getColumns()).extracting(Column::getName, Column::getTypeName)
+        .containsExactly(tuple("KEY", "VARCHAR"), tuple("INDEX", "INTEGER"));
+    assertThat(setting.getIndexes()).extracting(Index::getName, Index::getColumnName, Index::isNonUnique)
+        .containsExactly(tuple(null, "KEY", false), tuple("IDX_INDEX", "INDEX", true), tuple(null, "KEY", true));
+  }
+
+  @Test
+  public void testSyntaxError() {
+    assertThatThrownBy(() -> DdlMetaDataSource.parse("CREATE TABLE a (id INTEGER);\nCREATE TABLE b (id INTEGER"))
+        .isInstanceOf(SQLSyntaxErrorException.class)
+        .hasMessageContaining("line 2");
+  }
+
+  @Test
+  public void testParseManyStatements() throws SQLException {
+    var script = new StringBuilder();
+    for (var i = 0; i < 5_000; i++) {
+      script.append("CREATE TABLE t").append(i).append(" (id INTEGER PRIMARY KEY, parent_id INTEGER")
+          .append(i > 0 ? " REFERENCES t" + (i - 1) + "(id)" : "").append(", name VARCHAR(30));\n");
+    }
+
+    var source = DdlMetaDataSource.parse(script.toString());
+    assertThat(source.getTableNames()).hasSize(5_000);
+    assertThat(source.getForeignKeyGraph().getKeys()).hasSize(4_999);
+    assertThat(source.getTable("T42").getImportedKeys())
+        .extracting(Key::getPrimaryKeyTableName)
+        .isEqualTo(List.of("T41"));
+  }
+}
@@ -0,0 +1,117 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.TestDatabase;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+
+public class H2MetadataDialectTest {
+
+  private static final JdbcSettings jdbcOnlySettings = JdbcSettings.builder()
+      .url(TestDatabase.jdbcSettings.getUrl())
+      .schemaPattern(TestDatabase.jdbcSettings.getSchemaPattern())
+      .metadataDialect(MetadataDialect.JDBC)
+      .build();
+
+  private final TableMetaDataFetcher dialectFetcher = new TableMetaDataFetcher(TestDatabase.jdbcSettings);
+  private final TableMetaDataFetcher jdbcFetcher = new TableMetaDataFetcher(jdbcOnlySettings);
+
+  @BeforeAll
+  public static void setupDatabase() throws SQLException {
+    TestDatabase.init();
+    try (var connection = DriverManager.getConnection(TestDatabase.jdbcSettings.getUrl());
+        var statement = connection.createStatement()) {
+      statement.execute("CREATE SCHEMA IF NOT EXISTS dialect_a");
+      statement.execute("CREATE SCHEMA IF NOT EXISTS dialect_b");
+      statement.execute("CREATE TABLE IF NOT EXISTS dialect_a.types (" +
+          "id BIGINT PRIMARY KEY NOT NULL, " +
+          "code UUID, " +
+          "hash BINARY(16), " +
+          "content VARBINARY(100), " +
+          "payload JAVA_OBJECT, " +
+          "active BOOLEAN, " +
+          "birth_date DATE, " +
+          "opening_time TIME, " +
+          "updated_at TIMESTAMP(3), " +
+          "zoned_at TIMESTAMP WITH TIME ZONE, " +
+          "amount NUMERIC(9,2), " +
+          "ratio DOUBLE PRECISION, " +
+          "label VARCHAR(20)" +
+          ")");
+      statement.execute("CREATE TABLE IF NOT EXISTS dialect_b.types (id INTEGER PRIMARY KEY NOT NULL)");
+    }
+  }
+
+  @AfterEach
+  public void closeFetchers() {
+    dialectFetcher.close();
+    jdbcFetcher.close();
+  }
+
+  @Test
+  public void testFind() {
+    assertThat(MetadataDialect.find(TestDatabase.jdbcSettings)).containsInstanceOf(H2MetadataDialect.class);
+    assertThat(MetadataDialect.find(jdbcOnlySettings)).isEmpty();
+    assertThat(MetadataDialect.find(JdbcSettings.builder().url("jdbc:unknown:test").build())).isEmpty();
+    assertThatThrownBy(() -> MetadataDialect.find(JdbcSettings.builder().metadataDialect("unknown").build()))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  public void testGetTableNames() throws SQLException {
+    assertThat(dialectFetcher.getTableNames()).hasSameElementsAs(jdbcFetcher.getTableNames());
+  }
+
+  @Test
+  public void testGetTableChecksums() throws SQLException {
+    var checksums = dialectFetcher.getTableChecksums();
+    assertThat(checksums).isPresent();
+    assertThat(checksums.get()).containsOnlyKeys(dialectFetcher.getTableNames());
+    assertThat(checksums.get().values()).doesNotHaveDuplicates();
+    assertThat(dialectFetcher.getTableChecksums()).isEqualTo(checksums);
+    assertThat(jdbcFetcher.getTableChecksums()).isEmpty();
+  }
+
+  @Test
+  public void testGetTables() throws SQLException {
+    var tableNames = jdbcFetcher.getTableNames();
+    var tables = dialectFetcher.getTables(tableNames);
+
+    for (var table : tables) {
+      var expected = jdbcFetcher.getTable(table.getName());
+      assertThat(table.getColumns()).containsExactlyElementsOf(expected.getColumns());
+      assertThat(table.getImportedKeys()).containsExactlyInAnyOrderElementsOf(expected.getImportedKeys());
+      assertThat(table.getExportedKeys()).containsExactlyInAnyOrderElementsOf(expected.getExportedKeys());
+      assertThat(table.getIndexes()).containsExactlyInAnyOrderElementsOf(expected.getIndexes());
+    }
+  }
+
+  @Test
+  public void testGetTablesColumnSizes() throws SQLException {
+    try (var dialectSchemaFetcher = dialectFetcher.forSchema("DIALECT_A");
+        var jdbcSchemaFetcher = jdbcFetcher.forSchema("DIALECT_A")) {
+      var table = dialectSchemaFetcher.getTable("TYPES");
+      var expected = jdbcSchemaFetcher.getTable("TYPES");
+      assertThat(table.getColumns()).hasSize(13).containsExactlyElementsOf(expected.getColumns());
+    }
+  }
+
+  @Test
+  public void testGetTablesOfSeveralSchemas() throws SQLException {
+    var settings = TestDatabase.jdbcSettings.toBuilder().schemaPattern("DIALECT_%").build();
+    try (var fetcher = new TableMetaDataFetcher(settings)) {
+      assertThat(fetcher.getTableNames()).containsExactly("TYPES");
+      assertThatThrownBy(() -> fetcher.getTables(List.of("TYPES")))
+          .isInstanceOf(SQLException.class)
+          .hasMessageContaining("[DIALECT_A, DIALECT_B]");
+    }
+  }
+}
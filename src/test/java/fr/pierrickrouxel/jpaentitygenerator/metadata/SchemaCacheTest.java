@@ -0,0 +1,96 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+
+public class SchemaCacheTest {
+
+  private static final JdbcSettings jdbcSettings = JdbcSettings.builder()
+      .url("jdbc:h2:mem:schema-cache;DB_CLOSE_DELAY=-1")
+      .driverClassName("org.h2.Driver")
+      .schemaPattern("PUBLIC")
+      .build();
+
+  private final SchemaCache schemaCache = new SchemaCache();
+
+  @BeforeEach
+  public void setupDatabase() throws SQLException {
+    execute("DROP ALL OBJECTS",
+        "CREATE TABLE blog (id INTEGER PRIMARY KEY NOT NULL, name VARCHAR(30))");
+  }
+
+  @Test
+  public void testShareTables() throws SQLException {
+    try (var sharedMetadata = new SharedMetadata(schemaCache, Duration.ZERO);
+        var first = sharedMetadata.openFetcher(jdbcSettings, FetchProfile.FULL);
+        var second = sharedMetadata.openFetcher(jdbcSettings, FetchProfile.FULL)) {
+      var table = sharedMetadata.cache(first).getTable("BLOG");
+
+      assertThat(sharedMetadata.cache(second).getTable("BLOG")).isSameAs(table);
+      assertThat(schemaCache.size()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void testCacheStreamedTables() throws SQLException {
+    execute("CREATE TABLE article (id INTEGER PRIMARY KEY NOT NULL, blog_id INTEGER)");
+    try (var fetcher = new TableMetaDataFetcher(jdbcSettings)) {
+      var blog = schemaCache.get(fetcher, Duration.ofHours(1)).getTable("BLOG");
+
+      List<Table> tables;
+      try (var stream = schemaCache.get(fetcher, Duration.ofHours(1)).streamTables(List.of("ARTICLE", "BLOG"))) {
+        tables = stream.toList();
+      }
+      assertThat(tables).extracting(Table::getName).containsExactly("ARTICLE", "BLOG");
+      assertThat(tables.get(1)).isSameAs(blog);
+      assertThat(schemaCache.get(fetcher, Duration.ofHours(1)).getTable("ARTICLE")).isSameAs(tables.get(0));
+    }
+  }
+
+  @Test
+  public void testInvalidateChangedSchema() throws SQLException {
+    try (var fetcher = new TableMetaDataFetcher(jdbcSettings)) {
+      assertThat(getColumnNames(schemaCache.get(fetcher, Duration.ofHours(1)))).containsExactly("ID", "NAME");
+
+      execute("ALTER TABLE blog ADD COLUMN created_at TIMESTAMP");
+
+      assertThat(getColumnNames(schemaCache.get(fetcher, Duration.ofHours(1))))
+          .containsExactly("ID", "NAME", "CREATED_AT");
+    }
+  }
+
+  @Test
+  public void testExpireSchemaWithoutChecksums() throws SQLException {
+    var jdbcMetadataSettings = jdbcSettings.toBuilder().metadataDialect("jdbc").build();
+    try (var fetcher = new TableMetaDataFetcher(jdbcMetadataSettings)) {
+      getColumnNames(schemaCache.get(fetcher, Duration.ofHours(1)));
+
+      execute("ALTER TABLE blog ADD COLUMN created_at TIMESTAMP");
+
+      assertThat(getColumnNames(schemaCache.get(fetcher, Duration.ofHours(1)))).containsExactly("ID", "NAME");
+      assertThat(getColumnNames(schemaCache.get(fetcher, Duration.ZERO)))
+          .containsExactly("ID", "NAME", "CREATED_AT");
+    }
+  }
+
+  private static List<String> getColumnNames(MetaDataSource metaDataSource) throws SQLException {
+    return metaDataSource.getTable("BLOG").getColumns().stream().map(Column::getName).toList();
+  }
+
+  private static void execute(String... statements) throws SQLException {
+    try (var connection = DriverManager.getConnection(jdbcSettings.getUrl());
+        var statement = connection.createStatement()) {
+      for (var sql : statements) {
+        statement.execute(sql);
+      }
+    }
+  }
+}
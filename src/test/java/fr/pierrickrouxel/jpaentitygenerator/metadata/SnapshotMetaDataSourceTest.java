@@ -0,0 +1,107 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import fr.pierrickrouxel.jpaentitygenerator.TestDatabase;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+
+public class SnapshotMetaDataSourceTest {
+
+  private final TableMetaDataFetcher fetcher = new TableMetaDataFetcher(TestDatabase.jdbcSettings);
+
+  @TempDir
+  private Path directory;
+
+  @BeforeAll
+  public static void setupDatabase() throws SQLException {
+    TestDatabase.init();
+  }
+
+  @AfterEach
+  public void closeFetcher() {
+    fetcher.close();
+  }
+
+  @Test
+  public void testReadSnapshot() throws SQLException, IOException {
+    var path = directory.resolve("schema.snapshot");
+    fetcher.writeSnapshot(path);
+
+    try (var snapshot = SnapshotMetaDataSource.open(path)) {
+      assertThat(snapshot.getTableNames()).containsExactlyElementsOf(fetcher.getTableNames());
+      for (var tableName : fetcher.getTableNames()) {
+        assertThat(snapshot.getTable(tableName)).isEqualTo(fetcher.getTable(tableName));
+      }
+      assertThat(snapshot.getForeignKeyGraph().getKeys())
+          .containsExactlyElementsOf(fetcher.getForeignKeyGraph().getKeys());
+    }
+  }
+
+  @Test
+  public void testReadSnapshotOfSchemas() throws SQLException, IOException {
+    var settings = JdbcSettings.builder()
+        .url("jdbc:h2:mem:snapshot-schemas;DB_CLOSE_DELAY=-1")
+        .schemaPattern("PUBLIC")
+        .build();
+    try (var connection = DriverManager.getConnection(settings.getUrl());
+        var statement = connection.createStatement()) {
+      statement.execute("CREATE SCHEMA IF NOT EXISTS sales");
+      statement.execute("CREATE SCHEMA IF NOT EXISTS stock");
+      statement.execute("CREATE TABLE IF NOT EXISTS sales.item (id INTEGER PRIMARY KEY, name VARCHAR(30))");
+      statement.execute("CREATE TABLE IF NOT EXISTS stock.item (id INTEGER PRIMARY KEY, quantity INTEGER)");
+      statement.execute("CREATE TABLE IF NOT EXISTS stock.location (id INTEGER PRIMARY KEY, "
+          + "item_id INTEGER REFERENCES stock.item (id))");
+    }
+
+    var path = directory.resolve("schemas.snapshot");
+    try (var schemaFetcher = new TableMetaDataFetcher(settings)) {
+      schemaFetcher.writeSnapshot(path, List.of("SALES", "STOCK"));
+
+      try (var snapshot = SnapshotMetaDataSource.open(path)) {
+        for (var schema : List.of("SALES", "STOCK")) {
+          try (var expected = schemaFetcher.forSchema(schema);
+              var actual = snapshot.forSchema(schema)) {
+            assertThat(actual.getTableNames()).containsExactlyElementsOf(expected.getTableNames());
+            for (var tableName : expected.getTableNames()) {
+              assertThat(actual.getTable(tableName)).isEqualTo(expected.getTable(tableName));
+              assertThat(actual.getTable(tableName).getSchema()).isEqualTo(schema);
+            }
+            assertThat(actual.getForeignKeyGraph().getKeys())
+                .containsExactlyElementsOf(expected.getForeignKeyGraph().getKeys());
+          }
+        }
+        assertThat(snapshot.forSchema("SALES").getForeignKeyGraph().getKeys()).isEmpty();
+      }
+    }
+  }
+
+  @Test
+  public void testReadUnknownTable() throws SQLException, IOException {
+    var path = directory.resolve("schema.snapshot");
+    fetcher.writeSnapshot(path);
+
+    try (var snapshot = SnapshotMetaDataSource.open(path)) {
+      assertThat(snapshot.getTable("UNKNOWN").getColumns()).isEmpty();
+    }
+  }
+
+  @Test
+  public void testReadInvalidSnapshot() throws IOException {
+    var path = directory.resolve("invalid.snapshot");
+    Files.write(path, new byte[32]);
+
+    assertThatThrownBy(() -> SnapshotMetaDataSource.open(path)).isInstanceOf(IOException.class);
+  }
+}
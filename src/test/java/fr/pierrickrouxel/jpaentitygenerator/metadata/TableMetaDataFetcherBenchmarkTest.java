@@ -0,0 +1,131 @@
+package fr.pierrickrouxel.jpaentitygenerator.metadata;
+
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Fetches a generated large schema and pins the number of JDBC round trips of
+ * each fetch mode.
+ */
+@Slf4j
+public class TableMetaDataFetcherBenchmarkTest {
+
+  private static final int TABLE_COUNT = 300;
+  private static final int COLUMN_COUNT = 4;
+
+  private static final JdbcSettings dialectSettings = JdbcSettings.builder()
+      .url("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1")
+      .schemaPattern("PUBLIC")
+      .build();
+
+  private static final JdbcSettings jdbcOnlySettings = JdbcSettings.builder()
+      .url(dialectSettings.getUrl())
+      .schemaPattern(dialectSettings.getSchemaPattern())
+      .metadataDialect(MetadataDialect.JDBC)
+      .build();
+
+  private static List<String> tableNames;
+
+  @BeforeAll
+  public static void setupDatabase() throws SQLException {
+    try (var conn = DriverManager.getConnection(dialectSettings.getUrl());
+        var statement = conn.createStatement()) {
+      for (var i = 0; i < TABLE_COUNT; i++) {
+        statement.execute("CREATE TABLE IF NOT EXISTS bench_" + i + " (" +
+            "id INTEGER PRIMARY KEY AUTO_INCREMENT NOT NULL, " +
+            "name VARCHAR(30) COMMENT 'name of " + i + "', " +
+            "parent_id INTEGER" + (i > 0 ? " REFERENCES bench_" + (i - 1) + "(id)" : "") + ", " +
+            "created_at TIMESTAMP NOT NULL" +
+            ")");
+        statement.execute("CREATE INDEX IF NOT EXISTS idx_bench_" + i + " ON bench_" + i + " (name)");
+      }
+    }
+    tableNames = IntStream.range(0, TABLE_COUNT).mapToObj(o -> "BENCH_" + o).toList();
+  }
+
+  @Test
+  public void testGetTable() throws SQLException {
+    var statistics = new JdbcStatistics();
+    try (var fetcher = new TableMetaDataFetcher(jdbcOnlySettings, FetchProfile.FULL, statistics)) {
+      var start = System.nanoTime();
+      for (var tableName : tableNames) {
+        assertThat(fetcher.getTable(tableName).getColumns()).hasSize(COLUMN_COUNT);
+      }
+      report("getTable", statistics, start);
+    }
+
+    assertThat(statistics.getMethod("getColumns").getCalls()).isEqualTo(TABLE_COUNT);
+    assertThat(statistics.getMethod("getColumns").getRows()).isEqualTo(TABLE_COUNT * COLUMN_COUNT);
+    assertThat(statistics.getMethod("getPrimaryKeys").getCalls()).isEqualTo(TABLE_COUNT);
+    assertThat(statistics.getMethod("getIndexInfo").getCalls()).isEqualTo(TABLE_COUNT);
+    // The foreign key graph is built once, never per fetched table
+    assertThat(statistics.getMethod("getImportedKeys").getCalls()).isLessThanOrEqualTo(TABLE_COUNT + 1);
+    assertThat(statistics.getMethod("getExportedKeys").getCalls()).isZero();
+    for (var tableName : tableNames) {
+      assertThat(statistics.getTables().get(tableName).getCalls()).isLessThanOrEqualTo(5);
+    }
+  }
+
+  @Test
+  public void testGetTables() throws SQLException {
+    var statistics = new JdbcStatistics();
+    try (var fetcher = new TableMetaDataFetcher(jdbcOnlySettings, FetchProfile.FULL, statistics)) {
+      var start = System.nanoTime();
+      assertThat(fetcher.getTables(tableNames)).hasSize(TABLE_COUNT);
+      report("getTables", statistics, start);
+    }
+
+    assertThat(statistics.getMethod("getColumns").getCalls()).isEqualTo(1);
+    assertThat(statistics.getMethod("getTables").getCalls()).isLessThanOrEqualTo(2);
+    assertThat(statistics.getMethod("getPrimaryKeys").getCalls()).isLessThanOrEqualTo(TABLE_COUNT + 1);
+    assertThat(statistics.getMethod("getIndexInfo").getCalls()).isLessThanOrEqualTo(TABLE_COUNT + 1);
+    assertThat(statistics.getMethod("getImportedKeys").getCalls()).isLessThanOrEqualTo(TABLE_COUNT + 1);
+    assertThat(statistics.getMethod("getExportedKeys").getCalls()).isZero();
+  }
+
+  @Test
+  public void testStreamTables() throws SQLException {
+    var statistics = new JdbcStatistics();
+    try (var fetcher = new TableMetaDataFetcher(jdbcOnlySettings, FetchProfile.FULL, statistics)) {
+      var start = System.nanoTime();
+      try (var tables = fetcher.streamTables(tableNames)) {
+        assertThat(tables.map(Table::getName).toList()).containsExactlyElementsOf(tableNames);
+      }
+      report("streamTables", statistics, start);
+    }
+
+    // Schema-wide calls once per batch of tables, not once per table
+    assertThat(statistics.getMethod("getColumns").getCalls()).isEqualTo(2);
+    assertThat(statistics.getMethod("getTables").getCalls()).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  public void testGetTablesWithDialect() throws SQLException {
+    var statistics = new JdbcStatistics();
+    try (var fetcher = new TableMetaDataFetcher(dialectSettings, FetchProfile.FULL, statistics)) {
+      var start = System.nanoTime();
+      assertThat(fetcher.getTables(tableNames)).hasSize(TABLE_COUNT);
+      report("getTables with dialect", statistics, start);
+    }
+
+    // Remarks, primary keys, columns, indexes and imported keys, whatever the
+    // number of tables
+    assertThat(statistics.getTotalCalls()).isEqualTo(5);
+    assertThat(statistics.getMethod(InstrumentedConnection.EXECUTE_QUERY).getRows())
+        .isGreaterThanOrEqualTo(TABLE_COUNT * COLUMN_COUNT);
+  }
+
+  private void report(String mode, JdbcStatistics statistics, long start) {
+    log.info("{}: {} tables in {} ms{}{}", mode, TABLE_COUNT, (System.nanoTime() - start) / 1_000_000,
+        System.lineSeparator(), statistics);
+  }
+}
@@ -1,14 +1,18 @@
 package fr.pierrickrouxel.jpaentitygenerator.metadata;
 
+import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import fr.pierrickrouxel.jpaentitygenerator.TestDatabase;
+import fr.pierrickrouxel.jpaentitygenerator.config.JdbcSettings;
 
 public class TableMetaDataFetcherTest {
 
@@ -19,6 +23,11 @@ public class TableMetaDataFetcherTest {
     TestDatabase.init();
   }
 
+  @AfterEach
+  public void closeFetcher() {
+    fetcher.close();
+  }
+
   @Test
   public void testGetTableNames() throws SQLException {
     var tableNames = fetcher.getTableNames();
@@ -116,6 +125,15 @@ public class TableMetaDataFetcherTest {
     assertThat(table.getImportedKeys()).anyMatch(o -> o.getPrimaryKeyColumnName().equals("EXPIRATION_TIMESTAMP"));
   }
 
+  @Test
+  public void testGetForeignKeyGraph() throws SQLException {
+    var graph = fetcher.getForeignKeyGraph();
+    assertThat(graph.getImportedKeys("ARTICLE")).hasSize(1);
+    assertThat(graph.getExportedKeys("ARTICLE")).hasSize(1);
+    assertThat(graph.getNeighbours("ARTICLE")).containsExactlyInAnyOrder("BLOG", "ARTICLE_TAG");
+    assertThat(graph.getExportedKeys("SOMETHING_TMP")).hasSize(2);
+  }
+
   @Test
   public void testGetTableIndexes() throws SQLException {
     var table = fetcher.getTable("ARTICLE");
@@ -123,6 +141,140 @@ public class TableMetaDataFetcherTest {
     assertThat(table.getIndexes().stream().filter(o -> !o.isNonUnique())).hasSize(1);
   }
 
+  @Test
+  public void testGetTables() throws SQLException {
+    var jdbcOnlySettings = TestDatabase.jdbcSettings.toBuilder().metadataDialect(MetadataDialect.JDBC).build();
+    try (var jdbcFetcher = new TableMetaDataFetcher(jdbcOnlySettings)) {
+      var tableNames = jdbcFetcher.getTableNames();
+      var tables = fetcher.getTables(tableNames);
+      assertThat(tables.stream().map(Table::getName)).containsExactlyElementsOf(tableNames);
+
+      for (var table : tables) {
+        var expected = jdbcFetcher.getTable(table.getName());
+        for (var actual : List.of(table, fetcher.getTable(table.getName()))) {
+          assertThat(actual.getRemarks()).isEqualTo(expected.getRemarks());
+          assertThat(actual.getColumns()).containsExactlyElementsOf(expected.getColumns());
+          assertThat(actual.getImportedKeys()).containsExactlyInAnyOrderElementsOf(expected.getImportedKeys());
+          assertThat(actual.getExportedKeys()).containsExactlyInAnyOrderElementsOf(expected.getExportedKeys());
+          assertThat(actual.getIndexes()).containsExactlyInAnyOrderElementsOf(expected.getIndexes());
+        }
+      }
+
+      var jdbcTables = jdbcFetcher.getTables(tableNames);
+      for (var i = 0; i < tables.size(); i++) {
+        assertThat(tables.get(i).getColumns()).containsExactlyElementsOf(jdbcTables.get(i).getColumns());
+        assertThat(tables.get(i).getIndexes()).containsExactlyInAnyOrderElementsOf(jdbcTables.get(i).getIndexes());
+      }
+    }
+  }
+
+  @Test
+  public void testGetMissingTable() throws SQLException {
+    var jdbcOnlySettings = TestDatabase.jdbcSettings.toBuilder().metadataDialect(MetadataDialect.JDBC).build();
+    try (var jdbcFetcher = new TableMetaDataFetcher(jdbcOnlySettings)) {
+      for (var metaDataFetcher : List.of(fetcher, jdbcFetcher)) {
+        var table = metaDataFetcher.getTable("MISSING");
+        assertThat(table.getName()).isEqualTo("MISSING");
+        assertThat(table.getColumns()).isEmpty();
+        assertThat(metaDataFetcher.getTables(List.of("MISSING", "BLOG"))).extracting(Table::getName)
+            .containsExactly("MISSING", "BLOG");
+      }
+    }
+  }
+
+  @Test
+  public void testGetTablesSubset() throws SQLException {
+    var tables = fetcher.getTables(List.of("ARTICLE"));
+    assertThat(tables).hasSize(1);
+    assertThat(tables.getFirst().getImportedKeys()).hasSize(1);
+    assertThat(tables.getFirst().getExportedKeys()).hasSize(1);
+  }
+
+  @Test
+  public void testStreamTables() throws SQLException {
+    var tableNames = fetcher.getTableNames();
+    var tables = fetcher.streamTables(tableNames).toList();
+    assertThat(tables.stream().map(Table::getName)).containsExactlyElementsOf(tableNames);
+    for (var table : tables) {
+      assertThat(table).isEqualTo(fetcher.getTable(table.getName()));
+    }
+  }
+
+  @Test
+  public void testStreamTablesIsLazy() throws SQLException {
+    var stream = fetcher.streamTables(fetcher.getTableNames());
+    fetcher.close();
+    assertThatThrownBy(stream::findFirst)
+        .isInstanceOf(UncheckedSQLException.class)
+        .hasCauseInstanceOf(SQLException.class);
+  }
+
+  @Test
+  public void testNamesAreInterned() throws SQLException {
+    var article = fetcher.getTable("ARTICLE");
+    var blog = fetcher.getTables(List.of("BLOG")).getFirst();
+
+    var key = article.getImportedKeys().getFirst();
+    assertThat(key.getPrimaryKeyTableName()).isSameAs(blog.getName());
+    assertThat(key.getPrimaryKeyColumnName()).isSameAs(blog.getColumns().getFirst().getName());
+    assertThat(article.getColumns().getFirst().getTypeName()).isSameAs(blog.getColumns().getFirst().getTypeName());
+  }
+
+  @Test
+  public void testFetchProfile() throws SQLException {
+    var profile = FetchProfile.builder().remarks(false).nonUniqueIndexes(false).build();
+    var jdbcOnlySettings = JdbcSettings.builder()
+        .url(TestDatabase.jdbcSettings.getUrl())
+        .schemaPattern(TestDatabase.jdbcSettings.getSchemaPattern())
+        .metadataDialect(MetadataDialect.JDBC)
+        .build();
+
+    for (var settings : List.of(TestDatabase.jdbcSettings, jdbcOnlySettings)) {
+      try (var profileFetcher = new TableMetaDataFetcher(settings, profile, null)) {
+        var tables = List.of(profileFetcher.getTable("ARTICLE_TAG"),
+            profileFetcher.getTables(List.of("ARTICLE_TAG")).getFirst());
+        for (var table : tables) {
+          assertThat(table.getColumns()).extracting(Column::getRemarks).containsOnlyNulls();
+          assertThat(table.getIndexes()).isNotEmpty().noneMatch(Index::isNonUnique);
+        }
+      }
+    }
+    assertThat(fetcher.getTable("ARTICLE_TAG").getIndexes()).anyMatch(Index::isNonUnique);
+  }
+
+  @Test
+  public void testForSchema() throws SQLException {
+    var settings = JdbcSettings.builder()
+        .url("jdbc:h2:mem:schemas;DB_CLOSE_DELAY=-1")
+        .schemaPattern("PUBLIC")
+        .build();
+    try (var connection = DriverManager.getConnection(settings.getUrl());
+        var statement = connection.createStatement()) {
+      for (var schema : List.of("SALES", "STOCK")) {
+        statement.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+        statement.execute("CREATE TABLE IF NOT EXISTS " + schema + ".item_" + schema
+            + " (id INTEGER PRIMARY KEY, name VARCHAR(30))");
+      }
+    }
+    var jdbcOnlySettings = settings.toBuilder().metadataDialect(MetadataDialect.JDBC).build();
+
+    for (var schemaSettings : List.of(settings, jdbcOnlySettings)) {
+      try (var schemaFetcher = new TableMetaDataFetcher(schemaSettings)) {
+        try (var salesFetcher = schemaFetcher.forSchema("SALES")) {
+          assertThat(salesFetcher.getTableNames()).containsExactly("ITEM_SALES");
+          assertThat(salesFetcher.getTable("ITEM_SALES").getSchema()).isEqualTo("SALES");
+          assertThat(salesFetcher.getTable("ITEM_SALES").getColumns()).extracting(Column::getName)
+              .containsExactly("ID", "NAME");
+          assertThat(salesFetcher.getTables(List.of("ITEM_SALES"))).extracting(Table::getSchema)
+              .containsExactly("SALES");
+        }
+        // The shared connections remain open once a schema fetcher is closed
+        assertThat(schemaFetcher.forSchema("STOCK").getTableNames()).containsExactly("ITEM_STOCK");
+        assertThat(schemaFetcher.getTableNames()).isEmpty();
+      }
+    }
+  }
+
   private Optional<Column> getColumn(String tableName, String columnName) throws SQLException {
     var table = fetcher.getTable(tableName);
     return table.getColumns().stream().filter(o -> o.getName().equals(columnName)).findFirst();
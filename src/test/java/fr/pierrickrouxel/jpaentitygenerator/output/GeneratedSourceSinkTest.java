@@ -0,0 +1,128 @@
+package fr.pierrickrouxel.jpaentitygenerator.output;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.squareup.javapoet.JavaFile;
+
+import fr.pierrickrouxel.jpaentitygenerator.EntityGenerator;
+import fr.pierrickrouxel.jpaentitygenerator.config.EntityGeneratorConfig;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Column;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.ForeignKeyGraph;
+import fr.pierrickrouxel.jpaentitygenerator.metadata.Table;
+
+public class GeneratedSourceSinkTest {
+
+  @TempDir
+  private Path directory;
+
+  private final JavaFile javaFile = getJavaFile("ARTICLE");
+
+  @Test
+  public void testDirectory() throws IOException {
+    var sink = GeneratedSourceSink.directory(directory, "fr.example");
+    assertThat(sink.keep("fr.example", "Article")).isFalse();
+
+    sink.write(GeneratedSource.of(javaFile));
+    var path = directory.resolve("fr/example/Article.java");
+    assertThat(sink.keep("fr.example", "Article")).isTrue();
+    assertThat(Files.readString(path)).isEqualTo(javaFile.toString());
+
+    // Shorter sources truncate the previous file
+    var table = Table.builder().name("ARTICLE").build();
+    table.getColumns().add(Column.builder().name("ID").typeCode(4).typeName("INTEGER").primaryKey(true).build());
+    var shortFile = EntityGenerator.getEntityFile(table, new ForeignKeyGraph(List.of()), new EntityGeneratorConfig());
+    sink.write(GeneratedSource.of(shortFile));
+    assertThat(Files.readString(path)).isEqualTo(shortFile.toString());
+  }
+
+  @Test
+  public void testDirectoryManifest() throws IOException {
+    var sink = GeneratedSourceSink.directory(directory, "fr.example");
+    sink.write(GeneratedSource.of(javaFile));
+    sink.write(GeneratedSource.of(getJavaFile("BLOG")));
+    sink.finish();
+    var manifestPath = DirectorySourceSink.getManifestPath(directory, "fr.example");
+    assertThat(manifestPath).exists();
+
+    var articlePath = directory.resolve("fr/example/Article.java");
+    var blogPath = directory.resolve("fr/example/Blog.java");
+    var modified = FileTime.fromMillis(0);
+    Files.setLastModifiedTime(articlePath, modified);
+
+    // The BLOG table disappeared and ARTICLE did not change
+    sink = GeneratedSourceSink.directory(directory, "fr.example");
+    sink.write(GeneratedSource.of(javaFile));
+    sink.finish();
+
+    assertThat(sink.getWrittenCount()).isZero();
+    assertThat(sink.getUnchangedCount()).isEqualTo(1);
+    assertThat(Files.getLastModifiedTime(articlePath)).isEqualTo(modified);
+    assertThat(blogPath).doesNotExist();
+
+    // Unchanged runs save the same manifest
+    var manifest = Files.readAllBytes(manifestPath);
+    sink = GeneratedSourceSink.directory(directory, "fr.example");
+    sink.write(GeneratedSource.of(javaFile));
+    sink.finish();
+    assertThat(manifestPath).hasBinaryContent(manifest);
+
+    // Files removed from the directory are written again
+    Files.delete(articlePath);
+    sink = GeneratedSourceSink.directory(directory, "fr.example");
+    sink.write(GeneratedSource.of(javaFile));
+    assertThat(sink.getWrittenCount()).isEqualTo(1);
+    assertThat(articlePath).exists();
+  }
+
+  @Test
+  public void testDirectoryPackages() throws IOException {
+    var sink = GeneratedSourceSink.directory(directory, "fr.example");
+    sink.write(GeneratedSource.of(javaFile));
+    sink.finish();
+
+    // Runs of other packages neither share the manifest nor delete the files
+    var otherSink = GeneratedSourceSink.directory(directory, "fr.other");
+    otherSink.finish();
+    assertThat(DirectorySourceSink.getManifestPath(directory, "fr.other")).exists();
+    assertThat(directory.resolve("fr/example/Article.java")).exists();
+  }
+
+  @Test
+  public void testInMemory() throws IOException {
+    var sink = GeneratedSourceSink.inMemory();
+    sink.write(GeneratedSource.of(javaFile));
+    sink.write(GeneratedSource.of(getJavaFile("BLOG")));
+
+    assertThat(sink.getSources()).containsOnlyKeys("fr.example.Article", "fr.example.Blog");
+    assertThat(sink.getSources().get("fr.example.Article")).isEqualTo(javaFile.toString());
+    assertThat(sink.keep("fr.example", "Blog")).isTrue();
+  }
+
+  @Test
+  public void testPrintStream() throws IOException {
+    var out = new ByteArrayOutputStream();
+    var sink = new PrintStreamSourceSink(new PrintStream(out, false, StandardCharsets.UTF_8));
+    sink.write(GeneratedSource.of(javaFile));
+
+    assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo(javaFile.toString());
+  }
+
+  private static JavaFile getJavaFile(String tableName) {
+    var table = Table.builder().name(tableName).build();
+    table.getColumns().addAll(List.of(
+        Column.builder().name("ID").typeCode(4).typeName("INTEGER").primaryKey(true).build(),
+        Column.builder().name("NAME").typeCode(12).typeName("VARCHAR").columnSize(50).build()));
+    return EntityGenerator.getEntityFile(table, new ForeignKeyGraph(List.of()), new EntityGeneratorConfig());
+  }
+}